@@ -2,23 +2,34 @@ package com.github.fabriciolfj.estudowebflux;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
-import org.springframework.security.crypto.factory.PasswordEncoderFactories;
+import org.springframework.boot.autoconfigure.flyway.FlywayAutoConfiguration;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
 import reactor.blockhound.BlockHound;
 
-@SpringBootApplication
+// migrations run from FlywayMigrationConfig, the auto-configuration needs spring-jdbc
+@SpringBootApplication(exclude = FlywayAutoConfiguration.class)
+@ConfigurationPropertiesScan
 public class EstudoWebfluxApplication {
 
+	private static final boolean NATIVE_IMAGE = System.getProperty("org.graalvm.nativeimage.imagecode") != null;
+
 	static {
-		BlockHound.install(
-				builder -> builder.allowBlockingCallsInside("java.util.UUID", "randomUUID")
-						.allowBlockingCallsInside("java.io.FilterInputStream", "read")
-						.allowBlockingCallsInside("java.io.InputStream", "readNBytes")
-		);
+		//BlockHound needs a java agent, which a native image cannot load
+		if (!NATIVE_IMAGE && Boolean.parseBoolean(System.getProperty("blockhound.enabled", "true"))) {
+			BlockHound.install(
+					builder -> builder.allowBlockingCallsInside("java.util.UUID", "randomUUID")
+							.allowBlockingCallsInside("java.io.FilterInputStream", "read")
+							.allowBlockingCallsInside("java.io.InputStream", "readNBytes")
+			);
+		}
 	}
 
 	public static void main(String[] args) {
-		System.out.println(PasswordEncoderFactories.createDelegatingPasswordEncoder().encode("1234"));
-		SpringApplication.run(EstudoWebfluxApplication.class, args);
+		final SpringApplication application = new SpringApplication(EstudoWebfluxApplication.class);
+		if (NATIVE_IMAGE) {
+			application.setAdditionalProfiles("native");
+		}
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,19 @@
+package com.github.fabriciolfj.estudowebflux.api.controller;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Body of {@code DELETE /animes}: either the ids to delete or a name prefix, not both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AnimeBulkDelete {
+
+    private List<Integer> ids;
+    private String namePrefix;
+}
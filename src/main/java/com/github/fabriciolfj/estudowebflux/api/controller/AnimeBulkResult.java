@@ -0,0 +1,9 @@
+package com.github.fabriciolfj.estudowebflux.api.controller;
+
+import lombok.Value;
+
+@Value
+public class AnimeBulkResult {
+
+    int affected;
+}
@@ -1,22 +1,30 @@
 package com.github.fabriciolfj.estudowebflux.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fabriciolfj.estudowebflux.api.exception.StacklessResponseStatusException;
 import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
 import com.github.fabriciolfj.estudowebflux.domain.service.AnimeService;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.AppSchedulers;
+import com.github.fabriciolfj.estudowebflux.infrastructure.writebehind.AnimeWriteBehind;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
@@ -36,7 +44,13 @@ import java.util.List;
 )
 public class AnimeController {
 
+    private static final String PREFERENCE_APPLIED = "Preference-Applied";
+    private static final StacklessResponseStatusException.Template INVALID_BULK_DELETE = StacklessResponseStatusException.template(HttpStatus.BAD_REQUEST, "Either ids or namePrefix is required");
+
     private final AnimeService animeService;
+    private final AppSchedulers appSchedulers;
+    private final ObjectMapper objectMapper;
+    private final AnimeWriteBehind animeWriteBehind;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
@@ -46,6 +60,32 @@ public class AnimeController {
         return animeService.findAll();
     }
 
+    @GetMapping("/page")
+    @ResponseStatus(HttpStatus.OK)
+    @PreAuthorize("hasRole('USER')")
+    @Operation(summary = "List animes ordered by id, starting after the given id", security = @SecurityRequirement(name = "Basic Authentication"), tags = {"anime"})
+    public Flux<Anime> findPage(@RequestParam(value = "after", defaultValue = "0") final int after,
+                                @RequestParam(value = "size", defaultValue = "20") final int size) {
+        return animeService.findPage(after, size);
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Stream the whole catalogue as NDJSON or CSV; after a disconnect, resume with after=<last id received>",
+            security = @SecurityRequirement(name = "Basic Authentication"), tags = {"anime"})
+    public ResponseEntity<Flux<String>> export(@RequestParam(value = "after", defaultValue = "0") final int after,
+                                               @RequestParam(value = "format", defaultValue = "ndjson") final String format) {
+        final AnimeExportFormat exportFormat = AnimeExportFormat.of(format);
+        final Flux<String> lines = animeService.exportChunks(after)
+                .publishOn(appSchedulers.serialization(), 1)
+                .map(chunk -> exportFormat.lines(chunk, objectMapper));
+
+        return ResponseEntity.ok()
+                .contentType(exportFormat.mediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=" + exportFormat.fileName())
+                .body(exportFormat.header().isEmpty() ? lines : lines.startWith(exportFormat.header()));
+    }
+
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
     @ResponseStatus(HttpStatus.OK)
@@ -59,10 +99,44 @@ public class AnimeController {
         return animeService.save(anime);
     }
 
+    @PostMapping(headers = "Prefer=respond-async")
+    @Operation(summary = "Accept the anime with 202 before it reaches the database, when write-behind is enabled; otherwise save it like POST /animes",
+            security = @SecurityRequirement(name = "Basic Authentication"), tags = {"anime"})
+    public Mono<ResponseEntity<Anime>> saveAsync(@RequestBody @Valid final Anime anime) {
+        if (!animeWriteBehind.isEnabled()) {
+            return save(anime).map(saved -> ResponseEntity.status(HttpStatus.CREATED).body(saved));
+        }
+        return animeWriteBehind.submit(anime)
+                .map(accepted -> ResponseEntity.accepted().header(PREFERENCE_APPLIED, "respond-async").body(accepted));
+    }
+
     @PostMapping("/batch")
     @ResponseStatus(HttpStatus.CREATED)
     public Flux<Anime> saveBatch(@RequestBody final List<Anime> animes) {
-        return animeService.saveBatch(animes);
+        return animeService.saveBatch(animes)
+                .publishOn(appSchedulers.serialization());
+    }
+
+    @PatchMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rename many animes at once; returns how many were updated", security = @SecurityRequirement(name = "Basic Authentication"), tags = {"anime"})
+    public Mono<AnimeBulkResult> updateBatch(@RequestBody final List<Anime> animes) {
+        return animeService.updateAll(animes).map(AnimeBulkResult::new);
+    }
+
+    @PutMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Rename the anime with the given id (404 when there is none), or insert or overwrite the one with the same trimmed lower-cased name when there is no id",
+            security = @SecurityRequirement(name = "Basic Authentication"), tags = {"anime"})
+    public Mono<Anime> upsert(@RequestBody @Valid final Anime anime) {
+        return animeService.upsert(anime);
+    }
+
+    @PutMapping("/batch")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Upsert many animes at once, like PUT /animes; returns how many were written", security = @SecurityRequirement(name = "Basic Authentication"), tags = {"anime"})
+    public Mono<AnimeBulkResult> upsertBatch(@RequestBody final List<Anime> animes) {
+        return animeService.upsertAll(animes).map(AnimeBulkResult::new);
     }
 
     @PutMapping("/{id}")
@@ -71,6 +145,18 @@ public class AnimeController {
         return animeService.update(id, anime);
     }
 
+    @DeleteMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Delete animes by id list or by name prefix; returns how many were deleted", security = @SecurityRequirement(name = "Basic Authentication"), tags = {"anime"})
+    public Mono<AnimeBulkResult> deleteAll(@RequestBody final AnimeBulkDelete request) {
+        final boolean byIds = request.getIds() != null && !request.getIds().isEmpty();
+        if (byIds == (request.getNamePrefix() != null)) {
+            return Mono.error(INVALID_BULK_DELETE);
+        }
+        return (byIds ? animeService.deleteAll(request.getIds()) : animeService.deleteByNamePrefix(request.getNamePrefix()))
+                .map(AnimeBulkResult::new);
+    }
+
     @DeleteMapping("/{id}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public Mono<Void> delete(@PathVariable("id") final int id) {
@@ -0,0 +1,79 @@
+package com.github.fabriciolfj.estudowebflux.api.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fabriciolfj.estudowebflux.api.exception.StacklessResponseStatusException;
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+
+import java.io.UncheckedIOException;
+import java.util.List;
+
+enum AnimeExportFormat {
+
+    NDJSON(MediaType.parseMediaType("application/x-ndjson"), "ndjson", "") {
+        @Override
+        void append(final StringBuilder lines, final Anime anime, final ObjectMapper objectMapper) {
+            try {
+                lines.append(objectMapper.writeValueAsString(anime)).append('\n');
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    },
+    CSV(MediaType.parseMediaType("text/csv"), "csv", "id,name\n") {
+        @Override
+        void append(final StringBuilder lines, final Anime anime, final ObjectMapper objectMapper) {
+            lines.append(anime.getId()).append(",\"");
+            if (anime.getName() != null) {
+                lines.append(anime.getName().replace("\"", "\"\""));
+            }
+            lines.append("\"\n");
+        }
+    };
+
+    private static final StacklessResponseStatusException.Template UNKNOWN_FORMAT = StacklessResponseStatusException.template(HttpStatus.BAD_REQUEST, "Unknown export format, use ndjson or csv");
+
+    private final MediaType mediaType;
+    private final String extension;
+    private final String header;
+
+    AnimeExportFormat(final MediaType mediaType, final String extension, final String header) {
+        this.mediaType = mediaType;
+        this.extension = extension;
+        this.header = header;
+    }
+
+    static AnimeExportFormat of(final String format) {
+        for (AnimeExportFormat value : values()) {
+            if (value.extension.equalsIgnoreCase(format)) {
+                return value;
+            }
+        }
+        throw UNKNOWN_FORMAT.get();
+    }
+
+    MediaType mediaType() {
+        return mediaType;
+    }
+
+    String fileName() {
+        return "animes." + extension;
+    }
+
+    String header() {
+        return header;
+    }
+
+    /**
+     * One buffer per chunk rather than per row: fewer writes and gzip frames, same bounded memory.
+     */
+    String lines(final List<Anime> chunk, final ObjectMapper objectMapper) {
+        final StringBuilder lines = new StringBuilder(chunk.size() * 48);
+        chunk.forEach(anime -> append(lines, anime, objectMapper));
+        return lines.toString();
+    }
+
+    abstract void append(StringBuilder lines, Anime anime, ObjectMapper objectMapper);
+}
@@ -0,0 +1,47 @@
+package com.github.fabriciolfj.estudowebflux.api.controller;
+
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import com.github.fabriciolfj.estudowebflux.domain.service.AnimeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.stereotype.Controller;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * RSocket routes over the same {@link AnimeService} as {@link AnimeController}, for services that look animes up
+ * at high rates. The connection authenticates once in its SETUP frame (see {@code RSocketSecurityConfig}) and
+ * RSocket's request(n) reaches the repository, so a slow requester slows the query instead of buffering rows.
+ */
+@Controller
+@RequiredArgsConstructor
+public class AnimeRSocketController {
+
+    static final int SAVE_CHUNK_SIZE = 100;
+    static final Duration SAVE_CHUNK_TIMEOUT = Duration.ofMillis(100);
+
+    private final AnimeService animeService;
+
+    @MessageMapping("animes.findById")
+    public Mono<Anime> findById(final Integer id) {
+        return animeService.findById(id);
+    }
+
+    @MessageMapping("animes.findAll")
+    public Flux<Anime> findAll() {
+        return animeService.findAll();
+    }
+
+    /**
+     * Request-channel: animes are saved in batches of {@value #SAVE_CHUNK_SIZE}, or of whatever arrived within
+     * {@link #SAVE_CHUNK_TIMEOUT} when the requester sends slowly or keeps the channel open, and echoed back with
+     * their ids. One batch is written at a time, so upstream demand follows the database.
+     */
+    @MessageMapping("animes.save")
+    public Flux<Anime> save(final Flux<Anime> animes) {
+        return animes.bufferTimeout(SAVE_CHUNK_SIZE, SAVE_CHUNK_TIMEOUT)
+                .concatMap(animeService::saveBatch, 1);
+    }
+}
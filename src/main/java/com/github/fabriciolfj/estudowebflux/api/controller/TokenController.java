@@ -0,0 +1,64 @@
+package com.github.fabriciolfj.estudowebflux.api.controller;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.github.fabriciolfj.estudowebflux.api.exception.StacklessResponseStatusException;
+import com.github.fabriciolfj.estudowebflux.infrastructure.token.TokenAuthentication;
+import com.github.fabriciolfj.estudowebflux.infrastructure.token.TokenService;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * {@code POST /auth/token} trades HTTP Basic credentials for a bearer token; {@code DELETE /auth/token} revokes
+ * the bearer token of the request.
+ */
+@RestController
+@RequestMapping("/auth/token")
+@RequiredArgsConstructor
+public class TokenController {
+
+    private static final StacklessResponseStatusException.Template BASIC_REQUIRED = StacklessResponseStatusException.template(HttpStatus.BAD_REQUEST, "Tokens are issued for Basic credentials only");
+    private static final StacklessResponseStatusException.Template BEARER_REQUIRED = StacklessResponseStatusException.template(HttpStatus.BAD_REQUEST, "Only bearer tokens can be revoked");
+
+    private final TokenService tokenService;
+
+    @PostMapping
+    public Mono<TokenResponse> issue(final Authentication authentication) {
+        if (authentication instanceof TokenAuthentication) {
+            return Mono.error(BASIC_REQUIRED);
+        }
+        final TokenService.IssuedToken issued = tokenService.issue(authentication);
+        return Mono.just(new TokenResponse(issued.getToken(), "Bearer",
+                Duration.between(Instant.now(), issued.getExpiresAt()).getSeconds()));
+    }
+
+    @DeleteMapping
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public Mono<Void> revoke(final Authentication authentication) {
+        if (!(authentication instanceof TokenAuthentication)) {
+            return Mono.error(BEARER_REQUIRED);
+        }
+        tokenService.revoke((TokenAuthentication) authentication);
+        return Mono.empty();
+    }
+
+    @Value
+    public static class TokenResponse {
+        @JsonProperty("access_token")
+        String accessToken;
+        @JsonProperty("token_type")
+        String tokenType;
+        @JsonProperty("expires_in")
+        long expiresIn;
+    }
+}
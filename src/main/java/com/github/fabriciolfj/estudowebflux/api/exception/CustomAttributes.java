@@ -19,7 +19,7 @@ public class CustomAttributes extends DefaultErrorAttributes {
         if (throwable instanceof ResponseStatusException) {
             var ex = (ResponseStatusException) throwable;
             errors.put("message", ex.getMessage());
-            errors.put("developerMessage", "A ResponseStatusException Happened");
+            errors.put("developerMessage", ErrorResponseWriter.DEVELOPER_MESSAGE);
         }
 
         return errors;
@@ -0,0 +1,82 @@
+package com.github.fabriciolfj.estudowebflux.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Writes the same body {@link CustomAttributes} produces for a {@link ResponseStatusException}
+ * (timestamp, path, status, error, message, requestId, developerMessage) without building the attribute map
+ * and without Jackson. The status/error part is precomputed per {@link HttpStatus}.
+ */
+@Component
+public class ErrorResponseWriter {
+
+    static final String DEVELOPER_MESSAGE = "A ResponseStatusException Happened";
+
+    private final Map<HttpStatus, String> statusFragments = new EnumMap<>(HttpStatus.class);
+
+    public ErrorResponseWriter() {
+        for (HttpStatus status : HttpStatus.values()) {
+            statusFragments.put(status, "\"status\":" + status.value() + ",\"error\":\"" + status.getReasonPhrase() + "\",");
+        }
+    }
+
+    public byte[] write(final String path, final String requestId, final ResponseStatusException ex) {
+        final String messageFragment = ex instanceof StacklessResponseStatusException
+                ? ((StacklessResponseStatusException) ex).getMessageFragment()
+                : messageFragment(ex.getMessage());
+
+        final StringBuilder body = new StringBuilder(160 + path.length() + messageFragment.length())
+                .append("{\"timestamp\":\"").append(Instant.now()).append("\",\"path\":\"");
+        appendEscaped(body, path);
+        body.append("\",").append(statusFragments.get(ex.getStatus()))
+                .append("\"requestId\":\"");
+        appendEscaped(body, requestId);
+        body.append("\",").append(messageFragment);
+        return body.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String messageFragment(final String message) {
+        final StringBuilder fragment = new StringBuilder("\"message\":\"");
+        appendEscaped(fragment, message);
+        return fragment.append("\",\"developerMessage\":\"").append(DEVELOPER_MESSAGE).append("\"}").toString();
+    }
+
+    private static void appendEscaped(final StringBuilder builder, final String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+                    break;
+                case '\n':
+                    builder.append("\\n");
+                    break;
+                case '\r':
+                    builder.append("\\r");
+                    break;
+                case '\t':
+                    builder.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+            }
+        }
+    }
+}
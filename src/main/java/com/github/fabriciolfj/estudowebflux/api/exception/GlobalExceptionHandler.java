@@ -6,20 +6,23 @@ import org.springframework.boot.web.error.ErrorAttributeOptions;
 import org.springframework.boot.web.reactive.error.ErrorAttributes;
 import org.springframework.context.ApplicationContext;
 import org.springframework.core.annotation.Order;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.codec.ServerCodecConfigurer;
 import org.springframework.stereotype.Component;
-import org.springframework.util.StringUtils;
 import org.springframework.web.reactive.function.BodyInserters;
 import org.springframework.web.reactive.function.server.RequestPredicates;
 import org.springframework.web.reactive.function.server.RouterFunction;
 import org.springframework.web.reactive.function.server.RouterFunctions;
 import org.springframework.web.reactive.function.server.ServerRequest;
 import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Mono;
 
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.springframework.boot.web.error.ErrorAttributeOptions.Include.*;
 import static org.springframework.boot.web.error.ErrorAttributeOptions.defaults;
@@ -28,8 +31,19 @@ import static org.springframework.boot.web.error.ErrorAttributeOptions.defaults;
 @Component
 public class GlobalExceptionHandler extends AbstractErrorWebExceptionHandler {
 
-    public GlobalExceptionHandler(ErrorAttributes errorAttributes, ResourceProperties resourceProperties, ApplicationContext applicationContext, ServerCodecConfigurer codecConfigurer) {
+    // a bounded scheduler (AppSchedulers) refused the work
+    private static final StacklessResponseStatusException.Template OVERLOADED = StacklessResponseStatusException.template(HttpStatus.SERVICE_UNAVAILABLE, "Server is busy, try again later");
+    // a unique index refused the write, e.g. a name already taken once trimmed and lower-cased
+    private static final StacklessResponseStatusException.Template CONFLICT = StacklessResponseStatusException.template(HttpStatus.CONFLICT, "Conflicts with an existing resource");
+
+    private final ErrorAttributes errorAttributes;
+    private final ErrorResponseWriter errorResponseWriter;
+
+    public GlobalExceptionHandler(ErrorAttributes errorAttributes, ResourceProperties resourceProperties, ApplicationContext applicationContext,
+                                  ServerCodecConfigurer codecConfigurer, ErrorResponseWriter errorResponseWriter) {
         super(errorAttributes, resourceProperties, applicationContext);
+        this.errorAttributes = errorAttributes;
+        this.errorResponseWriter = errorResponseWriter;
         this.setMessageWriters(codecConfigurer.getWriters());
     }
 
@@ -39,8 +53,19 @@ public class GlobalExceptionHandler extends AbstractErrorWebExceptionHandler {
     }
 
     private Mono<ServerResponse> formatErrorResponse(final ServerRequest request) {
-        final String query = request.uri().getQuery();
-        final ErrorAttributeOptions errorAttributeOptions = isTraceEnabled(query) ? ErrorAttributeOptions.of(STACK_TRACE) : defaults();
+        final String query = request.uri().getRawQuery();
+        final boolean traceEnabled = isTraceEnabled(query);
+        final Throwable error = translate(errorAttributes.getError(request));
+
+        if (!traceEnabled && error instanceof ResponseStatusException) {
+            final ResponseStatusException ex = (ResponseStatusException) error;
+            final byte[] body = errorResponseWriter.write(request.path(), request.exchange().getRequest().getId(), ex);
+            return ServerResponse.status(ex.getStatus())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(BodyInserters.fromValue(body));
+        }
+
+        final ErrorAttributeOptions errorAttributeOptions = traceEnabled ? ErrorAttributeOptions.of(STACK_TRACE) : defaults();
         final Map<String, Object> errors = getErrorAttributes(request, errorAttributeOptions);
         final int status = (int) Optional.ofNullable(errors.get("status")).orElse(500);
         return ServerResponse.status(status)
@@ -48,7 +73,14 @@ public class GlobalExceptionHandler extends AbstractErrorWebExceptionHandler {
                 .body(BodyInserters.fromValue(errors));
     }
 
+    private static Throwable translate(final Throwable error) {
+        if (error instanceof RejectedExecutionException) {
+            return OVERLOADED.get();
+        }
+        return error instanceof DataIntegrityViolationException ? CONFLICT.get() : error;
+    }
+
     private boolean isTraceEnabled(final String query) {
-        return !StringUtils.isEmpty(query) && query.contains("trace=true");
+        return query != null && query.contains("trace=true");
     }
 }
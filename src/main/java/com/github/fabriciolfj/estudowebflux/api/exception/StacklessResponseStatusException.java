@@ -0,0 +1,62 @@
+package com.github.fabriciolfj.estudowebflux.api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.function.Supplier;
+
+/**
+ * {@link ResponseStatusException} for expected errors (404, invalid input) that captures no stack trace. Declare
+ * one {@link Template} per error and raise a new instance from it each time: Reactor's checkpoints add a suppressed
+ * exception to every error they see, so a shared instance would grow with every request. The JSON fragment for the
+ * message is built once by the template, so {@link ErrorResponseWriter} only has to add the per-request fields.
+ */
+public class StacklessResponseStatusException extends ResponseStatusException {
+
+    private final String messageFragment;
+
+    public StacklessResponseStatusException(final HttpStatus status, final String reason) {
+        super(status, reason);
+        this.messageFragment = ErrorResponseWriter.messageFragment(getMessage());
+    }
+
+    private StacklessResponseStatusException(final Template template) {
+        super(template.status, template.reason);
+        this.messageFragment = template.messageFragment;
+    }
+
+    public static Template template(final HttpStatus status, final String reason) {
+        return new Template(status, reason);
+    }
+
+    String getMessageFragment() {
+        return messageFragment;
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+
+    /**
+     * Status, reason and message fragment of one expected error; {@link #get()} returns a new exception, so it can
+     * be passed to {@code Mono.error(Supplier)} directly.
+     */
+    public static final class Template implements Supplier<StacklessResponseStatusException> {
+
+        private final HttpStatus status;
+        private final String reason;
+        private final String messageFragment;
+
+        private Template(final HttpStatus status, final String reason) {
+            this.status = status;
+            this.reason = reason;
+            this.messageFragment = new StacklessResponseStatusException(status, reason).getMessageFragment();
+        }
+
+        @Override
+        public StacklessResponseStatusException get() {
+            return new StacklessResponseStatusException(this);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.fabriciolfj.estudowebflux.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.rsocket.EnableRSocketSecurity;
+import org.springframework.security.config.annotation.rsocket.RSocketSecurity;
+import org.springframework.security.rsocket.core.PayloadSocketAcceptorInterceptor;
+
+/**
+ * RSocket server (spring.rsocket.server.port): the requester sends simple-auth credentials in the SETUP frame,
+ * they are checked once with the same authentication manager as HTTP Basic and the resulting principal applies to
+ * every request on the connection.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableRSocketSecurity
+public class RSocketSecurityConfig {
+
+    @Bean
+    public PayloadSocketAcceptorInterceptor rsocketInterceptor(final RSocketSecurity rsocket,
+                                                               final ReactiveAuthenticationManager authenticationManager) {
+        return rsocket
+                .authorizePayload(authorize -> authorize
+                        .setup().authenticated()
+                        .route("animes.save").hasRole("ADMIN")
+                        .route("animes.*").hasRole("USER")
+                        .anyRequest().authenticated()
+                        .anyExchange().permitAll())
+                .simpleAuthentication(Customizer.withDefaults())
+                .authenticationManager(authenticationManager)
+                .build();
+    }
+}
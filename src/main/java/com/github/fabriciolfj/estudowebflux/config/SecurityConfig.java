@@ -1,12 +1,18 @@
 package com.github.fabriciolfj.estudowebflux.config;
 
 import com.github.fabriciolfj.estudowebflux.domain.service.UserService;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.AppSchedulers;
+import com.github.fabriciolfj.estudowebflux.infrastructure.token.BearerTokenAuthenticationFilter;
+import com.github.fabriciolfj.estudowebflux.infrastructure.token.TokenService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.ReactiveAuthenticationManager;
 import org.springframework.security.authentication.UserDetailsRepositoryReactiveAuthenticationManager;
 import org.springframework.security.config.annotation.method.configuration.EnableReactiveMethodSecurity;
 import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.SecurityWebFiltersOrder;
 import org.springframework.security.config.web.server.ServerHttpSecurity;
 import org.springframework.security.core.userdetails.MapReactiveUserDetailsService;
 import org.springframework.security.core.userdetails.User;
@@ -17,19 +23,23 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.server.SecurityWebFilterChain;
 
 @EnableWebFluxSecurity
-@EnableReactiveMethodSecurity
 public class SecurityConfig {
 
     @Bean
-    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http) {
+    public SecurityWebFilterChain securityWebFilterChain(ServerHttpSecurity http, TokenService tokenService) {
         return http
                 .csrf().disable()
+                .addFilterAt(new BearerTokenAuthenticationFilter(tokenService), SecurityWebFiltersOrder.AUTHENTICATION)
                 .authorizeExchange()
+                .pathMatchers("/auth/token").authenticated()
                 .pathMatchers(HttpMethod.POST, "/animes/**").hasRole("ADMIN")
                 .pathMatchers(HttpMethod.PUT, "/animes/**").hasRole("ADMIN")
+                .pathMatchers(HttpMethod.PATCH, "/animes/**").hasRole("ADMIN")
                 .pathMatchers(HttpMethod.DELETE, "/animes/**").hasRole("ADMIN")
+                .pathMatchers(HttpMethod.GET, "/animes/export").hasRole("ADMIN")
                 .pathMatchers(HttpMethod.GET, "/animes/**").hasRole("USER")
                 .pathMatchers("/webjars/**", "/v3/api-docs/**", "/swagger-ui.html").permitAll()
+                .pathMatchers("/actuator/health/**").permitAll()
                 .anyExchange().authenticated()
                 .and()
                 .formLogin()
@@ -55,8 +65,17 @@ public class SecurityConfig {
     }*/
 
     @Bean
-    ReactiveAuthenticationManager authenticationManager(final UserService userService){
-        return new UserDetailsRepositoryReactiveAuthenticationManager(userService);
+    ReactiveAuthenticationManager authenticationManager(final UserService userService, final AppSchedulers appSchedulers){
+        final UserDetailsRepositoryReactiveAuthenticationManager authenticationManager = new UserDetailsRepositoryReactiveAuthenticationManager(userService);
+        authenticationManager.setScheduler(appSchedulers.auth());
+        return authenticationManager;
+    }
+
+    //off in the native image, CGLIB proxies for @PreAuthorize cannot be generated at runtime there
+    @Configuration(proxyBeanMethods = false)
+    @EnableReactiveMethodSecurity
+    @ConditionalOnProperty(name = "app.security.method-security", havingValue = "true", matchIfMissing = true)
+    static class MethodSecurityConfig {
     }
 
 }
@@ -1,8 +1,53 @@
 package com.github.fabriciolfj.estudowebflux.domain.repository;
 
 import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
 import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 public interface AnimeRepository extends ReactiveCrudRepository<Anime, Integer> {
 
+    @Query("SELECT id, name FROM anime WHERE id > :afterId ORDER BY id LIMIT :size")
+    Flux<Anime> findPageAfter(final Integer afterId, final int size);
+
+    /**
+     * The bulk writes return the rows they touched, so the caller can record one outbox event per row in the same
+     * transaction.
+     */
+    @Query("DELETE FROM anime WHERE id = ANY(CAST(:ids AS int[])) RETURNING id, name")
+    Flux<Anime> deleteByIds(final Integer[] ids);
+
+    /**
+     * Deletes the animes whose name starts with {@code prefix}, taken literally ({@code %}, {@code _} and
+     * {@code \} are escaped); the {@code LIKE 'prefix%'} form is answered from {@code anime_name_pattern}.
+     */
+    @Query("DELETE FROM anime WHERE name LIKE replace(replace(replace(:prefix, '\\', '\\\\'), '%', '\\%'), '_', '\\_') || '%' RETURNING id, name")
+    Flux<Anime> deleteByNamePrefix(final String prefix);
+
+    @Query("UPDATE anime AS a SET name = v.name FROM unnest(CAST(:ids AS int[]), CAST(:names AS text[])) AS v(id, name) WHERE a.id = v.id RETURNING a.id, a.name")
+    Flux<Anime> renameAll(final Integer[] ids, final String[] names);
+
+    /**
+     * Inserts the anime or renames the one whose name is the same once trimmed and lower-cased
+     * ({@code anime_normalized_name}); either way returns the row with its id.
+     */
+    @Query("INSERT INTO anime (name) VALUES (:name) ON CONFLICT ((lower(btrim(name)))) DO UPDATE SET name = EXCLUDED.name RETURNING id, name")
+    Mono<Anime> upsertByName(final String name);
+
+    /**
+     * {@link #upsertByName} for many names in one statement; of names that normalize alike, the last one wins.
+     */
+    @Query("INSERT INTO anime (name) SELECT DISTINCT ON (lower(btrim(v.name))) v.name FROM unnest(CAST(:names AS text[])) WITH ORDINALITY AS v(name, position) "
+            + "ORDER BY lower(btrim(v.name)), v.position DESC ON CONFLICT ((lower(btrim(name)))) DO UPDATE SET name = EXCLUDED.name RETURNING id, name")
+    Flux<Anime> upsertAllByName(final String[] names);
+
+    /**
+     * Inserts the names that are not taken yet ({@code anime_normalized_name}) and returns them with their ids;
+     * names already taken are left untouched and not returned. Of names that normalize alike, the first one wins.
+     */
+    @Query("INSERT INTO anime (name) SELECT DISTINCT ON (lower(btrim(v.name))) v.name FROM unnest(CAST(:names AS text[])) WITH ORDINALITY AS v(name, position) "
+            + "ORDER BY lower(btrim(v.name)), v.position ON CONFLICT ((lower(btrim(name)))) DO NOTHING RETURNING id, name")
+    Flux<Anime> insertAllByNameIfAbsent(final String[] names);
 }
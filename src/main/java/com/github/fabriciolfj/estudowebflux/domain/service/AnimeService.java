@@ -1,10 +1,14 @@
 package com.github.fabriciolfj.estudowebflux.domain.service;
 
+import com.github.fabriciolfj.estudowebflux.api.exception.StacklessResponseStatusException;
 import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
 import com.github.fabriciolfj.estudowebflux.domain.repository.AnimeRepository;
+import com.github.fabriciolfj.estudowebflux.infrastructure.outbox.AnimeOutbox;
+import com.github.fabriciolfj.estudowebflux.infrastructure.resilience.RepositoryResilience;
 import io.netty.util.internal.StringUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -12,59 +16,258 @@ import org.springframework.web.server.ResponseStatusException;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+
+import static com.github.fabriciolfj.estudowebflux.infrastructure.routing.ReadOnlyRouting.readOnly;
 
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class AnimeService {
 
+    private static final StacklessResponseStatusException.Template ANIME_NOT_FOUND = StacklessResponseStatusException.template(HttpStatus.NOT_FOUND, "Anime not found");
+    private static final StacklessResponseStatusException.Template INVALID_NAME = StacklessResponseStatusException.template(HttpStatus.BAD_REQUEST, "Invalid name");
+    private static final int MAX_PAGE_SIZE = 100;
+    static final int EXPORT_CHUNK_SIZE = 1_000;
+    static final int BULK_CHUNK_SIZE = 1_000;
+    private static final String FIND_BY_ID = "findById";
+
     private final AnimeRepository animeRepository;
+    private final RepositoryResilience repositoryResilience;
+    private final AnimeOutbox animeOutbox;
 
     public Flux<Anime> findAll() {
-        return animeRepository.findAll();
+        return repositoryResilience.readMany("findAll", () -> readOnly(animeRepository.findAll()));
+    }
+
+    public Flux<Anime> findPage(final int afterId, final int size) {
+        final int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        return repositoryResilience.readMany("findPage", () -> readOnly(animeRepository.findPageAfter(afterId, pageSize)));
+    }
+
+    /**
+     * Whole catalogue after {@code afterId} in id order, one keyset query per chunk; the next chunk is only
+     * queried once the previous one was requested downstream.
+     */
+    public Flux<List<Anime>> exportChunks(final int afterId) {
+        return exportChunk(afterId)
+                .expand(chunk -> chunk.size() < EXPORT_CHUNK_SIZE ? Mono.empty() : exportChunk(chunk.get(chunk.size() - 1).getId()));
+    }
+
+    private Mono<List<Anime>> exportChunk(final int afterId) {
+        return repositoryResilience.readMany("export", () -> readOnly(animeRepository.findPageAfter(afterId, EXPORT_CHUNK_SIZE)))
+                .collectList()
+                .filter(chunk -> !chunk.isEmpty());
     }
 
     public Mono<Anime> findById(final Integer id) {
-        return animeRepository.findById(id)
+        return repositoryResilience.readCached(FIND_BY_ID, id, AnimeService::copy, () -> readOnly(animeRepository.findById(id)))
                 .switchIfEmpty(monoResponseStatusNotFoundException())
                 .log();
     }
 
     public <T> Mono<T> monoResponseStatusNotFoundException() {
-        return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found"));
+        return Mono.error(ANIME_NOT_FOUND);
     }
 
+    /**
+     * Emits each anime as it is saved; the outbox rows for the whole batch are written once the last one is.
+     */
     @Transactional
     public Flux<Anime> saveBatch(final List<Anime> animes) {
-        return animeRepository.saveAll(animes)
-                .doOnNext(e -> {
-                    log.info("Anime fail: {}", e);
-                    throwResponseStatusExceptionWhenEmptyName(e);
-                }).log();
+        return Flux.defer(() -> {
+            final List<Anime> saved = new ArrayList<>();
+            return repositoryResilience.writeMany("saveBatch", () -> animeRepository.saveAll(animes))
+                    .doOnNext(e -> {
+                        log.info("Anime fail: {}", e);
+                        throwResponseStatusExceptionWhenEmptyName(e);
+                        evict(e);
+                        saved.add(e);
+                    })
+                    .concatWith(Mono.defer(() -> animeOutbox.append(AnimeOutbox.Type.ANIME_SAVED, saved)).then(Mono.empty()));
+        }).log();
     }
 
     private void throwResponseStatusExceptionWhenEmptyName(final Anime anime) {
         if(StringUtil.isNullOrEmpty(anime.getName())) {
-            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid name");
+            throw INVALID_NAME.get();
         }
     }
 
+    @Transactional
     public Mono<Anime> save(final Anime anime) {
-        return animeRepository.save(anime)
-                .onErrorMap(e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fail save anime. Details: " +e.getMessage()));
+        return repositoryResilience.write("save", () -> animeRepository.save(anime))
+                .doOnNext(this::evict)
+                .flatMap(saved -> animeOutbox.append(AnimeOutbox.Type.ANIME_SAVED, List.of(saved)).thenReturn(saved))
+                .onErrorMap(e -> !(e instanceof ResponseStatusException || e instanceof DataIntegrityViolationException), e -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fail save anime. Details: " +e.getMessage()));
     }
 
+    @Transactional
     public Mono<Void> update(final int id, final Anime anime) {
         return findById(id)
-                .flatMap(a -> {
-                    a.setName(anime.getName());
-                    return animeRepository.save(a);
-                }).then();
+                .flatMap(a -> repositoryResilience.write("update", () -> animeRepository.save(a.withName(anime.getName()))))
+                .flatMap(updated -> animeOutbox.append(AnimeOutbox.Type.ANIME_UPDATED, List.of(updated)))
+                .doFinally(signal -> evict(id));
     }
 
+    @Transactional
     public Mono<Void> delete(int id) {
         return findById(id)
-                .flatMap(animeRepository::delete);
+                .flatMap(a -> repositoryResilience.write("delete", () -> animeRepository.delete(a))
+                        .then(animeOutbox.append(AnimeOutbox.Type.ANIME_DELETED, List.of(a))))
+                .doFinally(signal -> evict(id));
+    }
+
+    /**
+     * One {@code DELETE ... = ANY(ids)} per {@value #BULK_CHUNK_SIZE} ids, all in one transaction together with an
+     * {@code ANIME_DELETED} outbox row per deleted anime; returns the number of rows deleted (ids that do not exist
+     * are not an error).
+     */
+    @Transactional
+    public Mono<Integer> deleteAll(final List<Integer> ids) {
+        return Flux.fromIterable(chunks(new ArrayList<>(new LinkedHashSet<>(ids))))
+                .concatMap(chunk -> repositoryResilience.writeMany("bulkDelete", () -> animeRepository.deleteByIds(chunk.toArray(new Integer[0]))))
+                .collectList()
+                .flatMap(deleted -> animeOutbox.append(AnimeOutbox.Type.ANIME_DELETED, deleted).thenReturn(deleted.size()))
+                .doFinally(signal -> ids.forEach(this::evict));
+    }
+
+    @Transactional
+    public Mono<Integer> deleteByNamePrefix(final String prefix) {
+        if (StringUtil.isNullOrEmpty(prefix)) {
+            return Mono.error(INVALID_NAME);
+        }
+        return repositoryResilience.writeMany("bulkDelete", () -> animeRepository.deleteByNamePrefix(prefix))
+                .collectList()
+                .flatMap(deleted -> animeOutbox.append(AnimeOutbox.Type.ANIME_DELETED, deleted).thenReturn(deleted.size()))
+                .doFinally(signal -> repositoryResilience.evictAll(FIND_BY_ID));
+    }
+
+    /**
+     * Renames every given anime with one {@code UPDATE ... FROM unnest(ids, names)} per {@value #BULK_CHUNK_SIZE}
+     * animes, all in one transaction together with an {@code ANIME_UPDATED} outbox row per renamed anime; returns
+     * the number of rows updated. The last name wins for repeated ids.
+     */
+    @Transactional
+    public Mono<Integer> updateAll(final List<Anime> animes) {
+        final Map<Integer, String> names = new LinkedHashMap<>();
+        for (Anime anime : animes) {
+            if (anime.getId() == null || StringUtil.isNullOrEmpty(anime.getName())) {
+                return Mono.error(INVALID_NAME);
+            }
+            names.put(anime.getId(), anime.getName());
+        }
+
+        return Flux.fromIterable(chunks(new ArrayList<>(names.keySet())))
+                .concatMap(chunk -> repositoryResilience.writeMany("bulkUpdate", () -> animeRepository.renameAll(
+                        chunk.toArray(new Integer[0]), chunk.stream().map(names::get).toArray(String[]::new))))
+                .collectList()
+                .flatMap(renamed -> animeOutbox.append(AnimeOutbox.Type.ANIME_UPDATED, renamed).thenReturn(renamed.size()))
+                .doFinally(signal -> names.keySet().forEach(this::evict));
+    }
+
+    /**
+     * Writes the anime without a prior lookup: with an id, renames that anime (404 when there is none, ids are only
+     * assigned by the database); without one, overwrites the anime with the same name once trimmed and lower-cased,
+     * and inserts it when there is none.
+     */
+    @Transactional
+    public Mono<Anime> upsert(final Anime anime) {
+        if (StringUtil.isNullOrEmpty(anime.getName())) {
+            return Mono.error(INVALID_NAME);
+        }
+        return repositoryResilience.write("upsert", () -> anime.getId() == null
+                        ? animeRepository.upsertByName(anime.getName())
+                        : animeRepository.renameAll(new Integer[]{anime.getId()}, new String[]{anime.getName()}).next())
+                .switchIfEmpty(monoResponseStatusNotFoundException())
+                .doOnNext(this::evict)
+                .flatMap(saved -> animeOutbox.append(AnimeOutbox.Type.ANIME_SAVED, List.of(saved)).thenReturn(saved));
+    }
+
+    /**
+     * {@link #upsert} for many animes: one {@code UPDATE ... FROM unnest} per {@value #BULK_CHUNK_SIZE} animes with
+     * an id and one {@code INSERT ... ON CONFLICT} per {@value #BULK_CHUNK_SIZE} without, all in one transaction;
+     * returns the number of animes written. Nothing is written when one of the ids does not exist (404). The last
+     * write wins for repeated ids or names.
+     */
+    @Transactional
+    public Mono<Integer> upsertAll(final List<Anime> animes) {
+        final Map<Integer, String> names = new LinkedHashMap<>();
+        final List<String> unidentified = new ArrayList<>();
+        for (Anime anime : animes) {
+            if (StringUtil.isNullOrEmpty(anime.getName())) {
+                return Mono.error(INVALID_NAME);
+            }
+            if (anime.getId() == null) {
+                unidentified.add(anime.getName());
+            } else {
+                names.put(anime.getId(), anime.getName());
+            }
+        }
+
+        return Flux.fromIterable(chunks(new ArrayList<>(names.keySet())))
+                .concatMap(chunk -> repositoryResilience.writeMany("bulkUpsert", () -> animeRepository.renameAll(
+                        chunk.toArray(new Integer[0]), chunk.stream().map(names::get).toArray(String[]::new))))
+                .collectList()
+                .flatMap(renamed -> renamed.size() < names.size() ? Mono.<List<Anime>>error(ANIME_NOT_FOUND) : Mono.just(renamed))
+                .flatMap(renamed -> Flux.fromIterable(chunks(unidentified))
+                        .concatMap(chunk -> repositoryResilience.writeMany("bulkUpsert", () -> animeRepository.upsertAllByName(chunk.toArray(new String[0]))))
+                        .collectList()
+                        .map(upsertedByName -> {
+                            final List<Anime> written = new ArrayList<>(upsertedByName);
+                            written.addAll(renamed);
+                            return written;
+                        }))
+                .flatMap(written -> {
+                    written.forEach(this::evict);
+                    return animeOutbox.append(AnimeOutbox.Type.ANIME_SAVED, written).thenReturn(written.size());
+                })
+                .doOnError(e -> names.keySet().forEach(this::evict));
+    }
+
+    /**
+     * Inserts the animes whose name is not taken yet, once trimmed and lower-cased, with one statement per
+     * {@value #BULK_CHUNK_SIZE} names, all in one transaction; existing animes are never renamed. Emits the
+     * inserted animes.
+     */
+    @Transactional
+    public Flux<Anime> insertAllIfAbsent(final List<String> names) {
+        if (names.stream().anyMatch(StringUtil::isNullOrEmpty)) {
+            return Flux.error(INVALID_NAME);
+        }
+        return Flux.fromIterable(chunks(names))
+                .concatMap(chunk -> repositoryResilience.writeMany("bulkInsert", () -> animeRepository.insertAllByNameIfAbsent(chunk.toArray(new String[0]))))
+                .collectList()
+                .flatMapMany(inserted -> animeOutbox.append(AnimeOutbox.Type.ANIME_SAVED, inserted).thenMany(Flux.fromIterable(inserted)));
+    }
+
+    /**
+     * Drops the stale copy {@link #findById} serves while the database is unavailable; every write path calls it
+     * for the ids it touched.
+     */
+    private void evict(final Integer id) {
+        if (id != null) {
+            repositoryResilience.evict(FIND_BY_ID, id);
+        }
+    }
+
+    private void evict(final Anime anime) {
+        evict(anime.getId());
+    }
+
+    private static Anime copy(final Anime anime) {
+        return new Anime(anime.getId(), anime.getName());
+    }
+
+    private static <T> List<List<T>> chunks(final List<T> items) {
+        final List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += BULK_CHUNK_SIZE) {
+            chunks.add(items.subList(from, Math.min(from + BULK_CHUNK_SIZE, items.size())));
+        }
+        return chunks;
     }
 }
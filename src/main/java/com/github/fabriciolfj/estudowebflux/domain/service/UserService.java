@@ -7,6 +7,8 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.Mono;
 
+import static com.github.fabriciolfj.estudowebflux.infrastructure.routing.ReadOnlyRouting.readOnly;
+
 @Service
 @RequiredArgsConstructor
 public class UserService implements ReactiveUserDetailsService {
@@ -15,7 +17,7 @@ public class UserService implements ReactiveUserDetailsService {
 
     @Override
     public Mono<UserDetails> findByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return readOnly(userRepository.findByUsername(username))
                 .cast(UserDetails.class);
     }
 }
@@ -0,0 +1,25 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.http2;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.channel.BootstrapHandlers;
+
+/**
+ * With {@code server.http2.enabled} Boot already serves h2 (ALPN) when {@code server.ssl} is on and h2c
+ * (upgrade or prior knowledge) otherwise, always next to HTTP/1.1. Reactor Netty 0.9 has no API for the HTTP/2
+ * settings, so {@link Http2SettingsHandler} is installed on every connection to announce {@link Http2Properties}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "server.http2", name = "enabled", havingValue = "true")
+public class Http2Config {
+
+    @Bean
+    public WebServerFactoryCustomizer<NettyReactiveWebServerFactory> http2SettingsCustomizer(final Http2Properties properties) {
+        return factory -> factory.addServerCustomizers(httpServer -> httpServer.tcpConfiguration(tcp -> tcp.doOnBind(bootstrap ->
+                BootstrapHandlers.updateConfiguration(bootstrap, Http2SettingsHandler.NAME,
+                        (observer, channel) -> channel.pipeline().addFirst(Http2SettingsHandler.NAME, new Http2SettingsHandler(properties))))));
+    }
+}
@@ -0,0 +1,31 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.http2;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * HTTP/2 settings the server announces once a connection is upgraded (h2c) or negotiated through ALPN (h2).
+ * The protocols themselves come from {@code server.http2.enabled} and {@code server.ssl.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.http2")
+public class Http2Properties {
+
+    /**
+     * Streams a single client may have open at once (SETTINGS_MAX_CONCURRENT_STREAMS).
+     */
+    private long maxConcurrentStreams = 256;
+    /**
+     * Per-stream receive window (SETTINGS_INITIAL_WINDOW_SIZE).
+     */
+    private DataSize initialWindowSize = DataSize.ofMegabytes(1);
+    /**
+     * Receive window shared by all streams of a connection, raised with a WINDOW_UPDATE on stream 0.
+     */
+    private DataSize connectionWindowSize = DataSize.ofMegabytes(4);
+    /**
+     * HPACK dynamic table the server keeps for request headers (SETTINGS_HEADER_TABLE_SIZE).
+     */
+    private DataSize headerTableSize = DataSize.ofKilobytes(4);
+}
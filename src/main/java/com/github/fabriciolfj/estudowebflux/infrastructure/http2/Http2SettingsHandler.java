@@ -0,0 +1,57 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.http2;
+
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.handler.codec.http2.Http2Connection;
+import io.netty.handler.codec.http2.Http2ConnectionHandler;
+import io.netty.handler.codec.http2.Http2Exception;
+import io.netty.handler.codec.http2.Http2LocalFlowController;
+import io.netty.handler.codec.http2.Http2Settings;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Sits on the connection (parent) channel and, as soon as the HTTP/2 codec shows up in the pipeline, sends the
+ * configured SETTINGS and widens the connection window, then removes itself. Netty applies the new local settings
+ * when the client acknowledges them. HTTP/1.1 connections never get a codec and only pay an extra pipeline hop.
+ */
+@Slf4j
+class Http2SettingsHandler extends ChannelInboundHandlerAdapter {
+
+    static final String NAME = "http2SettingsHandler";
+
+    private final Http2Properties properties;
+
+    Http2SettingsHandler(final Http2Properties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public void channelReadComplete(final ChannelHandlerContext ctx) {
+        final Http2ConnectionHandler http2 = ctx.pipeline().get(Http2ConnectionHandler.class);
+        if (http2 != null) {
+            ctx.pipeline().remove(this);
+            apply(ctx.pipeline().context(http2), http2);
+        }
+        ctx.fireChannelReadComplete();
+    }
+
+    private void apply(final ChannelHandlerContext http2Ctx, final Http2ConnectionHandler http2) {
+        final Http2Settings settings = new Http2Settings()
+                .maxConcurrentStreams(properties.getMaxConcurrentStreams())
+                .initialWindowSize((int) properties.getInitialWindowSize().toBytes())
+                .headerTableSize(properties.getHeaderTableSize().toBytes());
+        http2.encoder().writeSettings(http2Ctx, settings, http2Ctx.newPromise());
+
+        final Http2Connection connection = http2.connection();
+        final Http2LocalFlowController flowController = connection.local().flowController();
+        final int delta = (int) properties.getConnectionWindowSize().toBytes() - flowController.windowSize(connection.connectionStream());
+        if (delta > 0) {
+            try {
+                flowController.incrementWindowSize(connection.connectionStream(), delta);
+            } catch (Http2Exception e) {
+                log.warn("Could not widen the HTTP/2 connection window on {}", http2Ctx.channel(), e);
+            }
+        }
+        http2Ctx.flush();
+    }
+}
@@ -0,0 +1,55 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.idempotency;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The most recently used stored responses, at most {@code maxSize}, each for {@code ttl}. Spares retries that
+ * come back to the instance that answered first the round trip to {@code idempotency_key}.
+ */
+public class IdempotencyCache {
+
+    private final long ttlNanos;
+    private final Map<IdempotencyKey, Entry> entries;
+
+    public IdempotencyCache(final int maxSize, final Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<IdempotencyKey, Entry> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    public synchronized StoredResponse get(final IdempotencyKey key, final long nowNanos) {
+        final Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (nowNanos - entry.storedAt > ttlNanos) {
+            entries.remove(key);
+            return null;
+        }
+        return entry.response;
+    }
+
+    public synchronized void put(final IdempotencyKey key, final StoredResponse response, final long nowNanos) {
+        entries.put(key, new Entry(response, nowNanos));
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private static final class Entry {
+        private final StoredResponse response;
+        private final long storedAt;
+
+        private Entry(final StoredResponse response, final long storedAt) {
+            this.response = response;
+            this.storedAt = storedAt;
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.idempotency;
+
+import lombok.Value;
+
+/**
+ * Keys are scoped to the authenticated user, so one client can never be answered with another's response.
+ */
+@Value
+public class IdempotencyKey {
+
+    String principal;
+    String key;
+}
@@ -0,0 +1,33 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.idempotency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.idempotency")
+public class IdempotencyProperties {
+
+    private boolean enabled = true;
+    /**
+     * POST paths that honour the {@code Idempotency-Key} header.
+     */
+    private List<String> paths = new ArrayList<>(List.of("/animes", "/animes/batch"));
+    /**
+     * How long the first response for a key is replayed.
+     */
+    private Duration ttl = Duration.ofHours(24);
+    /**
+     * Responses kept in memory, most recently used first; the rest are read back from {@code idempotency_key}.
+     */
+    private int cacheSize = 10_000;
+    /**
+     * Requests with a key are buffered to fingerprint them; larger bodies are answered with 413.
+     */
+    private DataSize maxRequestSize = DataSize.ofMegabytes(1);
+    private Duration purgeInterval = Duration.ofMinutes(10);
+}
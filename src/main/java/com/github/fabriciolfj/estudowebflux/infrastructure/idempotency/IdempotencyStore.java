@@ -0,0 +1,110 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.idempotency;
+
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Durable side of the idempotency keys, table {@code idempotency_key}. A key is claimed and completed in the
+ * transaction of the request it guards, so a committed row always carries the response and a row whose request
+ * failed is rolled back with it. While that transaction runs, the row stays locked: a concurrent claim of the same
+ * key from another instance waits for the commit and then finds the stored response. Expired rows are taken over
+ * by the next claim and purged every {@code app.idempotency.purge-interval}.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "app.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyStore implements InitializingBean, DisposableBean {
+
+    private static final String CLAIM = "INSERT INTO idempotency_key (principal, idempotency_key, request_hash, expires_at) "
+            + "VALUES (:principal, :key, :hash, now() + CAST(:ttl AS interval)) "
+            + "ON CONFLICT (principal, idempotency_key) DO UPDATE SET request_hash = EXCLUDED.request_hash, status = NULL, "
+            + "content_type = NULL, body = NULL, expires_at = EXCLUDED.expires_at WHERE idempotency_key.expires_at < now()";
+    private static final String COMPLETE = "UPDATE idempotency_key SET status = :status, content_type = :contentType, body = :body "
+            + "WHERE principal = :principal AND idempotency_key = :key";
+    private static final String FIND = "SELECT request_hash, status, content_type, body FROM idempotency_key "
+            + "WHERE principal = :principal AND idempotency_key = :key AND status IS NOT NULL AND expires_at >= now()";
+    private static final String PURGE = "DELETE FROM idempotency_key WHERE expires_at < now()";
+
+    private final DatabaseClient databaseClient;
+    private final IdempotencyProperties properties;
+    private Disposable purge;
+
+    public IdempotencyStore(final DatabaseClient databaseClient, final IdempotencyProperties properties) {
+        this.databaseClient = databaseClient;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        purge = Flux.interval(properties.getPurgeInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> databaseClient.execute(PURGE).fetch().rowsUpdated()
+                        .onErrorResume(e -> {
+                            log.warn("Could not purge expired idempotency keys", e);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        if (purge != null) {
+            purge.dispose();
+        }
+    }
+
+    /**
+     * Inserts the key, or takes over an expired one; {@code false} when a live row already holds it.
+     */
+    public Mono<Boolean> claim(final IdempotencyKey key, final String requestHash) {
+        return databaseClient.execute(CLAIM)
+                .bind("principal", key.getPrincipal())
+                .bind("key", key.getKey())
+                .bind("hash", requestHash)
+                .bind("ttl", properties.getTtl().toString())
+                .fetch()
+                .rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+
+    public Mono<Void> complete(final IdempotencyKey key, final StoredResponse response) {
+        final DatabaseClient.GenericExecuteSpec update = databaseClient.execute(COMPLETE)
+                .bind("status", response.getStatus())
+                .bind("body", ByteBuffer.wrap(response.getBody()))
+                .bind("principal", key.getPrincipal())
+                .bind("key", key.getKey());
+        return (response.getContentType() == null ? update.bindNull("contentType", String.class) : update.bind("contentType", response.getContentType()))
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    public Mono<StoredResponse> find(final IdempotencyKey key) {
+        return databaseClient.execute(FIND)
+                .bind("principal", key.getPrincipal())
+                .bind("key", key.getKey())
+                .map(IdempotencyStore::toResponse)
+                .one();
+    }
+
+    private static StoredResponse toResponse(final Row row, final RowMetadata metadata) {
+        final ByteBuffer buffer = row.get("body", ByteBuffer.class);
+        final byte[] body = new byte[buffer == null ? 0 : buffer.remaining()];
+        if (buffer != null) {
+            buffer.get(body);
+        }
+        return new StoredResponse(row.get("request_hash", String.class), row.get("status", Integer.class),
+                row.get("content_type", String.class), body);
+    }
+}
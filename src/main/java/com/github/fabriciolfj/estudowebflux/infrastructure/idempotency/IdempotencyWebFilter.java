@@ -0,0 +1,257 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.idempotency;
+
+import com.github.fabriciolfj.estudowebflux.api.exception.StacklessResponseStatusException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferLimitException;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpRequestDecorator;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Makes the create endpoints safe to retry. For a POST to one of {@code app.idempotency.paths} with an
+ * {@code Idempotency-Key} header, the first 2xx response is stored per user and key and replayed, with
+ * {@code Idempotent-Replayed: true}, to every later request with the same key, without running the handler again.
+ * Duplicates that arrive while the first request is still running on this instance wait for its response; on
+ * other instances they wait on the {@link IdempotencyStore} row lock. Non-2xx responses and errors are not stored,
+ * so the client can retry them. Reusing a key for a different request is answered with 422.
+ * <p>
+ * Runs after the security chain (-100): only authorized requests are executed or replayed. The response of the
+ * first request is buffered and written after its transaction commits.
+ */
+@Component
+@Order(-50)
+@ConditionalOnProperty(prefix = "app.idempotency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class IdempotencyWebFilter implements WebFilter {
+
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final StacklessResponseStatusException.Template INVALID_KEY = StacklessResponseStatusException.template(HttpStatus.BAD_REQUEST, "Idempotency-Key must have 1 to 255 characters");
+    private static final StacklessResponseStatusException.Template KEY_REUSED = StacklessResponseStatusException.template(HttpStatus.UNPROCESSABLE_ENTITY, "Idempotency-Key was already used for a different request");
+    private static final StacklessResponseStatusException.Template KEY_IN_USE = StacklessResponseStatusException.template(HttpStatus.CONFLICT, "A request with this Idempotency-Key is still being processed");
+    private static final StacklessResponseStatusException.Template REQUEST_TOO_LARGE = StacklessResponseStatusException.template(HttpStatus.PAYLOAD_TOO_LARGE, "Request too large for an Idempotency-Key");
+
+    private final IdempotencyStore store;
+    private final IdempotencyProperties properties;
+    private final TransactionalOperator transactionalOperator;
+    private final MeterRegistry meterRegistry;
+    private final IdempotencyCache cache;
+    private final Map<IdempotencyKey, MonoProcessor<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyWebFilter(final IdempotencyStore store, final IdempotencyProperties properties,
+                                final TransactionalOperator transactionalOperator, final MeterRegistry meterRegistry) {
+        this.store = store;
+        this.properties = properties;
+        this.transactionalOperator = transactionalOperator;
+        this.meterRegistry = meterRegistry;
+        this.cache = new IdempotencyCache(properties.getCacheSize(), properties.getTtl());
+        Gauge.builder("idempotency.cache.size", cache, IdempotencyCache::size).register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final ServerHttpRequest request = exchange.getRequest();
+        final String key = request.getHeaders().getFirst(IDEMPOTENCY_KEY_HEADER);
+        if (key == null || request.getMethod() != HttpMethod.POST || !properties.getPaths().contains(request.getPath().pathWithinApplication().value())) {
+            return chain.filter(exchange);
+        }
+        if (key.isEmpty() || key.length() > MAX_KEY_LENGTH) {
+            return Mono.error(INVALID_KEY);
+        }
+
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .zipWith(DataBufferUtils.join(request.getBody(), (int) properties.getMaxRequestSize().toBytes())
+                        .map(IdempotencyWebFilter::bytes)
+                        .defaultIfEmpty(new byte[0])
+                        .onErrorMap(DataBufferLimitException.class, e -> REQUEST_TOO_LARGE.get()))
+                .flatMap(principalAndBody -> {
+                    final byte[] body = principalAndBody.getT2();
+                    final ServerWebExchange buffered = exchange.mutate().request(new ServerHttpRequestDecorator(request) {
+                        @Override
+                        public Flux<DataBuffer> getBody() {
+                            return Flux.defer(() -> Flux.just(exchange.getResponse().bufferFactory().wrap(body)));
+                        }
+                    }).build();
+                    return handle(buffered, chain, new IdempotencyKey(principalAndBody.getT1(), key), fingerprint(request, body));
+                });
+    }
+
+    private Mono<Void> handle(final ServerWebExchange exchange, final WebFilterChain chain, final IdempotencyKey key, final String fingerprint) {
+        final StoredResponse cached = cache.get(key, System.nanoTime());
+        if (cached != null) {
+            return replay(exchange, cached, fingerprint);
+        }
+
+        final MonoProcessor<StoredResponse> result = MonoProcessor.create();
+        final MonoProcessor<StoredResponse> running = inFlight.putIfAbsent(key, result);
+        if (running != null) {
+            count("coalesced");
+            return running
+                    .flatMap(stored -> replay(exchange, stored, fingerprint).thenReturn(true))
+                    .switchIfEmpty(Mono.defer(() -> handle(exchange, chain, key, fingerprint).thenReturn(true)))
+                    .then();
+        }
+
+        final CapturingResponse response = new CapturingResponse(exchange.getResponse(), fingerprint);
+        return transactionalOperator.execute(transaction -> store.claim(key, fingerprint)
+                        .flatMap(claimed -> claimed
+                                ? chain.filter(exchange.mutate().response(response).build())
+                                        .then(Mono.fromSupplier(response::captured))
+                                        .flatMap(executed -> {
+                                            if (!executed.isSuccessful()) {
+                                                transaction.setRollbackOnly();
+                                                return Mono.just(new Outcome(executed, true));
+                                            }
+                                            return store.complete(key, executed).thenReturn(new Outcome(executed, true));
+                                        })
+                                : store.find(key)
+                                        .map(stored -> new Outcome(stored, false))
+                                        .switchIfEmpty(Mono.error(KEY_IN_USE))))
+                .singleOrEmpty()
+                .doOnNext(outcome -> {
+                    if (outcome.response.isSuccessful()) {
+                        cache.put(key, outcome.response, System.nanoTime());
+                        result.onNext(outcome.response);
+                    }
+                })
+                .doFinally(signal -> {
+                    inFlight.remove(key, result);
+                    result.onComplete();
+                })
+                .flatMap(outcome -> {
+                    if (!outcome.executed) {
+                        return replay(exchange, outcome.response, fingerprint);
+                    }
+                    count("executed");
+                    return write(exchange.getResponse(), outcome.response, false);
+                });
+    }
+
+    private Mono<Void> replay(final ServerWebExchange exchange, final StoredResponse stored, final String fingerprint) {
+        if (!stored.getRequestHash().equals(fingerprint)) {
+            count("reused");
+            return Mono.error(KEY_REUSED);
+        }
+        count("replayed");
+        return write(exchange.getResponse(), stored, true);
+    }
+
+    private Mono<Void> write(final ServerHttpResponse response, final StoredResponse stored, final boolean replayed) {
+        response.setStatusCode(HttpStatus.valueOf(stored.getStatus()));
+        if (stored.getContentType() != null) {
+            response.getHeaders().setContentType(MediaType.parseMediaType(stored.getContentType()));
+        }
+        if (replayed) {
+            response.getHeaders().set(REPLAYED_HEADER, "true");
+        }
+        return response.writeWith(Mono.fromSupplier(() -> response.bufferFactory().wrap(stored.getBody())));
+    }
+
+    private void count(final String outcome) {
+        meterRegistry.counter("idempotency.requests", "outcome", outcome).increment();
+    }
+
+    private static String fingerprint(final ServerHttpRequest request, final byte[] body) {
+        try {
+            final MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update((request.getMethodValue() + ' ' + request.getPath().pathWithinApplication().value() + '\n').getBytes(StandardCharsets.UTF_8));
+            final StringBuilder hex = new StringBuilder(64);
+            for (byte b : digest.digest(body)) {
+                hex.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] bytes(final DataBuffer buffer) {
+        try {
+            final byte[] bytes = new byte[buffer.readableByteCount()];
+            buffer.read(bytes);
+            return bytes;
+        } finally {
+            DataBufferUtils.release(buffer);
+        }
+    }
+
+    private static final class Outcome {
+        private final StoredResponse response;
+        /**
+         * Produced by this request, as opposed to found in the store.
+         */
+        private final boolean executed;
+
+        private Outcome(final StoredResponse response, final boolean executed) {
+            this.response = response;
+            this.executed = executed;
+        }
+    }
+
+    /**
+     * Holds the body back instead of writing it, so nothing reaches the client before the transaction commits.
+     */
+    private static final class CapturingResponse extends ServerHttpResponseDecorator {
+
+        private final String fingerprint;
+        private volatile byte[] body;
+
+        private CapturingResponse(final ServerHttpResponse delegate, final String fingerprint) {
+            super(delegate);
+            this.fingerprint = fingerprint;
+        }
+
+        @Override
+        public Mono<Void> writeWith(final Publisher<? extends DataBuffer> body) {
+            return DataBufferUtils.join(body)
+                    .map(IdempotencyWebFilter::bytes)
+                    .defaultIfEmpty(new byte[0])
+                    .doOnNext(bytes -> this.body = bytes)
+                    .then();
+        }
+
+        @Override
+        public Mono<Void> writeAndFlushWith(final Publisher<? extends Publisher<? extends DataBuffer>> body) {
+            return writeWith(Flux.from(body).concatMap(Flux::from));
+        }
+
+        @Override
+        public Mono<Void> setComplete() {
+            return Mono.empty();
+        }
+
+        private StoredResponse captured() {
+            final HttpStatus status = getStatusCode() == null ? HttpStatus.OK : getStatusCode();
+            final MediaType contentType = getHeaders().getContentType();
+            return new StoredResponse(fingerprint, status.value(), contentType == null ? null : contentType.toString(),
+                    body == null ? new byte[0] : body);
+        }
+    }
+}
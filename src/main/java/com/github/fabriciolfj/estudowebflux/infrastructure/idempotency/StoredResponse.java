@@ -0,0 +1,19 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.idempotency;
+
+import lombok.Value;
+
+@Value
+public class StoredResponse {
+
+    /**
+     * SHA-256 of method, path and body of the request that produced the response.
+     */
+    String requestHash;
+    int status;
+    String contentType;
+    byte[] body;
+
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+}
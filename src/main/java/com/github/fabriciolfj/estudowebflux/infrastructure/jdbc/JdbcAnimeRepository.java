@@ -0,0 +1,205 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.jdbc;
+
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.io.StringReader;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * JDBC (HikariCP) implementation of the anime read and bulk paths, for tooling that needs what R2DBC does not
+ * expose well: server-side cursors and {@code COPY}. Every blocking call runs on the given scheduler
+ * (the blocking-io one, virtual threads when {@code app.schedulers.mode=virtual}), never on a Netty loop.
+ * Streaming reads hold a pooled connection until the {@link Flux} terminates or is cancelled.
+ */
+@Slf4j
+public class JdbcAnimeRepository implements AutoCloseable {
+
+    private static final String FIND_BY_ID = "SELECT id, name FROM anime WHERE id = ?";
+    private static final String FIND_ALL = "SELECT id, name FROM anime ORDER BY id";
+    private static final String FIND_PAGE_AFTER = "SELECT id, name FROM anime WHERE id > ? ORDER BY id LIMIT ?";
+    private static final String COUNT = "SELECT count(*) FROM anime";
+    private static final String INSERT = "INSERT INTO anime (name) VALUES (?)";
+    private static final String COPY_IN = "COPY anime (name) FROM STDIN (FORMAT csv)";
+
+    private final HikariDataSource dataSource;
+    private final Scheduler scheduler;
+    private final int fetchSize;
+
+    public JdbcAnimeRepository(final HikariDataSource dataSource, final Scheduler scheduler, final int fetchSize) {
+        this.dataSource = dataSource;
+        this.scheduler = scheduler;
+        this.fetchSize = fetchSize;
+    }
+
+    public Mono<Anime> findById(final Integer id) {
+        return Mono.fromCallable(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(FIND_BY_ID)) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? toAnime(resultSet) : null;
+                }
+            }
+        }).subscribeOn(scheduler);
+    }
+
+    /**
+     * Streams the whole table through a server-side cursor, {@code fetchSize} rows per round trip, pulled on demand.
+     */
+    public Flux<Anime> findAll() {
+        return stream(FIND_ALL, statement -> {
+        });
+    }
+
+    public Flux<Anime> findPageAfter(final Integer afterId, final int size) {
+        return stream(FIND_PAGE_AFTER, statement -> {
+            statement.setInt(1, afterId);
+            statement.setInt(2, size);
+        });
+    }
+
+    public Mono<Long> count() {
+        return Mono.fromCallable(() -> {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(COUNT);
+                 ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }).subscribeOn(scheduler);
+    }
+
+    /**
+     * One JDBC batch in one transaction; generated ids are set on the given entities.
+     */
+    public Flux<Anime> insertAll(final List<Anime> animes) {
+        return Mono.fromCallable(() -> {
+            try (Connection connection = dataSource.getConnection()) {
+                connection.setAutoCommit(false);
+                try (PreparedStatement statement = connection.prepareStatement(INSERT, new String[]{"id"})) {
+                    for (Anime anime : animes) {
+                        statement.setString(1, anime.getName());
+                        statement.addBatch();
+                    }
+                    statement.executeBatch();
+                    try (ResultSet keys = statement.getGeneratedKeys()) {
+                        for (int i = 0; keys.next(); i++) {
+                            animes.get(i).setId(keys.getInt(1));
+                        }
+                    }
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            }
+            return animes;
+        }).flatMapIterable(saved -> saved).subscribeOn(scheduler);
+    }
+
+    /**
+     * Loads names with {@code COPY ... FROM STDIN}; ids are not returned. Emits the number of rows copied.
+     */
+    public Mono<Long> copyIn(final List<String> names) {
+        return Mono.fromCallable(() -> {
+            final StringBuilder csv = new StringBuilder(names.size() * 32);
+            for (String name : names) {
+                csv.append('"').append(name.replace("\"", "\"\"")).append('"').append('\n');
+            }
+            try (Connection connection = dataSource.getConnection()) {
+                return connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_IN, new StringReader(csv.toString()));
+            }
+        }).subscribeOn(scheduler);
+    }
+
+    @Override
+    public void close() {
+        dataSource.close();
+    }
+
+    private Flux<Anime> stream(final String sql, final StatementBinder binder) {
+        return Flux.using(() -> Cursor.open(dataSource, sql, binder, fetchSize),
+                cursor -> Flux.<Anime>generate(sink -> {
+                    try {
+                        if (cursor.resultSet.next()) {
+                            sink.next(toAnime(cursor.resultSet));
+                        } else {
+                            sink.complete();
+                        }
+                    } catch (SQLException e) {
+                        sink.error(e);
+                    }
+                }),
+                // a cancel can arrive on an event loop: release the connection on the scheduler
+                this::release)
+                .subscribeOn(scheduler);
+    }
+
+    private void release(final Cursor cursor) {
+        try {
+            scheduler.schedule(cursor::close);
+        } catch (RejectedExecutionException e) {
+            // scheduler shut down or saturated: closing inline beats leaking the connection
+            cursor.close();
+        }
+    }
+
+    private static Anime toAnime(final ResultSet resultSet) throws SQLException {
+        return new Anime(resultSet.getInt("id"), resultSet.getString("name"));
+    }
+
+    @FunctionalInterface
+    private interface StatementBinder {
+        void bind(PreparedStatement statement) throws SQLException;
+    }
+
+    /**
+     * Postgres only uses a cursor for {@code setFetchSize} inside a transaction, hence autocommit off.
+     */
+    private static class Cursor {
+        private final Connection connection;
+        private final PreparedStatement statement;
+        private final ResultSet resultSet;
+
+        private Cursor(final Connection connection, final PreparedStatement statement, final ResultSet resultSet) {
+            this.connection = connection;
+            this.statement = statement;
+            this.resultSet = resultSet;
+        }
+
+        static Cursor open(final HikariDataSource dataSource, final String sql, final StatementBinder binder,
+                           final int fetchSize) throws SQLException {
+            final Connection connection = dataSource.getConnection();
+            try {
+                connection.setAutoCommit(false);
+                connection.setReadOnly(true);
+                final PreparedStatement statement = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                statement.setFetchSize(fetchSize);
+                binder.bind(statement);
+                return new Cursor(connection, statement, statement.executeQuery());
+            } catch (SQLException e) {
+                connection.close();
+                throw e;
+            }
+        }
+
+        void close() {
+            try (Connection ignored = connection; PreparedStatement ignoredStatement = statement; ResultSet ignoredResultSet = resultSet) {
+                connection.rollback();
+            } catch (SQLException e) {
+                log.warn("Failed to close anime cursor", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.jdbc;
+
+import com.github.fabriciolfj.estudowebflux.domain.repository.AnimeRepository;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.AppSchedulers;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+/**
+ * The pool is private to {@link JdbcAnimeRepository} rather than a {@code DataSource} bean, so nothing else
+ * (transaction management, health) starts treating the application as a JDBC one. Without sharding,
+ * {@link JdbcReadAnimeRepository} becomes the {@link AnimeRepository} the service sees; with it, the sharded
+ * repository wins and the JDBC one is only there for tooling.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.jdbc", name = "enabled", havingValue = "true")
+public class JdbcFallbackConfig {
+
+    @Bean(destroyMethod = "close")
+    public JdbcAnimeRepository jdbcAnimeRepository(final JdbcFallbackProperties properties, final AppSchedulers appSchedulers,
+                                                  final MeterRegistry meterRegistry) {
+        final HikariConfig config = new HikariConfig();
+        config.setPoolName("anime-jdbc");
+        config.setJdbcUrl(properties.getUrl());
+        config.setUsername(properties.getUsername());
+        config.setPassword(properties.getPassword());
+        config.setMaximumPoolSize(properties.getMaximumPoolSize());
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+        return new JdbcAnimeRepository(new HikariDataSource(config), appSchedulers.blockingIo(), properties.getFetchSize());
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
+    public JdbcReadAnimeRepository jdbcReadAnimeRepository(final JdbcAnimeRepository jdbcAnimeRepository,
+                                                          @Qualifier("animeRepository") final AnimeRepository animeRepository) {
+        return new JdbcReadAnimeRepository(jdbcAnimeRepository, animeRepository);
+    }
+}
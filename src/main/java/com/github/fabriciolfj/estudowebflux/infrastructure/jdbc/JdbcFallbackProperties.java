@@ -0,0 +1,19 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.jdbc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.jdbc")
+public class JdbcFallbackProperties {
+
+    private boolean enabled;
+    private String url = "jdbc:postgresql://localhost:5432/postgres?currentSchema=anime";
+    private String username;
+    private String password;
+    private int maximumPoolSize = 20;
+    /**
+     * Rows per round trip of the server-side cursor used by streaming reads.
+     */
+    private int fetchSize = 500;
+}
@@ -0,0 +1,143 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.jdbc;
+
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import com.github.fabriciolfj.estudowebflux.domain.repository.AnimeRepository;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * {@link AnimeRepository} that serves the reads ({@code findById}, {@code existsById}, {@code findAll},
+ * {@code findPageAfter}, {@code count}) from {@link JdbcAnimeRepository} and sends every write to the R2DBC
+ * repository, so writes keep joining the R2DBC {@code @Transactional} (and its outbox row).
+ */
+public class JdbcReadAnimeRepository implements AnimeRepository {
+
+    private final JdbcAnimeRepository reads;
+    private final AnimeRepository writes;
+
+    public JdbcReadAnimeRepository(final JdbcAnimeRepository reads, final AnimeRepository writes) {
+        this.reads = reads;
+        this.writes = writes;
+    }
+
+    @Override
+    public <S extends Anime> Mono<S> save(final S entity) {
+        return writes.save(entity);
+    }
+
+    @Override
+    public <S extends Anime> Flux<S> saveAll(final Iterable<S> entities) {
+        return writes.saveAll(entities);
+    }
+
+    @Override
+    public <S extends Anime> Flux<S> saveAll(final Publisher<S> entityStream) {
+        return writes.saveAll(entityStream);
+    }
+
+    @Override
+    public Mono<Anime> findById(final Integer id) {
+        return reads.findById(id);
+    }
+
+    @Override
+    public Mono<Anime> findById(final Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(final Integer id) {
+        return reads.findById(id).hasElement();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(final Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<Anime> findAll() {
+        return reads.findAll();
+    }
+
+    @Override
+    public Flux<Anime> findPageAfter(final Integer afterId, final int size) {
+        return reads.findPageAfter(afterId, size);
+    }
+
+    @Override
+    public Flux<Anime> findAllById(final Iterable<Integer> ids) {
+        return writes.findAllById(ids);
+    }
+
+    @Override
+    public Flux<Anime> findAllById(final Publisher<Integer> idStream) {
+        return writes.findAllById(idStream);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return reads.count();
+    }
+
+    @Override
+    public Mono<Void> deleteById(final Integer id) {
+        return writes.deleteById(id);
+    }
+
+    @Override
+    public Mono<Void> deleteById(final Publisher<Integer> id) {
+        return writes.deleteById(id);
+    }
+
+    @Override
+    public Mono<Void> delete(final Anime entity) {
+        return writes.delete(entity);
+    }
+
+    @Override
+    public Mono<Void> deleteAll(final Iterable<? extends Anime> entities) {
+        return writes.deleteAll(entities);
+    }
+
+    @Override
+    public Mono<Void> deleteAll(final Publisher<? extends Anime> entityStream) {
+        return writes.deleteAll(entityStream);
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return writes.deleteAll();
+    }
+
+    @Override
+    public Flux<Anime> deleteByIds(final Integer[] ids) {
+        return writes.deleteByIds(ids);
+    }
+
+    @Override
+    public Flux<Anime> deleteByNamePrefix(final String prefix) {
+        return writes.deleteByNamePrefix(prefix);
+    }
+
+    @Override
+    public Flux<Anime> renameAll(final Integer[] ids, final String[] names) {
+        return writes.renameAll(ids, names);
+    }
+
+    @Override
+    public Mono<Anime> upsertByName(final String name) {
+        return writes.upsertByName(name);
+    }
+
+    @Override
+    public Flux<Anime> upsertAllByName(final String[] names) {
+        return writes.upsertAllByName(names);
+    }
+
+    @Override
+    public Flux<Anime> insertAllByNameIfAbsent(final String[] names) {
+        return writes.insertAllByNameIfAbsent(names);
+    }
+}
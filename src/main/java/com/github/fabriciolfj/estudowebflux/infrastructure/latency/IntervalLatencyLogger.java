@@ -0,0 +1,79 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.latency;
+
+import lombok.extern.slf4j.Slf4j;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.AppSchedulers;
+import org.HdrHistogram.HistogramLogWriter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+
+/**
+ * Appends every route's interval histogram to {@code app.latency.log-file} in HdrHistogram's log format, tagged
+ * with the route, for offline analysis (HistogramLogProcessor, HdrHistogram's log analyzer). Writes run on the
+ * blocking-io scheduler.
+ */
+@Slf4j
+@Component
+public class IntervalLatencyLogger implements InitializingBean, DisposableBean {
+
+    private final RouteLatencyRecorder recorder;
+    private final LatencyProperties properties;
+    private final AppSchedulers appSchedulers;
+    private PrintStream output;
+    private HistogramLogWriter writer;
+    private Disposable schedule;
+
+    public IntervalLatencyLogger(final RouteLatencyRecorder recorder, final LatencyProperties properties,
+                                 final AppSchedulers appSchedulers) {
+        this.recorder = recorder;
+        this.properties = properties;
+        this.appSchedulers = appSchedulers;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws FileNotFoundException {
+        if (!properties.isEnabled() || properties.getLogInterval().isZero()) {
+            return;
+        }
+
+        final File file = new File(properties.getLogFile());
+        if (file.getAbsoluteFile().getParentFile() != null) {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+        }
+        output = new PrintStream(new FileOutputStream(file, true), false);
+        writer = new HistogramLogWriter(output);
+        writer.outputLogFormatVersion();
+        writer.outputStartTime(System.currentTimeMillis());
+        writer.outputLegend();
+
+        schedule = Flux.interval(properties.getLogInterval())
+                .onBackpressureDrop()
+                .publishOn(appSchedulers.blockingIo())
+                .subscribe(tick -> writeIntervals(), e -> log.error("Interval latency log stopped", e));
+    }
+
+    @Override
+    public void destroy() {
+        if (schedule != null) {
+            schedule.dispose();
+            writeIntervals();
+            output.close();
+        }
+    }
+
+    private synchronized void writeIntervals() {
+        recorder.intervals().forEach((route, interval) -> {
+            if (interval.getTotalCount() > 0) {
+                writer.outputIntervalHistogram(interval);
+            }
+        });
+        output.flush();
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/latency}: percentile distribution per route, in milliseconds.
+ * {@code DELETE /actuator/latency} resets the totals.
+ */
+@Component
+@Endpoint(id = "latency")
+public class LatencyEndpoint {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9, 99.99};
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final RouteLatencyRecorder recorder;
+
+    public LatencyEndpoint(final RouteLatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @ReadOperation
+    public Map<String, Object> latency() {
+        final Map<String, Object> routes = new LinkedHashMap<>();
+        recorder.snapshot().forEach((route, histogram) -> routes.put(route, describe(histogram)));
+        return routes;
+    }
+
+    @DeleteOperation
+    public void reset() {
+        recorder.reset();
+    }
+
+    private static Map<String, Object> describe(final Histogram histogram) {
+        final Map<String, Object> percentiles = new LinkedHashMap<>();
+        for (double percentile : PERCENTILES) {
+            percentiles.put(String.valueOf(percentile), histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI);
+        }
+
+        final List<Map<String, Object>> distribution = new ArrayList<>();
+        for (HistogramIterationValue value : histogram.percentiles(5)) {
+            final Map<String, Object> point = new LinkedHashMap<>();
+            point.put("percentile", value.getPercentileLevelIteratedTo());
+            point.put("valueMs", value.getValueIteratedTo() / NANOS_PER_MILLI);
+            point.put("count", value.getTotalCountToThisValue());
+            distribution.add(point);
+        }
+
+        final Map<String, Object> description = new LinkedHashMap<>();
+        description.put("count", histogram.getTotalCount());
+        description.put("meanMs", histogram.getMean() / NANOS_PER_MILLI);
+        description.put("maxMs", histogram.getMaxValue() / NANOS_PER_MILLI);
+        description.put("percentilesMs", percentiles);
+        description.put("distribution", distribution);
+        return description;
+    }
+}
@@ -0,0 +1,25 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.latency;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.latency")
+public class LatencyProperties {
+
+    private boolean enabled = true;
+    private Duration highestTrackableLatency = Duration.ofMinutes(1);
+    private int significantDigits = 3;
+    /**
+     * When set, a request slower than this also records the samples a fixed-rate client would have seen while it
+     * was stuck behind it (HdrHistogram's coordinated omission correction). Zero records raw values only.
+     */
+    private Duration expectedInterval = Duration.ZERO;
+    /**
+     * Interval histograms are appended to {@link #logFile} at this rate. Zero disables the log.
+     */
+    private Duration logInterval = Duration.ofMinutes(1);
+    private String logFile = "logs/latency.hlog";
+}
@@ -0,0 +1,46 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.latency;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+/**
+ * Outermost filter: the clock starts before security, draining or anything else can queue the request, and stops
+ * when the chain completes, i.e. after the last byte of the body (including streamed {@code Flux} bodies) has been
+ * written. Requests that never reach a handler are recorded as {@link #UNMATCHED}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "app.latency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class LatencyWebFilter implements WebFilter {
+
+    static final String UNMATCHED = "UNMATCHED";
+
+    private final RouteLatencyRecorder recorder;
+
+    public LatencyWebFilter(final RouteLatencyRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> recorder.record(route(exchange), System.nanoTime() - start));
+    }
+
+    public static String route(final ServerWebExchange exchange) {
+        final PathPattern pattern = exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern == null) {
+            return UNMATCHED;
+        }
+        return exchange.getRequest().getMethodValue() + " " + pattern.getPatternString();
+    }
+}
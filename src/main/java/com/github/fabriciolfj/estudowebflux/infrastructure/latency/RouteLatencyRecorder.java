@@ -0,0 +1,102 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.latency;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * One HdrHistogram {@link Recorder} per route (values in nanoseconds). Recording is wait-free; readers flip the
+ * recorder's interval histogram and fold it into the route's total, so the request path never takes a lock.
+ */
+@Component
+public class RouteLatencyRecorder {
+
+    private final LatencyProperties properties;
+    private final Map<String, RouteLatency> routes = new ConcurrentHashMap<>();
+
+    public RouteLatencyRecorder(final LatencyProperties properties) {
+        this.properties = properties;
+    }
+
+    public void record(final String route, final long nanos) {
+        final RouteLatency latency = routes.computeIfAbsent(route, key -> new RouteLatency(key, properties));
+        final long value = Math.min(nanos, latency.highestTrackable);
+        if (latency.expectedInterval > 0) {
+            latency.recorder.recordValueWithExpectedInterval(value, latency.expectedInterval);
+        } else {
+            latency.recorder.recordValue(value);
+        }
+    }
+
+    /**
+     * Totals since start (or the last {@link #reset()}), by route.
+     */
+    public Map<String, Histogram> snapshot() {
+        final Map<String, Histogram> snapshot = new TreeMap<>();
+        routes.forEach((route, latency) -> snapshot.put(route, latency.total()));
+        return snapshot;
+    }
+
+    /**
+     * What was recorded since the previous call, by route; also folded into the totals.
+     */
+    public Map<String, Histogram> intervals() {
+        final Map<String, Histogram> intervals = new TreeMap<>();
+        routes.forEach((route, latency) -> intervals.put(route, latency.interval()));
+        return intervals;
+    }
+
+    public void reset() {
+        routes.values().forEach(RouteLatency::reset);
+    }
+
+    private static class RouteLatency {
+        private final String route;
+        private final long highestTrackable;
+        private final long expectedInterval;
+        private final Recorder recorder;
+        private final Histogram total;
+        private final Histogram sinceLastInterval;
+        private Histogram recycled;
+
+        RouteLatency(final String route, final LatencyProperties properties) {
+            this.route = route;
+            this.highestTrackable = properties.getHighestTrackableLatency().toNanos();
+            this.expectedInterval = properties.getExpectedInterval().toNanos();
+            this.recorder = new Recorder(highestTrackable, properties.getSignificantDigits());
+            this.total = new Histogram(highestTrackable, properties.getSignificantDigits());
+            this.sinceLastInterval = new Histogram(highestTrackable, properties.getSignificantDigits());
+            this.sinceLastInterval.setStartTimeStamp(System.currentTimeMillis());
+        }
+
+        synchronized Histogram interval() {
+            flip();
+            final Histogram interval = sinceLastInterval.copy();
+            interval.setTag(route);
+            interval.setEndTimeStamp(System.currentTimeMillis());
+            sinceLastInterval.reset();
+            sinceLastInterval.setStartTimeStamp(interval.getEndTimeStamp());
+            return interval;
+        }
+
+        synchronized Histogram total() {
+            flip();
+            return total.copy();
+        }
+
+        synchronized void reset() {
+            flip();
+            total.reset();
+        }
+
+        private void flip() {
+            recycled = recorder.getIntervalHistogram(recycled);
+            total.add(recycled);
+            sinceLastInterval.add(recycled);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.migration;
+
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Applies {@code db/migration} at startup over the {@code spring.flyway.url} connection. Boot's own
+ * {@code FlywayAutoConfiguration} is excluded because it needs spring-jdbc ({@code DataSourceProperties},
+ * {@code EmbeddedDatabaseType}), which would also auto-configure a {@code DataSource} for an R2DBC application; only
+ * the {@code spring.flyway} properties used here are honoured.
+ */
+@Configuration(proxyBeanMethods = false)
+@EnableConfigurationProperties(FlywayProperties.class)
+@ConditionalOnProperty(prefix = "spring.flyway", name = "enabled", matchIfMissing = true)
+public class FlywayMigrationConfig {
+
+    @Bean(initMethod = "migrate")
+    public Flyway flyway(final FlywayProperties properties) {
+        return Flyway.configure()
+                .dataSource(properties.getUrl(), properties.getUser(), properties.getPassword())
+                .schemas(properties.getSchemas().toArray(new String[0]))
+                .locations(properties.getLocations().toArray(new String[0]))
+                .table(properties.getTable())
+                .baselineOnMigrate(properties.isBaselineOnMigrate())
+                .baselineVersion(properties.getBaselineVersion())
+                .load();
+    }
+}
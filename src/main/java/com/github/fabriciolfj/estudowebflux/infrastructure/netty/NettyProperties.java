@@ -0,0 +1,45 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.netty;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.netty")
+public class NettyProperties {
+
+    private boolean enabled = true;
+    /**
+     * epoll when the native library loads (Linux x86_64), NIO otherwise.
+     */
+    private boolean nativeTransport = true;
+    private int selectThreads = 1;
+    /**
+     * Event loops serving connections; 0 keeps Reactor Netty's default (available processors, at least 4).
+     */
+    private int workerThreads = 0;
+    private int soBacklog = 1024;
+    private boolean tcpNoDelay = true;
+    /**
+     * Connections that neither read nor write for this long are closed, idle keep-alive connections included.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(60);
+    private Allocator allocator = new Allocator();
+
+    @Data
+    public static class Allocator {
+        private boolean pooled = true;
+        private boolean preferDirect = true;
+        /**
+         * 0 keeps Netty's default (2 x processors, bounded by the direct memory limit).
+         */
+        private int directArenas = 0;
+        private int heapArenas = 0;
+        private int pageSize = 8192;
+        /**
+         * Chunk size is {@code pageSize << maxOrder}.
+         */
+        private int maxOrder = 11;
+    }
+}
@@ -0,0 +1,26 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.netty;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Runs the HTTP server on {@link NettyTransport}'s loops and allocator. WebClient keeps Reactor Netty's shared
+ * resources.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.netty", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class NettyServerConfig {
+
+    @Bean
+    public NettyTransport nettyTransport(final NettyProperties properties) {
+        return new NettyTransport(properties);
+    }
+
+    @Bean
+    public WebServerFactoryCustomizer<NettyReactiveWebServerFactory> nettyTransportCustomizer(final NettyTransport nettyTransport) {
+        return factory -> factory.addServerCustomizers(nettyTransport::customize);
+    }
+}
@@ -0,0 +1,135 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.netty;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufAllocatorMetric;
+import io.netty.buffer.ByteBufAllocatorMetricProvider;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocatorMetric;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.epoll.Epoll;
+import io.netty.handler.timeout.IdleStateEvent;
+import io.netty.handler.timeout.IdleStateHandler;
+import io.netty.util.concurrent.EventExecutor;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import reactor.netty.channel.BootstrapHandlers;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Event loops, transport and allocator of the HTTP server, owned here instead of by Reactor Netty's globals so
+ * they can be sized and watched. Publishes {@code netty.allocator.*} and {@code netty.eventloop.tasks.pending}.
+ */
+@Slf4j
+public class NettyTransport implements MeterBinder, DisposableBean {
+
+    private final NettyProperties properties;
+    private final boolean nativeTransport;
+    private final LoopResources loops;
+    private final ByteBufAllocator allocator;
+
+    public NettyTransport(final NettyProperties properties) {
+        this.properties = properties;
+        this.nativeTransport = properties.isNativeTransport() && Epoll.isAvailable();
+        if (properties.isNativeTransport() && !nativeTransport) {
+            log.info("epoll is not available ({}), the server uses NIO", String.valueOf(Epoll.unavailabilityCause()));
+        }
+
+        final int workers = properties.getWorkerThreads() > 0 ? properties.getWorkerThreads() : LoopResources.DEFAULT_IO_WORKER_COUNT;
+        this.loops = LoopResources.create("http", properties.getSelectThreads(), workers, true);
+        this.allocator = allocator(properties.getAllocator());
+    }
+
+    public HttpServer customize(final HttpServer httpServer) {
+        final long idleTimeoutMillis = properties.getIdleTimeout().toMillis();
+        return httpServer.tcpConfiguration(tcp -> tcp.runOn(loops, nativeTransport)
+                .selectorOption(ChannelOption.SO_BACKLOG, properties.getSoBacklog())
+                .selectorOption(ChannelOption.ALLOCATOR, allocator)
+                .option(ChannelOption.TCP_NODELAY, properties.isTcpNoDelay())
+                .option(ChannelOption.ALLOCATOR, allocator)
+                .doOnBind(bootstrap -> BootstrapHandlers.updateConfiguration(bootstrap, IdleTimeoutHandler.NAME,
+                        (observer, channel) -> channel.pipeline().addFirst(IdleTimeoutHandler.NAME, new IdleTimeoutHandler(idleTimeoutMillis)))));
+    }
+
+    public boolean isNativeTransport() {
+        return nativeTransport;
+    }
+
+    @Override
+    public void bindTo(final MeterRegistry registry) {
+        if (allocator instanceof ByteBufAllocatorMetricProvider) {
+            final ByteBufAllocatorMetric metric = ((ByteBufAllocatorMetricProvider) allocator).metric();
+            Gauge.builder("netty.allocator.memory.used", metric, ByteBufAllocatorMetric::usedDirectMemory)
+                    .tag("type", "direct").baseUnit("bytes").register(registry);
+            Gauge.builder("netty.allocator.memory.used", metric, ByteBufAllocatorMetric::usedHeapMemory)
+                    .tag("type", "heap").baseUnit("bytes").register(registry);
+        }
+        if (allocator instanceof PooledByteBufAllocator) {
+            final PooledByteBufAllocatorMetric metric = ((PooledByteBufAllocator) allocator).metric();
+            Gauge.builder("netty.allocator.arenas", metric, PooledByteBufAllocatorMetric::numDirectArenas).tag("type", "direct").register(registry);
+            Gauge.builder("netty.allocator.arenas", metric, PooledByteBufAllocatorMetric::numHeapArenas).tag("type", "heap").register(registry);
+            Gauge.builder("netty.allocator.threadlocal.caches", metric, PooledByteBufAllocatorMetric::numThreadLocalCaches).register(registry);
+        }
+
+        bindPendingTasks(registry, "select", loops.onServerSelect(nativeTransport));
+        bindPendingTasks(registry, "worker", loops.onServer(nativeTransport));
+    }
+
+    @Override
+    public void destroy() {
+        loops.disposeLater().block(Duration.ofSeconds(10));
+    }
+
+    private static void bindPendingTasks(final MeterRegistry registry, final String group, final EventLoopGroup loopGroup) {
+        int index = 0;
+        for (EventExecutor executor : loopGroup) {
+            if (executor instanceof SingleThreadEventExecutor) {
+                Gauge.builder("netty.eventloop.tasks.pending", (SingleThreadEventExecutor) executor, SingleThreadEventExecutor::pendingTasks)
+                        .tag("group", group)
+                        .tag("loop", String.valueOf(index))
+                        .register(registry);
+            }
+            index++;
+        }
+    }
+
+    /**
+     * Closes connections that neither read nor wrote for {@code app.netty.idle-timeout}. Installed when the channel
+     * is initialized, ahead of TLS and the HTTP codec, so it also covers connections that never send a request
+     * (the connection callbacks only run once one arrives) and a response that is still streaming counts as activity.
+     */
+    private static final class IdleTimeoutHandler extends IdleStateHandler {
+
+        private static final String NAME = "app.idleTimeout";
+
+        private IdleTimeoutHandler(final long idleTimeoutMillis) {
+            super(0, 0, idleTimeoutMillis, TimeUnit.MILLISECONDS);
+        }
+
+        @Override
+        protected void channelIdle(final ChannelHandlerContext ctx, final IdleStateEvent event) {
+            ctx.close();
+        }
+    }
+
+    private static ByteBufAllocator allocator(final NettyProperties.Allocator settings) {
+        if (!settings.isPooled()) {
+            return new UnpooledByteBufAllocator(settings.isPreferDirect());
+        }
+        return new PooledByteBufAllocator(settings.isPreferDirect(),
+                settings.getHeapArenas() > 0 ? settings.getHeapArenas() : PooledByteBufAllocator.defaultNumHeapArena(),
+                settings.getDirectArenas() > 0 ? settings.getDirectArenas() : PooledByteBufAllocator.defaultNumDirectArena(),
+                settings.getPageSize(), settings.getMaxOrder(), PooledByteBufAllocator.defaultSmallCacheSize(),
+                PooledByteBufAllocator.defaultNormalCacheSize(), PooledByteBufAllocator.defaultUseCacheForAllThreads());
+    }
+}
@@ -0,0 +1,58 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Writes one outbox row per changed anime with a single statement. Called inside the service's transaction, so
+ * the rows commit or roll back together with the change itself. Does nothing when {@code app.outbox.enabled} is off.
+ */
+@Component
+public class AnimeOutbox {
+
+    private static final String INSERT = "INSERT INTO anime_outbox (aggregate_id, event_type, payload) "
+            + "SELECT v.id, :type, v.payload FROM unnest(CAST(:ids AS int[]), CAST(:payloads AS text[])) AS v(id, payload)";
+
+    public enum Type {
+        ANIME_SAVED, ANIME_UPDATED, ANIME_DELETED
+    }
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+    private final OutboxProperties properties;
+
+    public AnimeOutbox(final DatabaseClient databaseClient, final ObjectMapper objectMapper, final OutboxProperties properties) {
+        this.databaseClient = databaseClient;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    public Mono<Void> append(final Type type, final List<Anime> animes) {
+        if (!properties.isEnabled() || animes.isEmpty()) {
+            return Mono.empty();
+        }
+
+        return Mono.fromCallable(() -> payloads(animes))
+                .flatMap(payloads -> databaseClient.execute(INSERT)
+                        .bind("type", type.name())
+                        .bind("ids", animes.stream().map(Anime::getId).toArray(Integer[]::new))
+                        .bind("payloads", payloads)
+                        .fetch()
+                        .rowsUpdated())
+                .then();
+    }
+
+    private String[] payloads(final List<Anime> animes) throws JsonProcessingException {
+        final String[] payloads = new String[animes.size()];
+        for (int i = 0; i < animes.size(); i++) {
+            payloads[i] = objectMapper.writeValueAsString(animes.get(i));
+        }
+        return payloads;
+    }
+}
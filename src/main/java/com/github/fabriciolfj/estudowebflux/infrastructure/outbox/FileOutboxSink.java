@@ -0,0 +1,67 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.AppSchedulers;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import reactor.core.publisher.Mono;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+/**
+ * Appends events to {@code app.outbox.file} as JSON lines, on the blocking-io scheduler. A batch counts as
+ * published once it is flushed.
+ */
+public class FileOutboxSink implements OutboxSink, InitializingBean, DisposableBean {
+
+    private final OutboxProperties properties;
+    private final AppSchedulers appSchedulers;
+    private final ObjectMapper objectMapper;
+    private PrintStream output;
+
+    public FileOutboxSink(final OutboxProperties properties, final AppSchedulers appSchedulers, final ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.appSchedulers = appSchedulers;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws FileNotFoundException {
+        final File file = new File(properties.getFile());
+        if (file.getAbsoluteFile().getParentFile() != null) {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+        }
+        output = new PrintStream(new FileOutputStream(file, true), false);
+    }
+
+    @Override
+    public Mono<Void> publish(final List<OutboxEvent> events) {
+        return Mono.<Void>fromRunnable(() -> write(events))
+                .subscribeOn(appSchedulers.blockingIo());
+    }
+
+    @Override
+    public void destroy() {
+        output.close();
+    }
+
+    private synchronized void write(final List<OutboxEvent> events) {
+        try {
+            for (OutboxEvent event : events) {
+                output.println(objectMapper.writeValueAsString(event));
+            }
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+        output.flush();
+        if (output.checkError()) {
+            throw new IllegalStateException("Could not write outbox events to " + properties.getFile());
+        }
+    }
+}
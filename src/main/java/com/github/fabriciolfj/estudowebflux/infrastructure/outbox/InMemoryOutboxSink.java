@@ -0,0 +1,29 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.outbox;
+
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps every published event, for tests.
+ */
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final Queue<OutboxEvent> events = new ConcurrentLinkedQueue<>();
+
+    @Override
+    public Mono<Void> publish(final List<OutboxEvent> batch) {
+        return Mono.fromRunnable(() -> events.addAll(batch));
+    }
+
+    public List<OutboxEvent> getEvents() {
+        return new ArrayList<>(events);
+    }
+
+    public void reset() {
+        events.clear();
+    }
+}
@@ -0,0 +1,28 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.AppSchedulers;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+
+@Configuration(proxyBeanMethods = false)
+public class OutboxConfig {
+
+    @Bean
+    public OutboxSink outboxSink(final OutboxProperties properties, final AppSchedulers appSchedulers, final ObjectMapper objectMapper) {
+        return properties.getSink() == OutboxProperties.Sink.MEMORY
+                ? new InMemoryOutboxSink()
+                : new FileOutboxSink(properties, appSchedulers, objectMapper);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.outbox", name = {"enabled", "relay-enabled"}, havingValue = "true", matchIfMissing = true)
+    public OutboxRelay outboxRelay(final DatabaseClient databaseClient, final TransactionalOperator transactionalOperator,
+                                   final OutboxSink outboxSink, final OutboxProperties properties, final MeterRegistry meterRegistry) {
+        return new OutboxRelay(databaseClient, transactionalOperator, outboxSink, properties, meterRegistry);
+    }
+}
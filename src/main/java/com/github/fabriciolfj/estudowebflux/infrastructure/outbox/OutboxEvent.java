@@ -0,0 +1,18 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.outbox;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+@Value
+public class OutboxEvent {
+
+    long id;
+    int animeId;
+    String type;
+    /**
+     * The anime as JSON, as it was when the change committed.
+     */
+    String payload;
+    Instant createdAt;
+}
@@ -0,0 +1,29 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.outbox;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.outbox")
+public class OutboxProperties {
+
+    /**
+     * When off, no outbox rows are written and no relay runs. Required with {@code app.sharding}, whose shard
+     * writes commit in their own transactions and could not be atomic with the outbox row.
+     */
+    private boolean enabled = true;
+    /**
+     * Turns the relay of this instance on or off; rows are still written while {@code enabled}.
+     */
+    private boolean relayEnabled = true;
+    private Duration pollInterval = Duration.ofSeconds(1);
+    private int batchSize = 500;
+    private Sink sink = Sink.FILE;
+    private String file = "logs/outbox.jsonl";
+
+    public enum Sink {
+        MEMORY, FILE
+    }
+}
@@ -0,0 +1,134 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.outbox;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Every {@code app.outbox.poll-interval}, drains {@code anime_outbox} to the {@link OutboxSink} in batches: each
+ * batch is locked with {@code FOR UPDATE SKIP LOCKED}, published and deleted in one transaction, so several
+ * instances can relay concurrently without publishing the same row twice (barring a failed commit after
+ * publishing). Order is kept within a batch, not across instances.
+ * Publishes {@code outbox.published}, {@code outbox.failures}, {@code outbox.batch} and {@code outbox.lag}, the age
+ * of the oldest row still waiting.
+ */
+@Slf4j
+public class OutboxRelay implements InitializingBean, DisposableBean {
+
+    private static final String SELECT_BATCH = "SELECT id, aggregate_id, event_type, payload, created_at FROM anime_outbox "
+            + "ORDER BY id LIMIT :size FOR UPDATE SKIP LOCKED";
+    private static final String DELETE_BATCH = "DELETE FROM anime_outbox WHERE id = ANY(CAST(:ids AS bigint[]))";
+    private static final String LAG_MILLIS = "SELECT CAST(COALESCE(EXTRACT(EPOCH FROM now() - min(created_at)) * 1000, 0) AS bigint) FROM anime_outbox";
+
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+    private final OutboxSink sink;
+    private final OutboxProperties properties;
+    private final Counter published;
+    private final Counter failures;
+    private final Timer batchTimer;
+    private final AtomicLong lagMillis = new AtomicLong();
+    private Disposable schedule;
+
+    public OutboxRelay(final DatabaseClient databaseClient, final TransactionalOperator transactionalOperator,
+                       final OutboxSink sink, final OutboxProperties properties, final MeterRegistry meterRegistry) {
+        this.databaseClient = databaseClient;
+        this.transactionalOperator = transactionalOperator;
+        this.sink = sink;
+        this.properties = properties;
+        this.published = meterRegistry.counter("outbox.published");
+        this.failures = meterRegistry.counter("outbox.failures");
+        this.batchTimer = meterRegistry.timer("outbox.batch");
+        Gauge.builder("outbox.lag", lagMillis, AtomicLong::get).baseUnit("milliseconds").register(meterRegistry);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        schedule = Flux.interval(properties.getPollInterval())
+                .onBackpressureDrop()
+                .concatMap(tick -> drain()
+                        .then(updateLag())
+                        .onErrorResume(e -> {
+                            failures.increment();
+                            log.warn("Outbox relay failed, retrying on the next poll", e);
+                            return Mono.empty();
+                        }), 1)
+                .subscribe();
+    }
+
+    @Override
+    public void destroy() {
+        if (schedule != null) {
+            schedule.dispose();
+        }
+    }
+
+    /**
+     * Relays batches until one comes back smaller than {@code batch-size}; returns how many events were published.
+     */
+    public Mono<Integer> drain() {
+        return drainBatch()
+                .expand(count -> count < properties.getBatchSize() ? Mono.empty() : drainBatch())
+                .reduce(0, Integer::sum);
+    }
+
+    private Mono<Integer> drainBatch() {
+        return Mono.defer(() -> {
+            final long start = System.nanoTime();
+            return databaseClient.execute(SELECT_BATCH)
+                    .bind("size", properties.getBatchSize())
+                    .map(OutboxRelay::toEvent)
+                    .all()
+                    .collectList()
+                    .flatMap(this::publishAndDelete)
+                    .as(transactionalOperator::transactional)
+                    .doOnNext(count -> {
+                        if (count > 0) {
+                            published.increment(count);
+                            batchTimer.record(Duration.ofNanos(System.nanoTime() - start));
+                        }
+                    });
+        });
+    }
+
+    private Mono<Integer> publishAndDelete(final List<OutboxEvent> events) {
+        if (events.isEmpty()) {
+            return Mono.just(0);
+        }
+        return sink.publish(events)
+                .then(databaseClient.execute(DELETE_BATCH)
+                        .bind("ids", events.stream().map(OutboxEvent::getId).toArray(Long[]::new))
+                        .fetch()
+                        .rowsUpdated())
+                .thenReturn(events.size());
+    }
+
+    private Mono<Void> updateLag() {
+        return databaseClient.execute(LAG_MILLIS)
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .doOnNext(lagMillis::set)
+                .then();
+    }
+
+    private static OutboxEvent toEvent(final Row row, final RowMetadata metadata) {
+        return new OutboxEvent(row.get("id", Long.class), row.get("aggregate_id", Integer.class), row.get("event_type", String.class),
+                row.get("payload", String.class), row.get("created_at", OffsetDateTime.class).toInstant());
+    }
+}
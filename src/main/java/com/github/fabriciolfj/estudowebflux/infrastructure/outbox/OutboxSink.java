@@ -0,0 +1,14 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.outbox;
+
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Destination of the relayed events. A batch is deleted from the outbox only after {@link #publish} completes,
+ * and may be published again if that delete does not commit: consumers must tolerate duplicates (at-least-once).
+ */
+public interface OutboxSink {
+
+    Mono<Void> publish(List<OutboxEvent> events);
+}
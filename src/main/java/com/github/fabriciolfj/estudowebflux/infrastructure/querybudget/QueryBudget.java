@@ -0,0 +1,55 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.querybudget;
+
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Statements and rows of one HTTP request, carried in the Reactor {@link Context} under this class. Statement
+ * shapes are the SQL text as sent to the driver: parameters are already bind markers, so N single-row INSERTs of
+ * the same entity show up as one shape executed N times.
+ */
+public class QueryBudget {
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private final AtomicLong rows = new AtomicLong();
+    private final Map<String, AtomicInteger> shapes = new ConcurrentHashMap<>();
+
+    public static QueryBudget current(final Context context) {
+        return context.getOrDefault(QueryBudget.class, null);
+    }
+
+    public void onStatement(final String sql) {
+        statements.incrementAndGet();
+        shapes.computeIfAbsent(sql, key -> new AtomicInteger()).incrementAndGet();
+    }
+
+    public void onRows(final long count) {
+        rows.addAndGet(count);
+    }
+
+    public int statements() {
+        return statements.get();
+    }
+
+    public long rows() {
+        return rows.get();
+    }
+
+    /**
+     * Shapes executed at least {@code threshold} times, with their counts.
+     */
+    public Map<String, Integer> repeatedShapes(final int threshold) {
+        final Map<String, Integer> repeated = new TreeMap<>();
+        shapes.forEach((sql, count) -> {
+            if (count.get() >= threshold) {
+                repeated.put(sql, count.get());
+            }
+        });
+        return repeated;
+    }
+}
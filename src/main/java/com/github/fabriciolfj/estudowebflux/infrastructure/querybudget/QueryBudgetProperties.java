@@ -0,0 +1,24 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.querybudget;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Statements are counted by the R2DBC decorator of {@code app.r2dbc.statement-cache}, which must stay enabled.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.query-budget")
+public class QueryBudgetProperties {
+
+    private boolean enabled = true;
+    private int maxStatements = 10;
+    private long maxRows = 10_000;
+    /**
+     * The same statement shape this many times in one request is reported as a likely N+1.
+     */
+    private int repeatThreshold = 5;
+    /**
+     * Adds {@code X-Query-Count} and {@code X-Query-Rows} to responses.
+     */
+    private boolean debugHeaders;
+}
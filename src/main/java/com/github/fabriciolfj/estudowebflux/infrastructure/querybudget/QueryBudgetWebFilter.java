@@ -0,0 +1,83 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.querybudget;
+
+import com.github.fabriciolfj.estudowebflux.infrastructure.latency.LatencyWebFilter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Opens a {@link QueryBudget} per request and, when the request ends, records
+ * {@code http.server.requests.queries}/{@code .rows} per route and counts
+ * {@code http.server.requests.query.findings{finding=budget-exceeded|repeated-statement}}. Debug headers are set
+ * when the response commits, so for streamed bodies they cover the queries issued before the first byte.
+ */
+@Slf4j
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(prefix = "app.query-budget", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class QueryBudgetWebFilter implements WebFilter {
+
+    public static final String QUERY_COUNT_HEADER = "X-Query-Count";
+    public static final String QUERY_ROWS_HEADER = "X-Query-Rows";
+
+    private final QueryBudgetProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    public QueryBudgetWebFilter(final QueryBudgetProperties properties, final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final QueryBudget budget = new QueryBudget();
+        if (properties.isDebugHeaders()) {
+            exchange.getResponse().beforeCommit(() -> {
+                final HttpHeaders headers = exchange.getResponse().getHeaders();
+                headers.set(QUERY_COUNT_HEADER, String.valueOf(budget.statements()));
+                headers.set(QUERY_ROWS_HEADER, String.valueOf(budget.rows()));
+                return Mono.empty();
+            });
+        }
+
+        return chain.filter(exchange)
+                .doFinally(signal -> report(LatencyWebFilter.route(exchange), budget))
+                .subscriberContext(context -> context.put(QueryBudget.class, budget));
+    }
+
+    private void report(final String route, final QueryBudget budget) {
+        if (budget.statements() == 0) {
+            return;
+        }
+
+        DistributionSummary.builder("http.server.requests.queries").tag("uri", route).register(meterRegistry).record(budget.statements());
+        DistributionSummary.builder("http.server.requests.rows").tag("uri", route).register(meterRegistry).record(budget.rows());
+
+        if (budget.statements() > properties.getMaxStatements() || budget.rows() > properties.getMaxRows()) {
+            finding(route, "budget-exceeded");
+            log.warn("{} issued {} statements / {} rows, budget is {} / {}", route, budget.statements(), budget.rows(),
+                    properties.getMaxStatements(), properties.getMaxRows());
+        }
+
+        final Map<String, Integer> repeated = budget.repeatedShapes(properties.getRepeatThreshold());
+        if (!repeated.isEmpty()) {
+            finding(route, "repeated-statement");
+            log.warn("{} repeated statements, likely N+1: {}", route, repeated);
+        }
+    }
+
+    private void finding(final String route, final String finding) {
+        meterRegistry.counter("http.server.requests.query.findings", "uri", route, "finding", finding).increment();
+    }
+}
@@ -0,0 +1,44 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import lombok.Data;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+
+/**
+ * Builds the extra pools (replicas, shards) that sit next to the one auto-configured from {@code spring.r2dbc.*}.
+ */
+public final class R2dbcPools {
+
+    private R2dbcPools() {
+    }
+
+    public static ConnectionPool pool(final String url, final String username, final String password, final Settings settings) {
+        final ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (StringUtils.hasText(username)) {
+            options.option(ConnectionFactoryOptions.USER, username);
+        }
+        if (StringUtils.hasText(password)) {
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+
+        final ConnectionFactory connectionFactory = ConnectionFactories.get(options.build());
+        return new ConnectionPool(ConnectionPoolConfiguration.builder(connectionFactory)
+                .initialSize(settings.getInitialSize())
+                .maxSize(settings.getMaxSize())
+                .maxIdleTime(settings.getMaxIdleTime())
+                .build());
+    }
+
+    @Data
+    public static class Settings {
+        private int initialSize = 5;
+        private int maxSize = 20;
+        private Duration maxIdleTime = Duration.ofMinutes(30);
+    }
+}
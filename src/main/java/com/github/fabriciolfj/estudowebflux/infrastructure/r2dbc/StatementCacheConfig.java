@@ -0,0 +1,61 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.actuate.metrics.r2dbc.ConnectionPoolMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.Map;
+
+/**
+ * Decorates every {@link ConnectionFactory} bean with {@link StatementTrackingConnectionFactory}. The caching
+ * itself is done by the driver ({@code preparedStatementCacheQueries} on the R2DBC url); this only makes it
+ * observable.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.r2dbc.statement-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class StatementCacheConfig {
+
+    @Bean
+    public static BeanPostProcessor statementTrackingPostProcessor(final Environment environment,
+                                                                   final ObjectProvider<MeterRegistry> meterRegistry) {
+        // bound by hand: a BeanPostProcessor is created before @ConfigurationProperties beans are processed
+        final StatementCacheProperties properties = Binder.get(environment)
+                .bind("app.r2dbc.statement-cache", StatementCacheProperties.class)
+                .orElseGet(StatementCacheProperties::new);
+        final StatementTracker tracker = new StatementTracker(properties, meterRegistry);
+
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+                if (bean instanceof ConnectionFactory && !(bean instanceof StatementTrackingConnectionFactory)) {
+                    return new StatementTrackingConnectionFactory((ConnectionFactory) bean, tracker);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Boot 2.3 only binds pool metrics for beans that are a {@link ConnectionPool} themselves.
+     */
+    @Bean
+    public MeterBinder trackedConnectionPoolMetrics(final Map<String, ConnectionFactory> connectionFactories) {
+        return registry -> connectionFactories.forEach((name, connectionFactory) -> {
+            if (connectionFactory instanceof StatementTrackingConnectionFactory
+                    && ((StatementTrackingConnectionFactory) connectionFactory).unwrap() instanceof ConnectionPool) {
+                final ConnectionPool pool = (ConnectionPool) ((StatementTrackingConnectionFactory) connectionFactory).unwrap();
+                new ConnectionPoolMetrics(pool, name, Tags.empty()).bindTo(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,20 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.r2dbc.statement-cache")
+public class StatementCacheProperties {
+
+    private boolean enabled = true;
+    /**
+     * Keep equal to the driver's {@code preparedStatementCacheQueries} so prepare/reuse counts match what the
+     * server actually sees.
+     */
+    private int maxSize = 256;
+    /**
+     * Distinct SQL strings that get their own {@code statement} tag; the rest are counted as {@code other}.
+     */
+    private int maxTrackedStatements = 64;
+}
@@ -0,0 +1,93 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.Wrapped;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Mirrors the driver's per-connection named statement cache: one bounded LRU of SQL text per physical
+ * connection (pooled handles are unwrapped), counting {@code r2dbc.statements{outcome=prepared|reused|evicted}}.
+ * Only parameterised SQL is tracked, the driver runs the rest through the simple query protocol.
+ */
+public class StatementTracker {
+
+    static final String OTHER = "other";
+
+    private final StatementCacheProperties properties;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<Object, Map<String, Boolean>> cachesByConnection = Collections.synchronizedMap(new WeakHashMap<>());
+    private final Map<String, String> labels = new ConcurrentHashMap<>();
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    public StatementTracker(final StatementCacheProperties properties, final ObjectProvider<MeterRegistry> meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public void onCreateStatement(final Connection connection, final String sql) {
+        if (!sql.contains("$1")) {
+            return;
+        }
+
+        final Map<String, Boolean> cache = cachesByConnection.computeIfAbsent(physical(connection), key -> lru());
+        final boolean reused;
+        final int sizeBefore;
+        synchronized (cache) {
+            sizeBefore = cache.size();
+            reused = cache.put(sql, Boolean.TRUE) != null;
+            if (!reused && cache.size() == sizeBefore) {
+                count(OTHER, "evicted");
+            }
+        }
+        count(label(sql), reused ? "reused" : "prepared");
+    }
+
+    private Map<String, Boolean> lru() {
+        final int maxSize = properties.getMaxSize();
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Boolean> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private String label(final String sql) {
+        final String label = labels.get(sql);
+        if (label != null) {
+            return label;
+        }
+        if (labels.size() >= properties.getMaxTrackedStatements()) {
+            return OTHER;
+        }
+        return labels.computeIfAbsent(sql, key -> key.replaceAll("\\s+", " ").trim());
+    }
+
+    private void count(final String statement, final String outcome) {
+        final MeterRegistry registry = meterRegistry.getIfAvailable();
+        if (registry == null) {
+            return;
+        }
+        counters.computeIfAbsent(outcome + ':' + statement, key -> Counter.builder("r2dbc.statements")
+                .tag("statement", statement)
+                .tag("outcome", outcome)
+                .register(registry))
+                .increment();
+    }
+
+    private static Object physical(final Connection connection) {
+        Object current = connection;
+        while (current instanceof Wrapped) {
+            current = ((Wrapped<?>) current).unwrap();
+        }
+        return current;
+    }
+}
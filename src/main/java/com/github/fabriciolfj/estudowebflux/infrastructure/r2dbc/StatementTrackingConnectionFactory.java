@@ -0,0 +1,139 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc;
+
+import com.github.fabriciolfj.estudowebflux.infrastructure.querybudget.QueryBudget;
+import com.github.fabriciolfj.estudowebflux.infrastructure.tracing.Span;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import io.r2dbc.spi.Wrapped;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+
+/**
+ * Hands out connections whose {@code createStatement} is reported to a {@link StatementTracker} and whose statement
+ * executions are counted against the request's {@link QueryBudget} and traced as {@code db.query} spans. Keeps the lifecycle of the decorated factory
+ * ({@link Closeable}, {@link Disposable}) so shutdown and pool metrics still reach it.
+ */
+public class StatementTrackingConnectionFactory implements ConnectionFactory, Wrapped<ConnectionFactory>, Closeable, Disposable {
+
+    private final ConnectionFactory delegate;
+    private final StatementTracker tracker;
+
+    public StatementTrackingConnectionFactory(final ConnectionFactory delegate, final StatementTracker tracker) {
+        this.delegate = delegate;
+        this.tracker = tracker;
+    }
+
+    @Override
+    public Publisher<? extends Connection> create() {
+        return Mono.from(delegate.create()).map(this::track);
+    }
+
+    @Override
+    public ConnectionFactoryMetadata getMetadata() {
+        return delegate.getMetadata();
+    }
+
+    @Override
+    public ConnectionFactory unwrap() {
+        return delegate;
+    }
+
+    @Override
+    public Mono<Void> close() {
+        return delegate instanceof Closeable ? Mono.from(((Closeable) delegate).close()) : Mono.empty();
+    }
+
+    @Override
+    public void dispose() {
+        if (delegate instanceof Disposable) {
+            ((Disposable) delegate).dispose();
+        }
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return delegate instanceof Disposable && ((Disposable) delegate).isDisposed();
+    }
+
+    private Connection track(final Connection connection) {
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class, Wrapped.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "createStatement":
+                            tracker.onCreateStatement(connection, (String) args[0]);
+                            return budgeted((Statement) invoke(method, connection, args), (String) args[0]);
+                        case "unwrap":
+                            return connection;
+                        case "equals":
+                            return proxy == args[0];
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        default:
+                            return invoke(method, connection, args);
+                    }
+                });
+    }
+
+    /**
+     * Reports executions and rows to the request's {@link QueryBudget} and opens a CLIENT span under the current
+     * {@link Span}, if the subscriber context carries them. The span ends when the driver has emitted the results.
+     * Builder methods return the proxy so {@code bind(..).execute()} chains stay decorated.
+     */
+    private Statement budgeted(final Statement statement, final String sql) {
+        return (Statement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Statement.class},
+                (proxy, method, args) -> {
+                    if (!"execute".equals(method.getName())) {
+                        final Object result = invoke(method, statement, args);
+                        return result == statement ? proxy : result;
+                    }
+                    return Flux.deferWithContext(context -> {
+                        Flux<Result> results = Flux.<Result>from(statement.execute());
+                        final Span parent = Span.current(context);
+                        if (parent != null && parent.isSampled()) {
+                            final Span span = parent.child("db.query", Span.Kind.CLIENT)
+                                    .attribute("db.system", "postgresql")
+                                    .attribute("db.statement", sql);
+                            results = results.doOnError(span::error).doFinally(signal -> span.end());
+                        }
+                        final QueryBudget budget = QueryBudget.current(context);
+                        if (budget == null) {
+                            return results;
+                        }
+                        budget.onStatement(sql);
+                        return results.map(result -> budgeted(result, budget));
+                    });
+                });
+    }
+
+    private Result budgeted(final Result result, final QueryBudget budget) {
+        return (Result) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Result.class},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "map":
+                            return Flux.from((Publisher<?>) invoke(method, result, args)).doOnNext(row -> budget.onRows(1));
+                        case "getRowsUpdated":
+                            return Mono.from(result.getRowsUpdated()).doOnNext(budget::onRows);
+                        default:
+                            return invoke(method, result, args);
+                    }
+                });
+    }
+
+    private static Object invoke(final Method method, final Object target, final Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.resilience;
+
+import com.github.fabriciolfj.estudowebflux.api.exception.StacklessResponseStatusException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.R2dbcTransientException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Guards the repository calls: per-operation timeout, retry with exponential backoff and jitter for reads,
+ * and a circuit breaker shared by every call, since they all hit the same database. Streaming reads
+ * ({@link #readMany}) get a breaker of their own without the slow-call rule: a subscription lasts as long as the
+ * client reads, so a long export would otherwise count as a slow call and open the breaker for point reads.
+ * Only infrastructure failures (timeouts, transient R2DBC errors) count for the breaker and are retried;
+ * when the database is unavailable the caller gets a 503, or the last known value for {@link #readCached}.
+ */
+@Slf4j
+@Component
+public class RepositoryResilience {
+
+    private static final StacklessResponseStatusException.Template DATABASE_UNAVAILABLE = StacklessResponseStatusException.template(HttpStatus.SERVICE_UNAVAILABLE, "Database unavailable");
+
+    private final RepositoryResilienceProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreaker circuitBreaker;
+    private final CircuitBreaker streamCircuitBreaker;
+    /**
+     * Least recently used entry goes first once {@code stale-cache-size} is reached.
+     */
+    private final Map<Object, Object> staleCache;
+
+    public RepositoryResilience(final RepositoryResilienceProperties properties, final MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        final int staleCacheSize = properties.getStaleCacheSize();
+        this.staleCache = Collections.synchronizedMap(new LinkedHashMap<Object, Object>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<Object, Object> eldest) {
+                return size() > staleCacheSize;
+            }
+        });
+
+        final CircuitBreakerConfig config = circuitBreakerConfig(properties.getCircuitBreaker());
+        final CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+        this.circuitBreaker = registry.circuitBreaker("database");
+        // a timeout on the first element still counts as a failure
+        this.streamCircuitBreaker = registry.circuitBreaker("database-streams", CircuitBreakerConfig.from(config)
+                .slowCallRateThreshold(100)
+                .slowCallDurationThreshold(Duration.ofDays(1))
+                .build());
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        Gauge.builder("repository.stale.cache.size", staleCache, Map::size).register(meterRegistry);
+    }
+
+    public <T> Mono<T> read(final String operation, final Supplier<Mono<T>> call) {
+        return guardedRead(operation, call)
+                .onErrorMap(this::isUnavailable, e -> unavailable(operation, e));
+    }
+
+    /**
+     * Like {@link #read}, but remembers the last value per key and serves it when the database is unavailable.
+     * Values are stored and served as {@code copy}s, so callers that modify what they read cannot change the cache;
+     * writers must {@link #evict} the keys they change.
+     */
+    public <T> Mono<T> readCached(final String operation, final Object key, final UnaryOperator<T> copy, final Supplier<Mono<T>> call) {
+        final Object cacheKey = List.of(operation, key);
+        return guardedRead(operation, call)
+                .doOnNext(value -> remember(cacheKey, copy.apply(value)))
+                .onErrorResume(this::isUnavailable, e -> stale(operation, cacheKey, copy, e));
+    }
+
+    public void evict(final String operation, final Object key) {
+        staleCache.remove(List.of(operation, key));
+    }
+
+    public void evictAll(final String operation) {
+        synchronized (staleCache) {
+            staleCache.keySet().removeIf(cacheKey -> operation.equals(((List<?>) cacheKey).get(0)));
+        }
+    }
+
+    /**
+     * Retries only when nothing was emitted yet, otherwise the subscriber would see duplicated elements.
+     * The timeout applies to the first element, a slow client must not abort a long stream.
+     */
+    public <T> Flux<T> readMany(final String operation, final Supplier<Flux<T>> call) {
+        final Duration timeout = properties.timeoutOf(operation, properties.getReadTimeout());
+        return Flux.defer(() -> {
+                    final AtomicBoolean emitted = new AtomicBoolean();
+                    return call.get()
+                            .timeout(Mono.delay(timeout), item -> Mono.never())
+                            .doOnError(TimeoutException.class, e -> count(operation, "timeout"))
+                            .doOnNext(item -> emitted.lazySet(true))
+                            .onErrorMap(e -> emitted.get(), PartialResultException::new);
+                })
+                .retryWhen(retry(operation))
+                .onErrorMap(PartialResultException.class, Throwable::getCause)
+                .transformDeferred(CircuitBreakerOperator.of(streamCircuitBreaker))
+                .onErrorMap(this::isUnavailable, e -> unavailable(operation, e));
+    }
+
+    public <T> Mono<T> write(final String operation, final Supplier<Mono<T>> call) {
+        return Mono.defer(call)
+                .timeout(properties.timeoutOf(operation, properties.getWriteTimeout()))
+                .doOnError(TimeoutException.class, e -> count(operation, "timeout"))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(this::isUnavailable, e -> unavailable(operation, e));
+    }
+
+    public <T> Flux<T> writeMany(final String operation, final Supplier<Flux<T>> call) {
+        return Flux.defer(call)
+                .timeout(properties.timeoutOf(operation, properties.getWriteTimeout()))
+                .doOnError(TimeoutException.class, e -> count(operation, "timeout"))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorMap(this::isUnavailable, e -> unavailable(operation, e));
+    }
+
+    public CircuitBreaker.State state() {
+        return circuitBreaker.getState();
+    }
+
+    private <T> Mono<T> guardedRead(final String operation, final Supplier<Mono<T>> call) {
+        return Mono.defer(call)
+                .timeout(properties.timeoutOf(operation, properties.getReadTimeout()))
+                .doOnError(TimeoutException.class, e -> count(operation, "timeout"))
+                .retryWhen(retry(operation))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker));
+    }
+
+    private Retry retry(final String operation) {
+        final RepositoryResilienceProperties.Retry retry = properties.getRetry();
+        return Retry.backoff(retry.getMaxAttempts(), retry.getMinBackoff())
+                .maxBackoff(retry.getMaxBackoff())
+                .jitter(retry.getJitter())
+                .filter(this::isTransient)
+                .doBeforeRetry(signal -> count(operation, "retry"))
+                .onRetryExhaustedThrow((spec, signal) -> signal.failure());
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> Mono<T> stale(final String operation, final Object cacheKey, final UnaryOperator<T> copy, final Throwable error) {
+        final T value = (T) staleCache.get(cacheKey);
+        if (value == null) {
+            return Mono.error(unavailable(operation, error));
+        }
+        count(operation, "stale");
+        return Mono.just(copy.apply(value));
+    }
+
+    private void remember(final Object cacheKey, final Object value) {
+        if (properties.getStaleCacheSize() > 0) {
+            staleCache.put(cacheKey, value);
+        }
+    }
+
+    private ResponseStatusException unavailable(final String operation, final Throwable error) {
+        if (error instanceof CallNotPermittedException) {
+            count(operation, "rejected");
+        } else {
+            log.warn("Repository operation {} failed: {}", operation, error.toString());
+        }
+        return DATABASE_UNAVAILABLE.get();
+    }
+
+    private boolean isUnavailable(final Throwable error) {
+        return error instanceof CallNotPermittedException || isTransient(error);
+    }
+
+    private boolean isTransient(final Throwable error) {
+        return error instanceof TimeoutException
+                || error instanceof R2dbcTransientException
+                || error instanceof TransientDataAccessException
+                || error instanceof DataAccessResourceFailureException;
+    }
+
+    private void count(final String operation, final String outcome) {
+        meterRegistry.counter("repository.calls", "operation", operation, "outcome", outcome).increment();
+    }
+
+    private CircuitBreakerConfig circuitBreakerConfig(final RepositoryResilienceProperties.CircuitBreaker circuitBreaker) {
+        return CircuitBreakerConfig.custom()
+                .failureRateThreshold(circuitBreaker.getFailureRateThreshold())
+                .slowCallRateThreshold(circuitBreaker.getSlowCallRateThreshold())
+                .slowCallDurationThreshold(circuitBreaker.getSlowCallDuration())
+                .slidingWindowSize(circuitBreaker.getSlidingWindowSize())
+                .minimumNumberOfCalls(circuitBreaker.getMinimumNumberOfCalls())
+                .waitDurationInOpenState(circuitBreaker.getWaitDurationInOpenState())
+                .permittedNumberOfCallsInHalfOpenState(circuitBreaker.getPermittedCallsInHalfOpenState())
+                .recordException(this::isTransient)
+                .build();
+    }
+
+    private static class PartialResultException extends RuntimeException {
+        PartialResultException(final Throwable cause) {
+            super(cause.getMessage(), cause, false, false);
+        }
+    }
+}
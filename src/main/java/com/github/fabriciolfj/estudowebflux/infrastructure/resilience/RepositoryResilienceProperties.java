@@ -0,0 +1,46 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.resilience;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.resilience.repository")
+public class RepositoryResilienceProperties {
+
+    private Duration readTimeout = Duration.ofSeconds(2);
+    private Duration writeTimeout = Duration.ofSeconds(5);
+    /**
+     * Per-operation overrides, keyed by the operation name used in AnimeService (findById, saveBatch...).
+     */
+    private Map<String, Duration> timeouts = new HashMap<>();
+    private Retry retry = new Retry();
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+    private int staleCacheSize = 10_000;
+
+    public Duration timeoutOf(final String operation, final Duration fallback) {
+        return timeouts.getOrDefault(operation, fallback);
+    }
+
+    @Data
+    public static class Retry {
+        private int maxAttempts = 2;
+        private Duration minBackoff = Duration.ofMillis(50);
+        private Duration maxBackoff = Duration.ofMillis(500);
+        private double jitter = 0.5;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private float failureRateThreshold = 50;
+        private float slowCallRateThreshold = 80;
+        private Duration slowCallDuration = Duration.ofSeconds(1);
+        private int slidingWindowSize = 50;
+        private int minimumNumberOfCalls = 20;
+        private Duration waitDurationInOpenState = Duration.ofSeconds(10);
+        private int permittedCallsInHalfOpenState = 5;
+    }
+}
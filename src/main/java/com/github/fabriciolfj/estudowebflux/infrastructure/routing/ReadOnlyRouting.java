@@ -0,0 +1,33 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.routing;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.context.Context;
+
+/**
+ * Marks a repository call as read-only in the Reactor {@link Context}, so {@link ReadWriteRoutingConnectionFactory}
+ * may send it to a replica. Has no effect when routing is disabled.
+ */
+public final class ReadOnlyRouting {
+
+    static final String READ_ONLY = ReadOnlyRouting.class.getName() + ".READ_ONLY";
+
+    private ReadOnlyRouting() {
+    }
+
+    public static <T> Mono<T> readOnly(final Mono<T> call) {
+        return call.subscriberContext(ReadOnlyRouting::markReadOnly);
+    }
+
+    public static <T> Flux<T> readOnly(final Flux<T> call) {
+        return call.subscriberContext(ReadOnlyRouting::markReadOnly);
+    }
+
+    static boolean isReadOnly(final Context context) {
+        return context.getOrDefault(READ_ONLY, false);
+    }
+
+    private static Context markReadOnly(final Context context) {
+        return context.put(READ_ONLY, true);
+    }
+}
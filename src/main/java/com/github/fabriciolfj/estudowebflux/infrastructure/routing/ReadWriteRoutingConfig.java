@@ -0,0 +1,37 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.routing;
+
+import com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc.R2dbcPools;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.r2dbc.R2dbcProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Replaces the auto-configured {@link ConnectionFactory}: the primary comes from {@code spring.r2dbc.*},
+ * the replicas from {@code app.r2dbc.routing.replicas}.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.r2dbc.routing", name = "enabled", havingValue = "true")
+public class ReadWriteRoutingConfig {
+
+    @Bean(destroyMethod = "dispose")
+    public ReadWriteRoutingConnectionFactory connectionFactory(final R2dbcProperties r2dbcProperties,
+                                                               final ReadWriteRoutingProperties properties,
+                                                               final MeterRegistry meterRegistry) {
+        final ConnectionFactory primary = R2dbcPools.pool(r2dbcProperties.getUrl(), r2dbcProperties.getUsername(),
+                r2dbcProperties.getPassword(), properties.getPool());
+        final List<ConnectionFactory> replicas = properties.getReplicas().stream()
+                .map(replica -> (ConnectionFactory) R2dbcPools.pool(replica.getUrl(), replica.getUsername(), replica.getPassword(), properties.getPool()))
+                .collect(Collectors.toList());
+
+        final ReadWriteRoutingConnectionFactory routing = new ReadWriteRoutingConnectionFactory(primary, replicas, properties);
+        routing.bindMetrics(meterRegistry);
+        routing.startHealthChecks(properties.getHealthCheckInterval());
+        return routing;
+    }
+}
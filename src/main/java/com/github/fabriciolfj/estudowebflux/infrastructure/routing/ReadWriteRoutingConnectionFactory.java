@@ -0,0 +1,179 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.routing;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ValidationDepth;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.r2dbc.connectionfactory.lookup.AbstractRoutingConnectionFactory;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Sends work marked with {@link ReadOnlyRouting} to a healthy replica (round robin) and everything else,
+ * including transactions, to the primary. A client (the authenticated user) that just used the primary
+ * keeps reading from it for {@code read-your-writes-window}, so it sees its own writes despite replication lag.
+ */
+@Slf4j
+public class ReadWriteRoutingConnectionFactory extends AbstractRoutingConnectionFactory implements Closeable, Disposable {
+
+    static final String PRIMARY = "primary";
+    private static final String ANONYMOUS = "";
+    private static final int MAX_TRACKED_WRITERS = 10_000;
+
+    private final ConnectionFactory primary;
+    private final List<Replica> replicas;
+    private final long readYourWritesNanos;
+    private final Duration healthCheckTimeout;
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private Disposable healthCheck = () -> { };
+
+    public ReadWriteRoutingConnectionFactory(final ConnectionFactory primary, final List<ConnectionFactory> replicas,
+                                             final ReadWriteRoutingProperties properties) {
+        this.primary = primary;
+        this.replicas = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            this.replicas.add(new Replica("replica-" + i, replicas.get(i)));
+        }
+        this.readYourWritesNanos = properties.getReadYourWritesWindow().toNanos();
+        this.healthCheckTimeout = properties.getHealthCheckTimeout();
+
+        final Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY, primary);
+        this.replicas.forEach(replica -> targets.put(replica.key, replica.connectionFactory));
+        setTargetConnectionFactories(targets);
+        setDefaultTargetConnectionFactory(primary);
+        afterPropertiesSet();
+    }
+
+    public void startHealthChecks(final Duration interval) {
+        healthCheck = Flux.interval(Duration.ZERO, interval)
+                .onBackpressureDrop()
+                .concatMap(tick -> Flux.fromIterable(replicas).flatMap(this::check))
+                .subscribe();
+    }
+
+    public void bindMetrics(final MeterRegistry meterRegistry) {
+        replicas.forEach(replica -> Gauge.builder("r2dbc.replica.healthy", replica, r -> r.healthy ? 1 : 0)
+                .tag("replica", replica.key)
+                .register(meterRegistry));
+        Gauge.builder("r2dbc.routing.recent.writers", recentWriters, Map::size).register(meterRegistry);
+    }
+
+    @Override
+    protected Mono<Object> determineCurrentLookupKey() {
+        return ReactiveSecurityContextHolder.getContext()
+                .flatMap(securityContext -> Mono.justOrEmpty(securityContext.getAuthentication()))
+                .map(Authentication::getName)
+                .defaultIfEmpty(ANONYMOUS)
+                .flatMap(client -> Mono.subscriberContext()
+                        .map(context -> route(ReadOnlyRouting.isReadOnly(context), client)));
+    }
+
+    Object route(final boolean readOnly, final String client) {
+        if (!readOnly) {
+            rememberWriter(client);
+            return PRIMARY;
+        }
+        if (wroteRecently(client)) {
+            return PRIMARY;
+        }
+
+        final List<Replica> healthy = replicas.stream().filter(r -> r.healthy).collect(Collectors.toList());
+        if (healthy.isEmpty()) {
+            return PRIMARY;
+        }
+        return healthy.get(Math.floorMod(next.getAndIncrement(), healthy.size())).key;
+    }
+
+    void markHealthy(final String key, final boolean healthy) {
+        replicas.stream().filter(r -> r.key.equals(key)).forEach(r -> r.healthy = healthy);
+    }
+
+    private void rememberWriter(final String client) {
+        if (readYourWritesNanos <= 0 || ANONYMOUS.equals(client)) {
+            return;
+        }
+        final long now = System.nanoTime();
+        if (recentWriters.size() >= MAX_TRACKED_WRITERS) {
+            recentWriters.values().removeIf(expiresAt -> expiresAt - now < 0);
+        }
+        recentWriters.put(client, now + readYourWritesNanos);
+    }
+
+    private boolean wroteRecently(final String client) {
+        final Long expiresAt = recentWriters.get(client);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt - System.nanoTime() < 0) {
+            recentWriters.remove(client, expiresAt);
+            return false;
+        }
+        return true;
+    }
+
+    private Mono<Boolean> check(final Replica replica) {
+        return Mono.usingWhen(replica.connectionFactory.create(),
+                        connection -> Mono.from(connection.validate(ValidationDepth.REMOTE)),
+                        Connection::close)
+                .timeout(healthCheckTimeout)
+                .onErrorReturn(false)
+                .doOnNext(healthy -> {
+                    if (replica.healthy != healthy) {
+                        log.warn("Replica {} is now {}", replica.key, healthy ? "healthy" : "unhealthy");
+                    }
+                    replica.healthy = healthy;
+                });
+    }
+
+    @Override
+    public Mono<Void> close() {
+        healthCheck.dispose();
+        return Flux.concat(replicas.stream().map(r -> closeQuietly(r.connectionFactory)).collect(Collectors.toList()))
+                .concatWith(closeQuietly(primary))
+                .then();
+    }
+
+    @Override
+    public void dispose() {
+        close().block(Duration.ofSeconds(10));
+    }
+
+    private Mono<Void> closeQuietly(final ConnectionFactory connectionFactory) {
+        if (!(connectionFactory instanceof Closeable)) {
+            return Mono.empty();
+        }
+        return Mono.from(((Closeable) connectionFactory).close())
+                .onErrorResume(e -> {
+                    log.warn("Fail closing connection factory: {}", e.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private static class Replica {
+        private final String key;
+        private final ConnectionFactory connectionFactory;
+        private volatile boolean healthy = true;
+
+        Replica(final String key, final ConnectionFactory connectionFactory) {
+            this.key = key;
+            this.connectionFactory = connectionFactory;
+        }
+    }
+}
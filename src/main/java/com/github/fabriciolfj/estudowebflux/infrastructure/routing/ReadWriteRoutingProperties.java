@@ -0,0 +1,31 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.routing;
+
+import com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc.R2dbcPools;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.r2dbc.routing")
+public class ReadWriteRoutingProperties {
+
+    private boolean enabled;
+    private List<Replica> replicas = new ArrayList<>();
+    private R2dbcPools.Settings pool = new R2dbcPools.Settings();
+    private Duration healthCheckInterval = Duration.ofSeconds(5);
+    private Duration healthCheckTimeout = Duration.ofSeconds(1);
+    /**
+     * After a client writes, its reads go to the primary for this long. Zero disables read-your-writes.
+     */
+    private Duration readYourWritesWindow = Duration.ofSeconds(2);
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,106 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.scheduler;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.stereotype.Component;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One bounded {@link Scheduler} per workload class, so password hashing, bulk encoding and blocking I/O neither
+ * compete with the event loops nor with each other. Each reports {@code executor.*} metrics tagged with its name
+ * plus {@code app.scheduler.rejected}; a rejected task fails with {@link java.util.concurrent.RejectedExecutionException},
+ * answered as 503.
+ */
+@Slf4j
+@Component
+public class AppSchedulers implements DisposableBean {
+
+    private final Scheduler auth;
+    private final Scheduler serialization;
+    private final Scheduler blockingIo;
+
+    public AppSchedulers(final SchedulerProperties properties, final MeterRegistry meterRegistry) {
+        final boolean virtual = properties.getMode() == SchedulerProperties.Mode.VIRTUAL && VirtualThreads.isAvailable();
+        if (properties.getMode() == SchedulerProperties.Mode.VIRTUAL && !virtual) {
+            log.warn("Virtual threads are not available on Java {}, using platform threads", Runtime.version().feature());
+        }
+
+        this.auth = create("auth", properties.getAuth(), virtual, meterRegistry);
+        this.serialization = create("serialization", properties.getSerialization(), virtual, meterRegistry);
+        this.blockingIo = create("blocking-io", properties.getBlockingIo(), virtual, meterRegistry);
+    }
+
+    /**
+     * Password hashing (BCrypt) for authentication.
+     */
+    public Scheduler auth() {
+        return auth;
+    }
+
+    /**
+     * Encoding of large response bodies.
+     */
+    public Scheduler serialization() {
+        return serialization;
+    }
+
+    /**
+     * Blocking calls: files, JDBC, anything BlockHound would flag on an event loop.
+     */
+    public Scheduler blockingIo() {
+        return blockingIo;
+    }
+
+    @Override
+    public void destroy() {
+        auth.dispose();
+        serialization.dispose();
+        blockingIo.dispose();
+    }
+
+    private Scheduler create(final String name, final SchedulerProperties.Pool pool, final boolean virtual,
+                             final MeterRegistry meterRegistry) {
+        final Counter rejected = Counter.builder("app.scheduler.rejected")
+                .tag("name", name)
+                .register(meterRegistry);
+        final RejectedExecutionHandler policy = pool.getRejection() == SchedulerProperties.Rejection.CALLER_RUNS
+                ? new ThreadPoolExecutor.CallerRunsPolicy()
+                : new ThreadPoolExecutor.AbortPolicy();
+        final RejectedExecutionHandler counting = (task, executor) -> {
+            rejected.increment();
+            policy.rejectedExecution(task, executor);
+        };
+
+        final ExecutorService executor = virtual
+                ? VirtualThreads.boundedExecutor(name, pool.getThreads() + pool.getQueueCapacity(), rejected::increment)
+                : new ThreadPoolExecutor(pool.getThreads(), pool.getThreads(), 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(pool.getQueueCapacity()), threadFactory(name), counting);
+        if (executor instanceof ThreadPoolExecutor) {
+            ((ThreadPoolExecutor) executor).allowCoreThreadTimeOut(true);
+        }
+        new ExecutorServiceMetrics(executor, name, Tags.empty()).bindTo(meterRegistry);
+        return Schedulers.fromExecutorService(executor, name);
+    }
+
+    private static ThreadFactory threadFactory(final String name) {
+        final AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            final Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,48 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.scheduler;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+@Data
+@ConfigurationProperties(prefix = "app.schedulers")
+public class SchedulerProperties {
+
+    /**
+     * {@code virtual} runs every workload on virtual threads (JDK 21+, bounded by threads + queue-capacity
+     * in-flight tasks); falls back to {@code platform} on older JDKs.
+     */
+    private Mode mode = Mode.PLATFORM;
+    private Pool auth = new Pool(Runtime.getRuntime().availableProcessors(), 256);
+    private Pool serialization = new Pool(Runtime.getRuntime().availableProcessors(), 256);
+    private Pool blockingIo = new Pool(16, 1024);
+
+    public enum Mode {
+        PLATFORM, VIRTUAL
+    }
+
+    @Data
+    public static class Pool {
+        private int threads;
+        private int queueCapacity;
+        private Rejection rejection = Rejection.ABORT;
+
+        public Pool() {
+        }
+
+        Pool(final int threads, final int queueCapacity) {
+            this.threads = threads;
+            this.queueCapacity = queueCapacity;
+        }
+    }
+
+    public enum Rejection {
+        /**
+         * Fail the task; surfaces to the client as 503.
+         */
+        ABORT,
+        /**
+         * Run the task on the submitting thread. Only for pools fed from worker threads, never from event loops.
+         */
+        CALLER_RUNS
+    }
+}
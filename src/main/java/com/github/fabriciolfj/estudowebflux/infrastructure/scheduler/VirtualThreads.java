@@ -0,0 +1,105 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.scheduler;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Virtual-thread executors, looked up reflectively so the code still compiles and runs on Java 11.
+ */
+final class VirtualThreads {
+
+    private static final Method NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR = lookup();
+
+    private VirtualThreads() {
+    }
+
+    static boolean isAvailable() {
+        return NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR != null;
+    }
+
+    /**
+     * A thread per task, with at most {@code maxInFlight} tasks running or waiting; beyond that tasks are rejected.
+     */
+    static ExecutorService boundedExecutor(final String name, final int maxInFlight, final Runnable onRejected) {
+        final ExecutorService delegate;
+        try {
+            delegate = (ExecutorService) NEW_VIRTUAL_THREAD_PER_TASK_EXECUTOR.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot create virtual thread executor for " + name, e);
+        }
+        return new Bounded(name, delegate, new Semaphore(maxInFlight), onRejected);
+    }
+
+    private static Method lookup() {
+        try {
+            return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    private static class Bounded extends AbstractExecutorService {
+        private final String name;
+        private final ExecutorService delegate;
+        private final Semaphore permits;
+        private final Runnable onRejected;
+
+        Bounded(final String name, final ExecutorService delegate, final Semaphore permits, final Runnable onRejected) {
+            this.name = name;
+            this.delegate = delegate;
+            this.permits = permits;
+            this.onRejected = onRejected;
+        }
+
+        @Override
+        public void execute(final Runnable command) {
+            if (!permits.tryAcquire()) {
+                onRejected.run();
+                throw new RejectedExecutionException("Scheduler " + name + " is saturated");
+            }
+            try {
+                delegate.execute(() -> {
+                    try {
+                        command.run();
+                    } finally {
+                        permits.release();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+                permits.release();
+                throw e;
+            }
+        }
+
+        @Override
+        public void shutdown() {
+            delegate.shutdown();
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            return delegate.shutdownNow();
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return delegate.isShutdown();
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return delegate.isTerminated();
+        }
+
+        @Override
+        public boolean awaitTermination(final long timeout, final TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
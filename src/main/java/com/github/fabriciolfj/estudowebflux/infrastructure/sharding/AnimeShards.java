@@ -0,0 +1,59 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.sharding;
+
+/**
+ * Id layout for the sharded anime table: {@code id = localId * shardCount + shard}, where {@code localId} comes
+ * from the shard's own {@code anime_local_id_seq}. Ids are unique across shards without a central sequence and
+ * the owning shard is {@code id mod shardCount}, so a lookup never has to ask other shards.
+ * <p>
+ * Names are only unique per shard ({@code anime_normalized_name}), so every anime lives on the shard of its
+ * normalized name ({@link #shardOfName(String)}) and a duplicate always meets the original on the same index.
+ */
+public class AnimeShards {
+
+    private final int shardCount;
+
+    public AnimeShards(final int shardCount) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("At least one shard is required");
+        }
+        this.shardCount = shardCount;
+    }
+
+    public int count() {
+        return shardCount;
+    }
+
+    public int shardOf(final int id) {
+        return Math.floorMod(id, shardCount);
+    }
+
+    public int shardOfName(final String name) {
+        return Math.floorMod(normalizedName(name).hashCode(), shardCount);
+    }
+
+    /**
+     * Java side of {@code lower(btrim(name))}: {@code btrim} only removes spaces, and {@code lower} maps one
+     * character at a time, unlike {@link String#toLowerCase} with its context-dependent rules.
+     */
+    public static String normalizedName(final String name) {
+        int start = 0;
+        int end = name.length();
+        while (start < end && name.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && name.charAt(end - 1) == ' ') {
+            end--;
+        }
+        final StringBuilder normalized = new StringBuilder(end - start);
+        name.substring(start, end).codePoints().map(Character::toLowerCase).forEach(normalized::appendCodePoint);
+        return normalized.toString();
+    }
+
+    public int idFor(final long localId, final int shard) {
+        final long id = localId * shardCount + shard;
+        if (localId < 0 || id > Integer.MAX_VALUE) {
+            throw new IllegalStateException("Anime id space exhausted on shard " + shard + " (local id " + localId + ")");
+        }
+        return (int) id;
+    }
+}
@@ -0,0 +1,415 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.sharding;
+
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import com.github.fabriciolfj.estudowebflux.domain.repository.AnimeRepository;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.spi.Row;
+import io.r2dbc.spi.RowMetadata;
+import org.reactivestreams.Publisher;
+import org.springframework.data.r2dbc.connectionfactory.R2dbcTransactionManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.IncorrectUpdateSemanticsDataAccessException;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * {@link AnimeRepository} over N databases, see {@link AnimeShards} for the id layout.
+ * Single-id operations hit only the owning shard; {@link #findAll()} queries every shard ordered by id and
+ * merges the streams (k-way merge, up to {@value #MERGE_PREFETCH} rows buffered per shard); batches are split per
+ * shard and written in parallel.
+ * <p>
+ * New animes go to the shard of their normalized name ({@link AnimeShards#shardOfName(String)}), where
+ * {@code anime_normalized_name} sees every duplicate; a rename that would move a name to another shard is refused
+ * with a {@link DataIntegrityViolationException} (409), since the id pins the row to its shard.
+ * <p>
+ * Transactions: every write is one statement per shard, except {@link #saveAll}, which runs its inserts and
+ * updates in a new transaction per shard ({@code REQUIRES_NEW}). Shard writes never join the caller's
+ * {@code @Transactional}, which lives on the {@code spring.r2dbc.*} database: they are committed when the
+ * repository call completes. That is why {@link ShardingConfig} refuses to start with the outbox or idempotency
+ * keys on. There is no cross-shard atomicity either.
+ */
+public class ShardedAnimeRepository implements AnimeRepository {
+
+    private static final String FIND_BY_ID = "SELECT id, name FROM anime WHERE id = :id";
+    private static final String FIND_BY_IDS = "SELECT id, name FROM anime WHERE id = ANY(CAST(:ids AS int[])) ORDER BY id";
+    private static final String FIND_ALL = "SELECT id, name FROM anime ORDER BY id";
+    private static final String FIND_PAGE_AFTER = "SELECT id, name FROM anime WHERE id > :afterId ORDER BY id LIMIT :size";
+    private static final String EXISTS_BY_ID = "SELECT EXISTS(SELECT 1 FROM anime WHERE id = :id)";
+    private static final String COUNT = "SELECT count(*) FROM anime";
+    private static final String NEXT_LOCAL_IDS = "SELECT nextval('anime_local_id_seq') FROM generate_series(1, :count)";
+    private static final String INSERT = "INSERT INTO anime (id, name) SELECT * FROM unnest(CAST(:ids AS int[]), CAST(:names AS text[]))";
+    private static final String UPSERT_BY_NAME = "INSERT INTO anime (id, name) SELECT * FROM unnest(CAST(:ids AS int[]), CAST(:names AS text[])) "
+            + "ON CONFLICT ((lower(btrim(name)))) DO UPDATE SET name = EXCLUDED.name RETURNING id, name";
+    private static final String INSERT_BY_NAME_IF_ABSENT = "INSERT INTO anime (id, name) SELECT * FROM unnest(CAST(:ids AS int[]), CAST(:names AS text[])) "
+            + "ON CONFLICT ((lower(btrim(name)))) DO NOTHING RETURNING id, name";
+    private static final String UPDATE = "UPDATE anime AS a SET name = v.name FROM unnest(CAST(:ids AS int[]), CAST(:names AS text[])) AS v(id, name) WHERE a.id = v.id";
+    private static final String UPDATE_RETURNING = UPDATE + " RETURNING a.id, a.name";
+    private static final String DELETE_BY_IDS = "DELETE FROM anime WHERE id = ANY(CAST(:ids AS int[])) RETURNING id, name";
+    private static final String DELETE_BY_NAME_PREFIX = "DELETE FROM anime WHERE name LIKE replace(replace(replace(:prefix, '\\', '\\\\'), '%', '\\%'), '_', '\\_') || '%' RETURNING id, name";
+    private static final String DELETE_ALL = "DELETE FROM anime";
+    static final int MERGE_PREFETCH = 32;
+
+    private final AnimeShards animeShards;
+    private final List<Shard> shards;
+
+    public ShardedAnimeRepository(final List<ConnectionPool> pools) {
+        this.animeShards = new AnimeShards(pools.size());
+        this.shards = new ArrayList<>();
+        for (int i = 0; i < pools.size(); i++) {
+            shards.add(new Shard(i, pools.get(i)));
+        }
+    }
+
+    @Override
+    public <S extends Anime> Mono<S> save(final S entity) {
+        return saveAll(List.of(entity)).next();
+    }
+
+    @Override
+    public <S extends Anime> Flux<S> saveAll(final Iterable<S> entities) {
+        final Map<Integer, List<S>> inserts = new TreeMap<>();
+        final Map<Integer, List<S>> updates = new TreeMap<>();
+        for (S entity : entities) {
+            if (entity.getId() == null) {
+                inserts.computeIfAbsent(animeShards.shardOfName(entity.getName()), shard -> new ArrayList<>()).add(entity);
+            } else {
+                updates.computeIfAbsent(animeShards.shardOf(entity.getId()), shard -> new ArrayList<>()).add(entity);
+            }
+        }
+
+        return Flux.fromIterable(shards)
+                .filter(shard -> inserts.containsKey(shard.index) || updates.containsKey(shard.index))
+                .flatMap(shard -> insert(shard, inserts.getOrDefault(shard.index, List.of()))
+                        .concatWith(update(shard, updates.getOrDefault(shard.index, List.of())))
+                        .as(shard.newTransaction::transactional));
+    }
+
+    @Override
+    public <S extends Anime> Flux<S> saveAll(final Publisher<S> entityStream) {
+        return Flux.from(entityStream).collectList().flatMapMany(this::saveAll);
+    }
+
+    @Override
+    public Mono<Anime> findById(final Integer id) {
+        return shardOf(id).databaseClient.execute(FIND_BY_ID)
+                .bind("id", id)
+                .map(ShardedAnimeRepository::toAnime)
+                .one();
+    }
+
+    @Override
+    public Mono<Anime> findById(final Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(final Integer id) {
+        return shardOf(id).databaseClient.execute(EXISTS_BY_ID)
+                .bind("id", id)
+                .map(row -> row.get(0, Boolean.class))
+                .one();
+    }
+
+    @Override
+    public Mono<Boolean> existsById(final Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<Anime> findAll() {
+        return mergeOrderedById(shard -> shard.databaseClient.execute(FIND_ALL)
+                .map(ShardedAnimeRepository::toAnime)
+                .all());
+    }
+
+    @Override
+    public Flux<Anime> findPageAfter(final Integer afterId, final int size) {
+        return mergeOrderedById(shard -> shard.databaseClient.execute(FIND_PAGE_AFTER)
+                .bind("afterId", afterId)
+                .bind("size", size)
+                .map(ShardedAnimeRepository::toAnime)
+                .all())
+                .take(size);
+    }
+
+    @Override
+    public Flux<Anime> findAllById(final Iterable<Integer> ids) {
+        final Map<Integer, List<Integer>> idsByShard = groupByShard(ids);
+        return mergeOrderedById(shard -> {
+            final List<Integer> shardIds = idsByShard.get(shard.index);
+            if (shardIds == null) {
+                return Flux.empty();
+            }
+            return shard.databaseClient.execute(FIND_BY_IDS)
+                    .bind("ids", shardIds.toArray(new Integer[0]))
+                    .map(ShardedAnimeRepository::toAnime)
+                    .all();
+        });
+    }
+
+    @Override
+    public Flux<Anime> findAllById(final Publisher<Integer> idStream) {
+        return Flux.from(idStream).collectList().flatMapMany(this::findAllById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return Flux.fromIterable(shards)
+                .flatMap(shard -> shard.databaseClient.execute(COUNT)
+                        .map(row -> row.get(0, Long.class))
+                        .one())
+                .reduce(0L, Long::sum);
+    }
+
+    @Override
+    public Mono<Void> deleteById(final Integer id) {
+        return deleteAllById(List.of(id));
+    }
+
+    @Override
+    public Mono<Void> deleteById(final Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(final Anime entity) {
+        return deleteById(entity.getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAll(final Iterable<? extends Anime> entities) {
+        final List<Integer> ids = new ArrayList<>();
+        entities.forEach(entity -> ids.add(entity.getId()));
+        return deleteAllById(ids);
+    }
+
+    @Override
+    public Mono<Void> deleteAll(final Publisher<? extends Anime> entityStream) {
+        return Flux.from(entityStream).collectList().flatMap(this::deleteAll);
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return Flux.fromIterable(shards)
+                .flatMap(shard -> shard.databaseClient.execute(DELETE_ALL).fetch().rowsUpdated())
+                .then();
+    }
+
+    @Override
+    public Flux<Anime> deleteByIds(final Integer[] ids) {
+        return Flux.fromIterable(groupByShard(Arrays.asList(ids)).entrySet())
+                .flatMap(entry -> shards.get(entry.getKey()).databaseClient.execute(DELETE_BY_IDS)
+                        .bind("ids", entry.getValue().toArray(new Integer[0]))
+                        .map(ShardedAnimeRepository::toAnime)
+                        .all());
+    }
+
+    @Override
+    public Flux<Anime> deleteByNamePrefix(final String prefix) {
+        return Flux.fromIterable(shards)
+                .flatMap(shard -> shard.databaseClient.execute(DELETE_BY_NAME_PREFIX)
+                        .bind("prefix", prefix)
+                        .map(ShardedAnimeRepository::toAnime)
+                        .all());
+    }
+
+    @Override
+    public Flux<Anime> renameAll(final Integer[] ids, final String[] names) {
+        return checkNamesStayOnShard(ids, names)
+                .thenMany(perShard(UPDATE_RETURNING, ids, names))
+                .flatMap(spec -> spec.map(ShardedAnimeRepository::toAnime).all());
+    }
+
+    @Override
+    public Mono<Anime> upsertByName(final String name) {
+        return upsertAllByName(new String[]{name}).next();
+    }
+
+    /**
+     * Each name goes to the shard of its normalized form, like every insert. Every name takes a local id up front;
+     * the ids of names that already exist are discarded.
+     */
+    @Override
+    public Flux<Anime> upsertAllByName(final String[] names) {
+        final Map<String, String> byNormalizedName = new LinkedHashMap<>();
+        for (String name : names) {
+            byNormalizedName.put(AnimeShards.normalizedName(name), name);
+        }
+        return byName(UPSERT_BY_NAME, byNormalizedName);
+    }
+
+    @Override
+    public Flux<Anime> insertAllByNameIfAbsent(final String[] names) {
+        final Map<String, String> byNormalizedName = new LinkedHashMap<>();
+        for (String name : names) {
+            byNormalizedName.putIfAbsent(AnimeShards.normalizedName(name), name);
+        }
+        return byName(INSERT_BY_NAME_IF_ABSENT, byNormalizedName);
+    }
+
+    public void dispose() {
+        Flux.fromIterable(shards)
+                .flatMap(shard -> shard.pool.disposeLater())
+                .then()
+                .block(Duration.ofSeconds(10));
+    }
+
+    private Flux<Anime> byName(final String sql, final Map<String, String> byNormalizedName) {
+        final Map<Integer, List<String>> namesByShard = new TreeMap<>();
+        byNormalizedName.forEach((normalized, name) ->
+                namesByShard.computeIfAbsent(animeShards.shardOfName(name), shard -> new ArrayList<>()).add(name));
+
+        return Flux.fromIterable(namesByShard.entrySet())
+                .flatMap(entry -> {
+                    final Shard shard = shards.get(entry.getKey());
+                    final List<String> shardNames = entry.getValue();
+                    return shard.databaseClient.execute(NEXT_LOCAL_IDS)
+                            .bind("count", shardNames.size())
+                            .map(row -> row.get(0, Long.class))
+                            .all()
+                            .collectList()
+                            .flatMapMany(localIds -> shard.databaseClient.execute(sql)
+                                    .bind("ids", localIds.stream().map(localId -> animeShards.idFor(localId, shard.index)).toArray(Integer[]::new))
+                                    .bind("names", shardNames.toArray(new String[0]))
+                                    .map(ShardedAnimeRepository::toAnime)
+                                    .all());
+                });
+    }
+
+    private Mono<Void> checkNamesStayOnShard(final Integer[] ids, final String[] names) {
+        final List<Integer> misplaced = new ArrayList<>();
+        for (int i = 0; i < ids.length; i++) {
+            if (animeShards.shardOf(ids[i]) != animeShards.shardOfName(names[i])) {
+                misplaced.add(ids[i]);
+            }
+        }
+        return misplaced.isEmpty()
+                ? Mono.empty()
+                : Mono.error(new DataIntegrityViolationException("Renaming animes " + misplaced + " would move their names to another shard"));
+    }
+
+    private Mono<Void> deleteAllById(final Iterable<Integer> ids) {
+        final List<Integer> all = new ArrayList<>();
+        ids.forEach(all::add);
+        return deleteByIds(all.toArray(new Integer[0])).then();
+    }
+
+    /**
+     * One statement per shard owning some of the ids, bound to that shard's ids and names; the caller picks how
+     * to read the results.
+     */
+    private Flux<DatabaseClient.GenericExecuteSpec> perShard(final String sql, final Integer[] ids, final String[] names) {
+        final Map<Integer, List<Integer>> positionsByShard = new TreeMap<>();
+        for (int i = 0; i < ids.length; i++) {
+            positionsByShard.computeIfAbsent(animeShards.shardOf(ids[i]), shard -> new ArrayList<>()).add(i);
+        }
+
+        return Flux.fromIterable(positionsByShard.entrySet())
+                .map(entry -> shards.get(entry.getKey()).databaseClient.execute(sql)
+                        .bind("ids", entry.getValue().stream().map(i -> ids[i]).toArray(Integer[]::new))
+                        .bind("names", entry.getValue().stream().map(i -> names[i]).toArray(String[]::new)));
+    }
+
+    private <S extends Anime> Flux<S> insert(final Shard shard, final List<S> entities) {
+        if (entities.isEmpty()) {
+            return Flux.empty();
+        }
+
+        return shard.databaseClient.execute(NEXT_LOCAL_IDS)
+                .bind("count", entities.size())
+                .map(row -> row.get(0, Long.class))
+                .all()
+                .collectList()
+                .flatMapMany(localIds -> {
+                    final Integer[] ids = new Integer[entities.size()];
+                    final String[] names = new String[entities.size()];
+                    for (int i = 0; i < entities.size(); i++) {
+                        ids[i] = animeShards.idFor(localIds.get(i), shard.index);
+                        names[i] = entities.get(i).getName();
+                    }
+                    return shard.databaseClient.execute(INSERT)
+                            .bind("ids", ids)
+                            .bind("names", names)
+                            .fetch()
+                            .rowsUpdated()
+                            .thenMany(Flux.range(0, entities.size())
+                                    .map(i -> {
+                                        final S entity = entities.get(i);
+                                        entity.setId(ids[i]);
+                                        return entity;
+                                    }));
+                });
+    }
+
+    private <S extends Anime> Flux<S> update(final Shard shard, final List<S> entities) {
+        if (entities.isEmpty()) {
+            return Flux.empty();
+        }
+
+        final Integer[] ids = entities.stream().map(Anime::getId).toArray(Integer[]::new);
+        final String[] names = entities.stream().map(Anime::getName).toArray(String[]::new);
+        return checkNamesStayOnShard(ids, names).thenMany(shard.databaseClient.execute(UPDATE_RETURNING)
+                .bind("ids", ids)
+                .bind("names", names)
+                .map(row -> row.get(0, Integer.class))
+                .all()
+                .collect(Collectors.toSet())
+                .flatMapMany(updated -> {
+                    final List<Integer> missing = Arrays.stream(ids).filter(id -> !updated.contains(id)).collect(Collectors.toList());
+                    if (!missing.isEmpty()) {
+                        return Flux.error(new IncorrectUpdateSemanticsDataAccessException("Animes not found for update: " + missing));
+                    }
+                    return Flux.fromIterable(entities);
+                }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Flux<Anime> mergeOrderedById(final Function<Shard, Flux<Anime>> query) {
+        final Publisher<Anime>[] perShard = shards.stream().map(query).toArray(Publisher[]::new);
+        return Flux.mergeOrdered(MERGE_PREFETCH, Comparator.comparing(Anime::getId), perShard);
+    }
+
+    private Map<Integer, List<Integer>> groupByShard(final Iterable<Integer> ids) {
+        final List<Integer> all = new ArrayList<>();
+        ids.forEach(all::add);
+        return all.stream().collect(Collectors.groupingBy(animeShards::shardOf));
+    }
+
+    private Shard shardOf(final Integer id) {
+        return shards.get(animeShards.shardOf(id));
+    }
+
+    private static Anime toAnime(final Row row, final RowMetadata metadata) {
+        return new Anime(row.get("id", Integer.class), row.get("name", String.class));
+    }
+
+    private static class Shard {
+        private final int index;
+        private final ConnectionPool pool;
+        private final DatabaseClient databaseClient;
+        private final TransactionalOperator newTransaction;
+
+        Shard(final int index, final ConnectionPool pool) {
+            this.index = index;
+            this.pool = pool;
+            this.databaseClient = DatabaseClient.create(pool);
+            this.newTransaction = TransactionalOperator.create(new R2dbcTransactionManager(pool),
+                    new DefaultTransactionDefinition(TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        }
+    }
+}
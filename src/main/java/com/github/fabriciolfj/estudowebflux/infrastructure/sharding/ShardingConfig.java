@@ -0,0 +1,40 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.sharding;
+
+import com.github.fabriciolfj.estudowebflux.infrastructure.idempotency.IdempotencyProperties;
+import com.github.fabriciolfj.estudowebflux.infrastructure.outbox.OutboxProperties;
+import com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc.R2dbcPools;
+import io.r2dbc.pool.ConnectionPool;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Puts {@link ShardedAnimeRepository} in front of the Spring Data generated repository. The users table stays
+ * on the database configured in {@code spring.r2dbc.*}.
+ * <p>
+ * Shard writes commit in their own transactions, never in the caller's {@code @Transactional} on that database,
+ * so the outbox and idempotency rows written there could not commit atomically with them: startup fails unless
+ * {@code app.outbox.enabled} and {@code app.idempotency.enabled} are off.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "app.sharding", name = "enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean(destroyMethod = "dispose")
+    @Primary
+    public ShardedAnimeRepository shardedAnimeRepository(final ShardingProperties properties, final OutboxProperties outboxProperties,
+                                                         final IdempotencyProperties idempotencyProperties) {
+        if (outboxProperties.isEnabled() || idempotencyProperties.isEnabled()) {
+            throw new IllegalStateException("app.sharding.enabled requires app.outbox.enabled=false and app.idempotency.enabled=false: "
+                    + "shard writes commit in their own transactions, so outbox and idempotency rows cannot commit atomically with them");
+        }
+        final List<ConnectionPool> pools = properties.getShards().stream()
+                .map(shard -> R2dbcPools.pool(shard.getUrl(), shard.getUsername(), shard.getPassword(), properties.getPool()))
+                .collect(Collectors.toList());
+        return new ShardedAnimeRepository(pools);
+    }
+}
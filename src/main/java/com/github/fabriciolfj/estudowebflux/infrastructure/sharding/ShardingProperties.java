@@ -0,0 +1,27 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.sharding;
+
+import com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc.R2dbcPools;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.sharding")
+public class ShardingProperties {
+
+    private boolean enabled;
+    /**
+     * Order matters: the position of a shard in this list is part of every id stored on it.
+     */
+    private List<Shard> shards = new ArrayList<>();
+    private R2dbcPools.Settings pool = new R2dbcPools.Settings();
+
+    @Data
+    public static class Shard {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.shutdown;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.r2dbc.spi.Closeable;
+import io.r2dbc.spi.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs on {@link ContextClosedEvent}, before the web server lifecycle is stopped: readiness flips to
+ * {@link ReadinessState#REFUSING_TRAFFIC}, new requests start getting 503 and the in-flight ones get
+ * {@code app.shutdown.drain-timeout} to finish. Only then the R2DBC pool is closed.
+ */
+@Slf4j
+@Component
+public class GracefulShutdownCoordinator implements ApplicationListener<ContextClosedEvent> {
+
+    private final ApplicationContext applicationContext;
+    private final InFlightRequests inFlightRequests;
+    private final GracefulShutdownProperties properties;
+    private final ObjectProvider<ConnectionFactory> connectionFactory;
+    private final Counter drained;
+    private final Counter aborted;
+
+    public GracefulShutdownCoordinator(final ApplicationContext applicationContext, final InFlightRequests inFlightRequests,
+                                       final GracefulShutdownProperties properties,
+                                       final ObjectProvider<ConnectionFactory> connectionFactory,
+                                       final MeterRegistry meterRegistry) {
+        this.applicationContext = applicationContext;
+        this.inFlightRequests = inFlightRequests;
+        this.properties = properties;
+        this.connectionFactory = connectionFactory;
+        this.drained = Counter.builder("http.server.shutdown.requests")
+                .tag("outcome", "drained")
+                .register(meterRegistry);
+        this.aborted = Counter.builder("http.server.shutdown.requests")
+                .tag("outcome", "aborted")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void onApplicationEvent(final ContextClosedEvent event) {
+        if (event.getApplicationContext() != applicationContext) {
+            return;
+        }
+
+        AvailabilityChangeEvent.publish(applicationContext, ReadinessState.REFUSING_TRAFFIC);
+        inFlightRequests.startDraining();
+
+        final int pending = inFlightRequests.count();
+        log.info("Graceful shutdown started, waiting up to {} for {} in-flight requests", properties.getDrainTimeout(), pending);
+
+        final int remaining = awaitDrained();
+        drained.increment(Math.max(pending - remaining, 0));
+        aborted.increment(remaining);
+        log.info("Graceful shutdown drained {} requests, {} aborted", Math.max(pending - remaining, 0), remaining);
+
+        closeConnectionPool();
+    }
+
+    private int awaitDrained() {
+        try {
+            return inFlightRequests.awaitDrained(properties.getDrainTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return inFlightRequests.count();
+        }
+    }
+
+    private void closeConnectionPool() {
+        final ConnectionFactory factory = connectionFactory.getIfAvailable();
+        if (!(factory instanceof Closeable)) {
+            return;
+        }
+
+        try {
+            Mono.from(((Closeable) factory).close()).block(properties.getPoolCloseTimeout());
+            log.info("R2DBC connection pool closed");
+        } catch (RuntimeException e) {
+            log.warn("Fail closing R2DBC connection pool: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.shutdown;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "app.shutdown")
+public class GracefulShutdownProperties {
+
+    private Duration drainTimeout = Duration.ofSeconds(25);
+    private Duration poolCloseTimeout = Duration.ofSeconds(5);
+    private List<String> exemptPaths = List.of("/actuator/health");
+}
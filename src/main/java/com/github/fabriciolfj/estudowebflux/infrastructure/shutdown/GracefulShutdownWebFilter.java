@@ -0,0 +1,56 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.shutdown;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class GracefulShutdownWebFilter implements WebFilter {
+
+    private final InFlightRequests inFlightRequests;
+    private final GracefulShutdownProperties properties;
+    private final Counter rejected;
+
+    public GracefulShutdownWebFilter(final InFlightRequests inFlightRequests, final GracefulShutdownProperties properties,
+                                     final MeterRegistry meterRegistry) {
+        this.inFlightRequests = inFlightRequests;
+        this.properties = properties;
+        this.rejected = Counter.builder("http.server.shutdown.requests")
+                .tag("outcome", "rejected")
+                .register(meterRegistry);
+        Gauge.builder("http.server.inflight", inFlightRequests, InFlightRequests::count)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        if (isExempt(exchange)) {
+            return chain.filter(exchange);
+        }
+
+        if (!inFlightRequests.tryEnter()) {
+            rejected.increment();
+            exchange.getResponse().setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            exchange.getResponse().getHeaders().set(HttpHeaders.CONNECTION, "close");
+            return exchange.getResponse().setComplete();
+        }
+
+        return chain.filter(exchange)
+                .doFinally(signal -> inFlightRequests.exit());
+    }
+
+    private boolean isExempt(final ServerWebExchange exchange) {
+        final String path = exchange.getRequest().getPath().pathWithinApplication().value();
+        return properties.getExemptPaths().stream().anyMatch(path::startsWith);
+    }
+}
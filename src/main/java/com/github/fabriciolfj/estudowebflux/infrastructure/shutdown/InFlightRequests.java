@@ -0,0 +1,66 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.shutdown;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts requests whose reactive pipeline has not terminated yet and, once draining starts,
+ * refuses new ones so the count can only go down.
+ */
+@Component
+public class InFlightRequests {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Object drainedMonitor = new Object();
+    private volatile boolean draining;
+
+    public boolean tryEnter() {
+        inFlight.incrementAndGet();
+        if (draining) {
+            exit();
+            return false;
+        }
+        return true;
+    }
+
+    public void exit() {
+        if (inFlight.decrementAndGet() == 0 && draining) {
+            synchronized (drainedMonitor) {
+                drainedMonitor.notifyAll();
+            }
+        }
+    }
+
+    public void startDraining() {
+        draining = true;
+    }
+
+    public boolean isDraining() {
+        return draining;
+    }
+
+    public int count() {
+        return inFlight.get();
+    }
+
+    /**
+     * Blocks the calling thread until every in-flight request finished or the timeout elapsed.
+     * Meant for the shutdown thread only, never for an event loop.
+     *
+     * @return the number of requests still running when the wait ended
+     */
+    public int awaitDrained(final Duration timeout) throws InterruptedException {
+        final long deadline = System.nanoTime() + timeout.toNanos();
+        synchronized (drainedMonitor) {
+            long remaining = deadline - System.nanoTime();
+            while (inFlight.get() > 0 && remaining > 0) {
+                TimeUnit.NANOSECONDS.timedWait(drainedMonitor, remaining);
+                remaining = deadline - System.nanoTime();
+            }
+        }
+        return inFlight.get();
+    }
+}
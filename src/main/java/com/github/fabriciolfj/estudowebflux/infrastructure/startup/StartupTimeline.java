@@ -0,0 +1,68 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.startup;
+
+import java.lang.management.ManagementFactory;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Boot 2.3 has no {@code ApplicationStartup}, so this keeps the same kind of data by hand:
+ * the time each {@link org.springframework.boot.SpringApplicationRunListener} phase was reached
+ * and how long each bean took from instantiation to the end of its initialization.
+ */
+public class StartupTimeline {
+
+    private final long jvmStartMillis = ManagementFactory.getRuntimeMXBean().getStartTime();
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> phases = new LinkedHashMap<>();
+    private final Map<String, Long> beanStarts = new ConcurrentHashMap<>();
+    private final Map<String, Long> beanDurations = new ConcurrentHashMap<>();
+
+    public synchronized void phase(final String name) {
+        phases.put(name, elapsedMillis());
+    }
+
+    public synchronized Map<String, Long> getPhases() {
+        return new LinkedHashMap<>(phases);
+    }
+
+    void beanStarted(final String beanName) {
+        beanStarts.putIfAbsent(beanName, System.nanoTime());
+    }
+
+    void beanFinished(final String beanName) {
+        final Long start = beanStarts.remove(beanName);
+        if (start != null) {
+            beanDurations.put(beanName, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    public List<Map.Entry<String, Long>> slowestBeans(final int limit) {
+        return beanDurations.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    public long elapsedMillis() {
+        return (System.nanoTime() - startNanos) / 1_000_000;
+    }
+
+    public long sinceJvmStartMillis() {
+        return System.currentTimeMillis() - jvmStartMillis;
+    }
+
+    public String report(final int topBeans) {
+        final StringBuilder report = new StringBuilder("Startup timeline (ms since SpringApplication.run):");
+        getPhases().forEach((phase, millis) -> report.append(System.lineSeparator())
+                .append(String.format("  %-22s %6d", phase, millis)));
+        report.append(System.lineSeparator()).append(String.format("  %-22s %6d", "since JVM start", sinceJvmStartMillis()));
+        report.append(System.lineSeparator()).append("Slowest beans (ms, includes dependencies created on the way):");
+        slowestBeans(topBeans).forEach(bean -> report.append(System.lineSeparator())
+                .append(String.format("  %6d  %s", bean.getValue(), bean.getKey())));
+        return report.toString();
+    }
+}
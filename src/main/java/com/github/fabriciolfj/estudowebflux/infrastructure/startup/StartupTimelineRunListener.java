@@ -0,0 +1,100 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessor;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.SpringApplicationRunListener;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Registered through {@code META-INF/spring.factories}. Does nothing unless
+ * {@code app.startup.timeline.enabled} is true (the {@code startup} profile turns it on).
+ */
+@Slf4j
+public class StartupTimelineRunListener implements SpringApplicationRunListener, Ordered {
+
+    static final String ENABLED = "app.startup.timeline.enabled";
+    static final String TOP_BEANS = "app.startup.timeline.top-beans";
+    static final String EXIT_ON_READY = "app.startup.exit-on-ready";
+
+    private final StartupTimeline timeline = new StartupTimeline();
+    private boolean enabled;
+
+    public StartupTimelineRunListener(final SpringApplication application, final String[] args) {
+    }
+
+    @Override
+    public void starting() {
+        timeline.phase("starting");
+    }
+
+    @Override
+    public void environmentPrepared(final ConfigurableEnvironment environment) {
+        enabled = environment.getProperty(ENABLED, Boolean.class, false);
+        timeline.phase("environmentPrepared");
+    }
+
+    @Override
+    public void contextPrepared(final ConfigurableApplicationContext context) {
+        if (!enabled) {
+            return;
+        }
+        timeline.phase("contextPrepared");
+        context.getBeanFactory().registerSingleton("startupTimeline", timeline);
+        context.getBeanFactory().addBeanPostProcessor(new BeanTimingPostProcessor(timeline));
+    }
+
+    @Override
+    public void contextLoaded(final ConfigurableApplicationContext context) {
+        timeline.phase("contextLoaded");
+    }
+
+    @Override
+    public void started(final ConfigurableApplicationContext context) {
+        timeline.phase("started");
+    }
+
+    @Override
+    public void running(final ConfigurableApplicationContext context) {
+        timeline.phase("running");
+        if (!enabled) {
+            return;
+        }
+
+        log.info(timeline.report(context.getEnvironment().getProperty(TOP_BEANS, Integer.class, 10)));
+
+        if (context.getEnvironment().getProperty(EXIT_ON_READY, Boolean.class, false)) {
+            System.exit(SpringApplication.exit(context));
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        // after EventPublishingRunListener, so application-{profile}.yml is already loaded in environmentPrepared
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    private static class BeanTimingPostProcessor implements InstantiationAwareBeanPostProcessor {
+
+        private final StartupTimeline timeline;
+
+        BeanTimingPostProcessor(final StartupTimeline timeline) {
+            this.timeline = timeline;
+        }
+
+        @Override
+        public Object postProcessBeforeInstantiation(final Class<?> beanClass, final String beanName) throws BeansException {
+            timeline.beanStarted(beanName);
+            return null;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(final Object bean, final String beanName) throws BeansException {
+            timeline.beanFinished(beanName);
+            return bean;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.token;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.ReactiveAuthenticationManager;
+import org.springframework.security.web.authentication.preauth.PreAuthenticatedAuthenticationToken;
+import org.springframework.security.web.server.authentication.AuthenticationWebFilter;
+import org.springframework.security.web.server.authentication.HttpStatusServerEntryPoint;
+import org.springframework.security.web.server.authentication.ServerAuthenticationEntryPointFailureHandler;
+import reactor.core.publisher.Mono;
+
+/**
+ * Authenticates {@code Authorization: Bearer <token>} with {@link TokenService}; requests without a bearer token
+ * pass through to the other mechanisms, an invalid one is answered 401.
+ */
+public class BearerTokenAuthenticationFilter extends AuthenticationWebFilter {
+
+    private static final String PREFIX = "Bearer ";
+
+    public BearerTokenAuthenticationFilter(final TokenService tokenService) {
+        super(authenticationManager(tokenService));
+        setServerAuthenticationConverter(exchange -> {
+            final String header = exchange.getRequest().getHeaders().getFirst(HttpHeaders.AUTHORIZATION);
+            if (header == null || !header.regionMatches(true, 0, PREFIX, 0, PREFIX.length())) {
+                return Mono.empty();
+            }
+            final String token = header.substring(PREFIX.length()).trim();
+            return Mono.just(new PreAuthenticatedAuthenticationToken(token, token));
+        });
+        setAuthenticationFailureHandler(new ServerAuthenticationEntryPointFailureHandler(new HttpStatusServerEntryPoint(HttpStatus.UNAUTHORIZED)));
+    }
+
+    private static ReactiveAuthenticationManager authenticationManager(final TokenService tokenService) {
+        return authentication -> Mono.fromCallable(() -> tokenService.verify((String) authentication.getCredentials()));
+    }
+}
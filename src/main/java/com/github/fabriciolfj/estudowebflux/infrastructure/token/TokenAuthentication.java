@@ -0,0 +1,46 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.token;
+
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * A request authenticated by a bearer token: user and authorities come from the token's claims.
+ */
+public class TokenAuthentication extends AbstractAuthenticationToken {
+
+    private final UserDetails principal;
+    private final String tokenId;
+    private final Instant expiresAt;
+
+    public TokenAuthentication(final String username, final Collection<? extends GrantedAuthority> authorities,
+                               final String tokenId, final Instant expiresAt) {
+        super(authorities);
+        this.principal = User.withUsername(username).password("").authorities(authorities).build();
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+        setAuthenticated(true);
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public UserDetails getPrincipal() {
+        return principal;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+}
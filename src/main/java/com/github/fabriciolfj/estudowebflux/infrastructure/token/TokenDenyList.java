@@ -0,0 +1,30 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.token;
+
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of revoked tokens. An id is only kept until its token would have expired anyway, so the list never holds
+ * more than the revocations of one ttl. Local to the instance.
+ */
+@Component
+public class TokenDenyList {
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+
+    public void revoke(final String tokenId, final Instant expiresAt, final Instant now) {
+        revoked.values().removeIf(expiry -> expiry < now.getEpochSecond());
+        revoked.put(tokenId, expiresAt.getEpochSecond());
+    }
+
+    public boolean isRevoked(final String tokenId) {
+        return revoked.containsKey(tokenId);
+    }
+
+    public int size() {
+        return revoked.size();
+    }
+}
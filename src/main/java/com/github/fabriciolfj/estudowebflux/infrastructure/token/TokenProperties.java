@@ -0,0 +1,19 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.token;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.token")
+public class TokenProperties {
+
+    /**
+     * Base64 HMAC-SHA256 key of at least 32 bytes. Empty generates one per start: tokens then do not survive a
+     * restart and are not accepted by other instances.
+     */
+    private String secret = "";
+    private Duration ttl = Duration.ofMinutes(15);
+    private Duration clockSkew = Duration.ofSeconds(30);
+}
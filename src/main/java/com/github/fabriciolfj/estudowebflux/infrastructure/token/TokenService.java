@@ -0,0 +1,165 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.token;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Issues and checks HS256 JWTs carrying the user and its authorities, so a bearer request costs one HMAC and no
+ * database or BCrypt call. Revoked ids are rejected through {@link TokenDenyList}.
+ */
+@Slf4j
+@Component
+public class TokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = ENCODER.encodeToString("{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final TokenProperties properties;
+    private final ObjectMapper objectMapper;
+    private final TokenDenyList denyList;
+    private final Clock clock;
+    private final ThreadLocal<Mac> mac;
+
+    @Autowired
+    public TokenService(final TokenProperties properties, final ObjectMapper objectMapper, final TokenDenyList denyList) {
+        this(properties, objectMapper, denyList, Clock.systemUTC());
+    }
+
+    TokenService(final TokenProperties properties, final ObjectMapper objectMapper, final TokenDenyList denyList, final Clock clock) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.denyList = denyList;
+        this.clock = clock;
+
+        final SecretKeySpec key = new SecretKeySpec(secret(properties), ALGORITHM);
+        this.mac = ThreadLocal.withInitial(() -> {
+            try {
+                final Mac instance = Mac.getInstance(ALGORITHM);
+                instance.init(key);
+                return instance;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 is not available", e);
+            }
+        });
+    }
+
+    public IssuedToken issue(final Authentication authentication) {
+        final Instant now = clock.instant();
+        final Instant expiresAt = now.plus(properties.getTtl());
+        final ObjectNode claims = objectMapper.createObjectNode()
+                .put("sub", authentication.getName())
+                .put("jti", newTokenId())
+                .put("iat", now.getEpochSecond())
+                .put("exp", expiresAt.getEpochSecond());
+        authentication.getAuthorities().forEach(authority -> claims.withArray("auth").add(authority.getAuthority()));
+
+        try {
+            final String unsigned = HEADER + "." + ENCODER.encodeToString(objectMapper.writeValueAsBytes(claims));
+            return new IssuedToken(unsigned + "." + ENCODER.encodeToString(sign(unsigned)), expiresAt);
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not write token claims", e);
+        }
+    }
+
+    /**
+     * @throws BadCredentialsException when the token is malformed, forged, expired or revoked
+     */
+    public TokenAuthentication verify(final String token) {
+        final int firstDot = token.indexOf('.');
+        final int lastDot = token.lastIndexOf('.');
+        if (firstDot < 0 || firstDot == lastDot || !HEADER.equals(token.substring(0, firstDot))) {
+            throw invalidToken();
+        }
+
+        final JsonNode claims;
+        try {
+            if (!MessageDigest.isEqual(sign(token.substring(0, lastDot)), DECODER.decode(token.substring(lastDot + 1)))) {
+                throw invalidToken();
+            }
+            claims = objectMapper.readTree(DECODER.decode(token.substring(firstDot + 1, lastDot)));
+        } catch (IllegalArgumentException | IOException e) {
+            throw invalidToken();
+        }
+
+        final Instant expiresAt = Instant.ofEpochSecond(claims.path("exp").asLong());
+        if (clock.instant().isAfter(expiresAt.plus(properties.getClockSkew()))) {
+            throw new BadCredentialsException("Token expired");
+        }
+        final String tokenId = claims.path("jti").asText();
+        if (denyList.isRevoked(tokenId)) {
+            throw new BadCredentialsException("Token revoked");
+        }
+
+        final List<GrantedAuthority> authorities = new ArrayList<>();
+        claims.path("auth").forEach(authority -> authorities.add(new SimpleGrantedAuthority(authority.asText())));
+        return new TokenAuthentication(claims.path("sub").asText(), authorities, tokenId, expiresAt);
+    }
+
+    public void revoke(final TokenAuthentication authentication) {
+        denyList.revoke(authentication.getTokenId(), authentication.getExpiresAt().plus(properties.getClockSkew()), clock.instant());
+    }
+
+    private byte[] sign(final String unsigned) {
+        return mac.get().doFinal(unsigned.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * A new exception per rejected token: the input is client controlled, and a shared instance would collect a
+     * suppressed exception for every request that passes a checkpoint with it.
+     */
+    private static BadCredentialsException invalidToken() {
+        return new BadCredentialsException("Invalid token");
+    }
+
+    private static String newTokenId() {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        return Long.toHexString(random.nextLong()) + Long.toHexString(random.nextLong());
+    }
+
+    private static byte[] secret(final TokenProperties properties) {
+        if (!StringUtils.hasText(properties.getSecret())) {
+            log.warn("app.token.secret is not set, tokens are signed with a per-start key");
+            final byte[] secret = new byte[32];
+            new SecureRandom().nextBytes(secret);
+            return secret;
+        }
+
+        final byte[] secret = Base64.getDecoder().decode(properties.getSecret());
+        if (secret.length < 32) {
+            throw new IllegalStateException("app.token.secret must decode to at least 32 bytes");
+        }
+        return secret;
+    }
+
+    @Value
+    public static class IssuedToken {
+        String token;
+        Instant expiresAt;
+    }
+}
@@ -0,0 +1,105 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.AppSchedulers;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Appends spans to {@code app.tracing.file}, one JSON object per line with OpenTelemetry's field names
+ * ({@code traceId}, {@code spanId}, {@code startTimeUnixNano}, ...). {@link #export(Span)} only queues; the file
+ * is written on the blocking-io scheduler every {@code app.tracing.file-flush-interval}. When more than
+ * {@code app.tracing.memory-capacity} spans are waiting, new ones are dropped.
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter, InitializingBean, DisposableBean {
+
+    private final TracingProperties properties;
+    private final AppSchedulers appSchedulers;
+    private final ObjectMapper objectMapper;
+    private final Queue<Span> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingCount = new AtomicInteger();
+    private PrintStream output;
+    private Disposable schedule;
+
+    public FileSpanExporter(final TracingProperties properties, final AppSchedulers appSchedulers, final ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.appSchedulers = appSchedulers;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public void export(final Span span) {
+        if (pendingCount.incrementAndGet() > properties.getMemoryCapacity()) {
+            pendingCount.decrementAndGet();
+            return;
+        }
+        pending.add(span);
+    }
+
+    @Override
+    public void afterPropertiesSet() throws FileNotFoundException {
+        final File file = new File(properties.getFile());
+        if (file.getAbsoluteFile().getParentFile() != null) {
+            file.getAbsoluteFile().getParentFile().mkdirs();
+        }
+        output = new PrintStream(new FileOutputStream(file, true), false);
+
+        schedule = Flux.interval(properties.getFileFlushInterval())
+                .onBackpressureDrop()
+                .publishOn(appSchedulers.blockingIo())
+                .subscribe(tick -> flush(), e -> log.error("Span export stopped", e));
+    }
+
+    @Override
+    public void destroy() {
+        if (schedule != null) {
+            schedule.dispose();
+            flush();
+            output.close();
+        }
+    }
+
+    private synchronized void flush() {
+        Span span;
+        while ((span = pending.poll()) != null) {
+            pendingCount.decrementAndGet();
+            try {
+                output.println(objectMapper.writeValueAsString(toJson(span)));
+            } catch (JsonProcessingException e) {
+                log.warn("Could not write span {}", span.getName(), e);
+            }
+        }
+        output.flush();
+    }
+
+    private static Map<String, Object> toJson(final Span span) {
+        final Map<String, Object> json = new LinkedHashMap<>();
+        json.put("traceId", span.getTraceId());
+        json.put("spanId", span.getSpanId());
+        json.put("parentSpanId", span.getParentSpanId());
+        json.put("name", span.getName());
+        json.put("kind", "SPAN_KIND_" + span.getKind().name());
+        json.put("startTimeUnixNano", span.getStartEpochNanos());
+        json.put("endTimeUnixNano", span.getEndEpochNanos());
+        json.put("attributes", span.getAttributes());
+        json.put("status", span.getError() == null
+                ? Map.of("code", "STATUS_CODE_UNSET")
+                : Map.of("code", "STATUS_CODE_ERROR", "message", span.getError()));
+        return json;
+    }
+}
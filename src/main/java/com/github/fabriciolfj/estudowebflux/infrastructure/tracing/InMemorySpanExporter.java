@@ -0,0 +1,37 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keeps the last {@code capacity} spans, for tests and local inspection.
+ */
+public class InMemorySpanExporter implements SpanExporter {
+
+    private final int capacity;
+    private final ConcurrentLinkedDeque<Span> spans = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    public InMemorySpanExporter(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void export(final Span span) {
+        spans.addLast(span);
+        if (size.incrementAndGet() > capacity && spans.pollFirst() != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    public List<Span> getFinishedSpans() {
+        return new ArrayList<>(spans);
+    }
+
+    public void reset() {
+        spans.clear();
+        size.set(0);
+    }
+}
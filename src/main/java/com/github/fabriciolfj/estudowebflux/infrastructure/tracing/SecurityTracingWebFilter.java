@@ -0,0 +1,28 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Runs right after Spring Security's {@code WebFilterChainProxy} (order -100) and closes the {@code security}
+ * span. Requests that security rejects never get here; {@link TracingWebFilter} closes the span for them.
+ */
+@Component
+@Order(-99)
+@ConditionalOnProperty(prefix = "app.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SecurityTracingWebFilter implements WebFilter {
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final Span security = exchange.getAttribute(TracingWebFilter.SECURITY_SPAN_ATTRIBUTE);
+        if (security != null) {
+            security.end();
+        }
+        return chain.filter(exchange);
+    }
+}
@@ -0,0 +1,128 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+import reactor.util.context.Context;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A timed operation in a trace, with W3C trace-context ids. The current span travels in the Reactor {@link Context}
+ * under this class, which is what keeps parent/child links intact across scheduler hops.
+ */
+public class Span {
+
+    public enum Kind {
+        SERVER, INTERNAL, CLIENT
+    }
+
+    private final Tracer tracer;
+    private final String traceId;
+    private final String spanId;
+    private final String parentSpanId;
+    private final Kind kind;
+    private final boolean sampled;
+    private final long startEpochNanos;
+    private final long startNanoTime;
+    private final Map<String, String> attributes = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final AtomicBoolean ended = new AtomicBoolean();
+    private volatile String name;
+    private volatile String error;
+    private volatile long endEpochNanos;
+
+    Span(final Tracer tracer, final String traceId, final String spanId, final String parentSpanId, final String name,
+         final Kind kind, final boolean sampled) {
+        this.tracer = tracer;
+        this.traceId = traceId;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.name = name;
+        this.kind = kind;
+        this.sampled = sampled;
+        this.startEpochNanos = System.currentTimeMillis() * 1_000_000;
+        this.startNanoTime = System.nanoTime();
+    }
+
+    public static Span current(final Context context) {
+        return context.getOrDefault(Span.class, null);
+    }
+
+    public Span child(final String name, final Kind kind) {
+        return tracer.startSpan(name, kind, this);
+    }
+
+    public Span name(final String name) {
+        this.name = name;
+        return this;
+    }
+
+    public Span attribute(final String key, final Object value) {
+        if (sampled && value != null) {
+            attributes.put(key, String.valueOf(value));
+        }
+        return this;
+    }
+
+    public void error(final Throwable throwable) {
+        this.error = throwable.getClass().getName() + (throwable.getMessage() == null ? "" : ": " + throwable.getMessage());
+    }
+
+    public void end() {
+        if (ended.compareAndSet(false, true)) {
+            endEpochNanos = startEpochNanos + (System.nanoTime() - startNanoTime);
+            if (sampled) {
+                tracer.export(this);
+            }
+        }
+    }
+
+    public String traceparent() {
+        return "00-" + traceId + "-" + spanId + (sampled ? "-01" : "-00");
+    }
+
+    public String getTraceId() {
+        return traceId;
+    }
+
+    public String getSpanId() {
+        return spanId;
+    }
+
+    public String getParentSpanId() {
+        return parentSpanId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public boolean isSampled() {
+        return sampled;
+    }
+
+    public long getStartEpochNanos() {
+        return startEpochNanos;
+    }
+
+    public long getEndEpochNanos() {
+        return endEpochNanos;
+    }
+
+    public Map<String, String> getAttributes() {
+        synchronized (attributes) {
+            return new LinkedHashMap<>(attributes);
+        }
+    }
+
+    /**
+     * Null when the span ended normally.
+     */
+    public String getError() {
+        return error;
+    }
+}
@@ -0,0 +1,12 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+/**
+ * Receives sampled spans as they end, on the thread that ended them: implementations must not block.
+ */
+public interface SpanExporter {
+
+    SpanExporter NONE = span -> {
+    };
+
+    void export(Span span);
+}
@@ -0,0 +1,55 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.Pointcut;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.StaticMethodMatcher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.lang.reflect.Method;
+
+/**
+ * Span named {@code Class.method} around public {@link Mono}/{@link Flux} methods of this application's
+ * {@link RestController}s and {@link Service}s. The span covers the subscription, not the assembly call.
+ */
+class StageTracingInterceptor implements MethodInterceptor {
+
+    private static final String BASE_PACKAGE = "com.github.fabriciolfj.estudowebflux";
+
+    static final Pointcut POINTCUT = new ComposablePointcut(StageTracingInterceptor::isStage, new StaticMethodMatcher() {
+        @Override
+        public boolean matches(final Method method, final Class<?> targetClass) {
+            return Mono.class.equals(method.getReturnType()) || Flux.class.equals(method.getReturnType());
+        }
+    });
+
+    private final ObjectProvider<Tracer> tracer;
+
+    StageTracingInterceptor(final ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Object invoke(final MethodInvocation invocation) throws Throwable {
+        final Object result = invocation.proceed();
+        final String name = invocation.getMethod().getDeclaringClass().getSimpleName() + "." + invocation.getMethod().getName();
+        if (result instanceof Mono) {
+            return tracer.getObject().trace(name, (Mono<?>) result);
+        }
+        if (result instanceof Flux) {
+            return tracer.getObject().trace(name, (Flux<?>) result);
+        }
+        return result;
+    }
+
+    private static boolean isStage(final Class<?> type) {
+        return type.getName().startsWith(BASE_PACKAGE)
+                && (AnnotatedElementUtils.hasAnnotation(type, RestController.class) || AnnotatedElementUtils.hasAnnotation(type, Service.class));
+    }
+}
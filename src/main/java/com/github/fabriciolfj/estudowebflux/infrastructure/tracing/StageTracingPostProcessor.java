@@ -0,0 +1,17 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Proxies the beans matched by {@link StageTracingInterceptor#POINTCUT}, before any advisor they already have.
+ */
+class StageTracingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+
+    StageTracingPostProcessor(final ObjectProvider<Tracer> tracer) {
+        this.advisor = new DefaultPointcutAdvisor(StageTracingInterceptor.POINTCUT, new StageTracingInterceptor(tracer));
+        setBeforeExistingAdvisors(true);
+        setProxyTargetClass(true);
+    }
+}
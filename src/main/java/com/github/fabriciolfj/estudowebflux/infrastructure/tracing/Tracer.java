@@ -0,0 +1,91 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Starts spans and links them through the Reactor {@link reactor.util.context.Context}: {@link #trace(String, Mono)}
+ * reads the parent from the subscriber's context and puts the new span in the context seen by the wrapped
+ * publisher, so the link survives {@code publishOn}/{@code subscribeOn} hops where a thread-local would not.
+ * Unsampled traces still get ids (for {@code traceparent}) but no child spans.
+ */
+@Component
+public class Tracer {
+
+    private static final Pattern TRACEPARENT = Pattern.compile("00-([0-9a-f]{32})-([0-9a-f]{16})-([0-9a-f]{2})");
+    private static final String INVALID_TRACE_ID = "00000000000000000000000000000000";
+    private static final String INVALID_SPAN_ID = "0000000000000000";
+
+    private final TracingProperties properties;
+    private final SpanExporter exporter;
+
+    public Tracer(final TracingProperties properties, final SpanExporter exporter) {
+        this.properties = properties;
+        this.exporter = exporter;
+    }
+
+    /**
+     * Root of the local trace: continues the caller's trace and sampling decision when {@code traceparent} is
+     * valid, otherwise starts a new trace sampled at {@code app.tracing.sample-ratio}.
+     */
+    public Span startRoot(final String name, final Span.Kind kind, final String traceparent) {
+        final Matcher matcher = traceparent == null ? null : TRACEPARENT.matcher(traceparent.trim());
+        if (matcher != null && matcher.matches()
+                && !INVALID_TRACE_ID.equals(matcher.group(1)) && !INVALID_SPAN_ID.equals(matcher.group(2))) {
+            final boolean sampled = (Integer.parseInt(matcher.group(3), 16) & 1) == 1;
+            return new Span(this, matcher.group(1), newId(8), matcher.group(2), name, kind, sampled);
+        }
+
+        final boolean sampled = ThreadLocalRandom.current().nextDouble() < properties.getSampleRatio();
+        return new Span(this, newId(16), newId(8), null, name, kind, sampled);
+    }
+
+    public Span startSpan(final String name, final Span.Kind kind, final Span parent) {
+        return new Span(this, parent.getTraceId(), newId(8), parent.getSpanId(), name, kind, parent.isSampled());
+    }
+
+    public <T> Mono<T> trace(final String name, final Mono<T> mono) {
+        return Mono.deferWithContext(context -> {
+            final Span parent = Span.current(context);
+            if (parent == null || !parent.isSampled()) {
+                return mono;
+            }
+            final Span span = startSpan(name, Span.Kind.INTERNAL, parent);
+            return mono.doOnError(span::error)
+                    .doFinally(signal -> span.end())
+                    .subscriberContext(inner -> inner.put(Span.class, span));
+        });
+    }
+
+    public <T> Flux<T> trace(final String name, final Flux<T> flux) {
+        return Flux.deferWithContext(context -> {
+            final Span parent = Span.current(context);
+            if (parent == null || !parent.isSampled()) {
+                return flux;
+            }
+            final Span span = startSpan(name, Span.Kind.INTERNAL, parent);
+            return flux.doOnError(span::error)
+                    .doFinally(signal -> span.end())
+                    .subscriberContext(inner -> inner.put(Span.class, span));
+        });
+    }
+
+    void export(final Span span) {
+        exporter.export(span);
+    }
+
+    private static String newId(final int bytes) {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final StringBuilder id = new StringBuilder(bytes * 2);
+        for (int i = 0; i < bytes; i++) {
+            final int value = random.nextInt(256);
+            id.append(Character.forDigit(value >> 4, 16)).append(Character.forDigit(value & 0xf, 16));
+        }
+        return id.toString();
+    }
+}
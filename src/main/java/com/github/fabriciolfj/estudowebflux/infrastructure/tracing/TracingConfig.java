@@ -0,0 +1,36 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.AppSchedulers;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration(proxyBeanMethods = false)
+public class TracingConfig {
+
+    @Bean
+    public SpanExporter spanExporter(final TracingProperties properties, final AppSchedulers appSchedulers,
+                                     final ObjectMapper objectMapper) {
+        switch (properties.getExporter()) {
+            case MEMORY:
+                return new InMemorySpanExporter(properties.getMemoryCapacity());
+            case FILE:
+                return new FileSpanExporter(properties, appSchedulers, objectMapper);
+            default:
+                return SpanExporter.NONE;
+        }
+    }
+
+    /**
+     * Adds a span around every reactive method of our controllers and services, on top of any proxy they already
+     * have (transactions, method security).
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "app.tracing", name = {"enabled", "stage-spans"}, havingValue = "true", matchIfMissing = true)
+    public static AbstractBeanFactoryAwareAdvisingPostProcessor stageTracingPostProcessor(final ObjectProvider<Tracer> tracer) {
+        return new StageTracingPostProcessor(tracer);
+    }
+}
@@ -0,0 +1,29 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.tracing")
+public class TracingProperties {
+
+    private boolean enabled = true;
+    /**
+     * Share of new traces that are recorded. A sampled/unsampled decision arriving in {@code traceparent} is kept.
+     */
+    private double sampleRatio = 0.1;
+    /**
+     * Spans around every public reactive method of controllers and services (proxies, so off in the native image).
+     */
+    private boolean stageSpans = true;
+    private Exporter exporter = Exporter.NONE;
+    private int memoryCapacity = 10_000;
+    private String file = "logs/spans.jsonl";
+    private Duration fileFlushInterval = Duration.ofSeconds(1);
+
+    public enum Exporter {
+        NONE, MEMORY, FILE
+    }
+}
@@ -0,0 +1,67 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+import com.github.fabriciolfj.estudowebflux.infrastructure.latency.LatencyWebFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+/**
+ * Starts the request's SERVER span (continuing an incoming W3C {@code traceparent}) and a {@code security} child
+ * that {@link SecurityTracingWebFilter} ends once the Spring Security chain lets the request through. The span is
+ * renamed to the matched route when the request ends; its trace id is returned in {@code X-Trace-Id}.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 3)
+@ConditionalOnProperty(prefix = "app.tracing", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class TracingWebFilter implements WebFilter {
+
+    public static final String TRACEPARENT_HEADER = "traceparent";
+    public static final String TRACE_ID_HEADER = "X-Trace-Id";
+    static final String SECURITY_SPAN_ATTRIBUTE = TracingWebFilter.class.getName() + ".securitySpan";
+
+    private final Tracer tracer;
+
+    public TracingWebFilter(final Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    @Override
+    public Mono<Void> filter(final ServerWebExchange exchange, final WebFilterChain chain) {
+        final ServerHttpRequest request = exchange.getRequest();
+        final Span span = tracer.startRoot("HTTP " + request.getMethodValue(), Span.Kind.SERVER,
+                request.getHeaders().getFirst(TRACEPARENT_HEADER));
+        if (!span.isSampled()) {
+            return chain.filter(exchange).subscriberContext(context -> context.put(Span.class, span));
+        }
+
+        span.attribute("http.method", request.getMethodValue())
+                .attribute("http.target", request.getURI().getRawPath())
+                .attribute("net.peer.ip", request.getRemoteAddress() == null ? null : request.getRemoteAddress().getAddress().getHostAddress());
+        final Span security = span.child("security", Span.Kind.INTERNAL);
+        exchange.getAttributes().put(SECURITY_SPAN_ATTRIBUTE, security);
+        exchange.getResponse().beforeCommit(() -> {
+            exchange.getResponse().getHeaders().set(TRACE_ID_HEADER, span.getTraceId());
+            return Mono.empty();
+        });
+
+        return chain.filter(exchange)
+                .doOnError(span::error)
+                .doFinally(signal -> {
+                    security.end();
+                    final HttpStatus status = exchange.getResponse().getStatusCode();
+                    final String route = LatencyWebFilter.route(exchange);
+                    span.name(route)
+                            .attribute("http.route", route)
+                            .attribute("http.status_code", status == null ? null : status.value())
+                            .end();
+                })
+                .subscriberContext(context -> context.put(Span.class, span));
+    }
+}
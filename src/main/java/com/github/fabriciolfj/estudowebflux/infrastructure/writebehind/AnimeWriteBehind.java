@@ -0,0 +1,319 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.writebehind;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fabriciolfj.estudowebflux.api.exception.StacklessResponseStatusException;
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import com.github.fabriciolfj.estudowebflux.domain.service.AnimeService;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.AppSchedulers;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.Disposable;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Write-behind buffer for anime saves: {@link #submit(Anime)} logs the anime to the {@link WriteAheadLog} and
+ * queues it, and the caller is answered before the database sees it. A single flusher drains the queue every
+ * {@code app.write-behind.flush-interval}, or as soon as {@code batch-size} animes are waiting. Animes with an id
+ * rename the existing anime, last write per id wins ({@link AnimeService#upsertAll(List)}), and end up
+ * dead-lettered when that id does not exist; animes without one are inserted unless their name is taken
+ * ({@link AnimeService#insertAllIfAbsent(List)}), so replaying the log never duplicates or renames anything.
+ * <p>
+ * A batch that fails because the database is unavailable is retried on the next flush. After
+ * {@code max-attempts} such failures, or after any other failure, the batch is split and its animes are written
+ * one at a time: one that still fails for a reason other than an unavailable database is dead-lettered
+ * ({@link WriteAheadLog#deadLetter(String)}) instead of blocking the queue. Log segments are only deleted once every
+ * record in them was flushed or dead-lettered.
+ * Beyond {@code capacity} waiting animes, submits fail with 503. Publishes {@code anime.write-behind.buffered},
+ * {@code .flushed}, {@code .coalesced}, {@code .conflicts} (names already taken), {@code .rejected},
+ * {@code .failures} and {@code .dead-lettered}.
+ */
+@Slf4j
+@Component
+public class AnimeWriteBehind implements InitializingBean, DisposableBean {
+
+    private static final StacklessResponseStatusException.Template BUFFER_FULL = StacklessResponseStatusException.template(HttpStatus.SERVICE_UNAVAILABLE, "Write-behind buffer full");
+
+    private final AnimeService animeService;
+    private final WriteBehindProperties properties;
+    private final AppSchedulers appSchedulers;
+    private final ObjectMapper objectMapper;
+    private final Queue<Entry> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger buffered = new AtomicInteger();
+    private final DirectProcessor<Integer> batchReady = DirectProcessor.create();
+    private final FluxSink<Integer> batchReadySink = batchReady.sink();
+    private final MonoProcessor<Integer> stopRequested = MonoProcessor.create();
+    /**
+     * Completes once the flusher has stopped ticking and drained what was buffered.
+     */
+    private final MonoProcessor<Void> stopped = MonoProcessor.create();
+    private final Counter flushed;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter failures;
+    private final Counter conflicts;
+    private final Counter deadLettered;
+    /**
+     * Batch taken from the queue but not flushed yet; this and the two fields below are only touched by the flusher,
+     * including the final drain on shutdown.
+     */
+    private final List<Entry> pending = new ArrayList<>();
+    private int attempts;
+    private boolean split;
+    private WriteAheadLog wal;
+    private Disposable schedule;
+
+    public AnimeWriteBehind(final AnimeService animeService, final WriteBehindProperties properties, final AppSchedulers appSchedulers,
+                            final ObjectMapper objectMapper, final MeterRegistry meterRegistry) {
+        this.animeService = animeService;
+        this.properties = properties;
+        this.appSchedulers = appSchedulers;
+        this.objectMapper = objectMapper;
+        this.flushed = meterRegistry.counter("anime.write-behind.flushed");
+        this.coalesced = meterRegistry.counter("anime.write-behind.coalesced");
+        this.rejected = meterRegistry.counter("anime.write-behind.rejected");
+        this.failures = meterRegistry.counter("anime.write-behind.failures");
+        this.conflicts = meterRegistry.counter("anime.write-behind.conflicts");
+        this.deadLettered = meterRegistry.counter("anime.write-behind.dead-lettered");
+        Gauge.builder("anime.write-behind.buffered", buffered, AtomicInteger::get).register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public void afterPropertiesSet() throws IOException {
+        if (!isEnabled()) {
+            return;
+        }
+
+        wal = new WriteAheadLog(Paths.get(properties.getWalDirectory()), properties.isFsync(), properties.getFsyncGroupWait());
+        wal.open(this::replay);
+        if (buffered.get() > 0) {
+            log.info("Replaying {} acknowledged anime writes from {}", buffered.get(), properties.getWalDirectory());
+        }
+
+        schedule = Flux.merge(Flux.interval(properties.getFlushInterval()).map(Long::intValue), batchReady)
+                .takeUntilOther(stopRequested)
+                .onBackpressureDrop()
+                .concatMap(tick -> flush()
+                        .onErrorResume(e -> {
+                            failures.increment();
+                            log.warn("Write-behind flush of {} animes failed, retrying on the next flush", pending.size(), e);
+                            return Mono.empty();
+                        }), 1)
+                .then(Mono.defer(this::drain))
+                .subscribe(null, stopped::onError, stopped::onComplete);
+    }
+
+    /**
+     * Completes once the anime is in the log, which is when it may be acknowledged.
+     */
+    public Mono<Anime> submit(final Anime anime) {
+        return Mono.fromCallable(() -> {
+            final int waiting = buffered.incrementAndGet();
+            if (waiting > properties.getCapacity()) {
+                buffered.decrementAndGet();
+                rejected.increment();
+                throw BUFFER_FULL.get();
+            }
+            try {
+                queue.offer(new Entry(anime, wal.append(objectMapper.writeValueAsString(anime))));
+            } catch (IOException | RuntimeException e) {
+                buffered.decrementAndGet();
+                throw e;
+            }
+            if (waiting % properties.getBatchSize() == 0) {
+                batchReadySink.next(0);
+            }
+            return anime;
+        }).subscribeOn(appSchedulers.blockingIo());
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (wal == null) {
+            return;
+        }
+
+        // the drain runs on the flusher, after the flush in progress, so pending is never touched by two threads
+        stopRequested.onNext(0);
+        try {
+            stopped.block(properties.getShutdownTimeout());
+        } catch (RuntimeException e) {
+            log.warn("Write-behind did not drain within {}, {} buffered animes are replayed on the next start",
+                    properties.getShutdownTimeout(), buffered.get(), e);
+        } finally {
+            schedule.dispose();
+            wal.close();
+        }
+    }
+
+    private Mono<Void> drain() {
+        return Mono.defer(this::flush)
+                .repeat(() -> !pending.isEmpty() || !queue.isEmpty())
+                .then()
+                .onErrorResume(e -> {
+                    log.warn("Could not flush {} buffered animes on shutdown, they are replayed on the next start", buffered.get(), e);
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> flush() {
+        return Mono.fromCallable(this::nextBatch)
+                .subscribeOn(appSchedulers.blockingIo())
+                .filter(batch -> !batch.isEmpty())
+                .flatMap(batch -> split ? flushOneByOne(batch) : flushBatch(batch));
+    }
+
+    private Mono<Void> flushBatch(final List<Entry> batch) {
+        return write(batch)
+                .doOnNext(written -> {
+                    attempts = 0;
+                    complete(batch, written);
+                })
+                .doOnError(e -> split = !isUnavailable(e) || ++attempts >= properties.getMaxAttempts())
+                .then();
+    }
+
+    /**
+     * Stops at the first anime that fails because the database is unavailable; the rest stay pending and the next
+     * flush resumes one at a time.
+     */
+    private Mono<Void> flushOneByOne(final List<Entry> batch) {
+        return Flux.fromIterable(new ArrayList<>(batch))
+                .concatMap(entry -> write(List.of(entry))
+                        .doOnNext(written -> {
+                            flushed.increment(written);
+                            release(entry);
+                        })
+                        .then()
+                        .onErrorResume(e -> !isUnavailable(e), e -> deadLetter(entry, e)))
+                .then(Mono.fromRunnable(() -> {
+                    split = false;
+                    attempts = 0;
+                }));
+    }
+
+    /**
+     * Emits how many animes were written; animes without an id whose name is taken are counted as conflicts.
+     */
+    private Mono<Integer> write(final List<Entry> batch) {
+        final Map<Integer, Anime> byId = new LinkedHashMap<>();
+        final List<String> names = new ArrayList<>();
+        for (Entry entry : batch) {
+            if (entry.anime.getId() == null) {
+                names.add(entry.anime.getName());
+            } else {
+                byId.put(entry.anime.getId(), entry.anime);
+            }
+        }
+
+        final Mono<Integer> upserted = byId.isEmpty() ? Mono.just(0) : animeService.upsertAll(new ArrayList<>(byId.values()));
+        return upserted
+                .flatMap(upsertedCount -> names.isEmpty()
+                        ? Mono.just(upsertedCount)
+                        : animeService.insertAllIfAbsent(names)
+                                .count()
+                                .map(inserted -> {
+                                    conflicts.increment(names.size() - inserted);
+                                    return upsertedCount + inserted.intValue();
+                                }))
+                .doOnNext(written -> coalesced.increment(batch.size() - byId.size() - names.size()))
+                .publishOn(appSchedulers.blockingIo());
+    }
+
+    private Mono<Void> deadLetter(final Entry entry, final Throwable error) {
+        return Mono.<Void>fromRunnable(() -> {
+            try {
+                wal.deadLetter(objectMapper.writeValueAsString(entry.anime));
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            log.warn("Write-behind anime {} cannot be written, moved to the dead-letter file", entry.anime, error);
+            deadLettered.increment();
+            release(entry);
+        }).subscribeOn(appSchedulers.blockingIo());
+    }
+
+    private static boolean isUnavailable(final Throwable error) {
+        return error instanceof ResponseStatusException
+                && ((ResponseStatusException) error).getStatus() == HttpStatus.SERVICE_UNAVAILABLE;
+    }
+
+    private List<Entry> nextBatch() throws IOException {
+        Entry entry;
+        while (pending.size() < properties.getBatchSize() && (entry = queue.poll()) != null) {
+            pending.add(entry);
+        }
+        wal.rotate();
+        return pending;
+    }
+
+    private void complete(final List<Entry> batch, final int written) {
+        for (Entry entry : batch) {
+            releaseSegment(entry);
+        }
+        flushed.increment(written);
+        buffered.addAndGet(-batch.size());
+        batch.clear();
+    }
+
+    private void release(final Entry entry) {
+        releaseSegment(entry);
+        buffered.decrementAndGet();
+        pending.remove(entry);
+    }
+
+    private void releaseSegment(final Entry entry) {
+        try {
+            wal.release(entry.segment);
+        } catch (IOException e) {
+            log.warn("Could not delete a flushed write-behind log segment", e);
+        }
+    }
+
+    private boolean replay(final String record, final WriteAheadLog.Segment segment) {
+        try {
+            queue.offer(new Entry(objectMapper.readValue(record, Anime.class), segment));
+            buffered.incrementAndGet();
+            return true;
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable write-behind record: {}", record);
+            return false;
+        }
+    }
+
+    private static final class Entry {
+        private final Anime anime;
+        private final WriteAheadLog.Segment segment;
+
+        private Entry(final Anime anime, final WriteAheadLog.Segment segment) {
+            this.anime = anime;
+            this.segment = segment;
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.writebehind;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BiPredicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only log of acknowledged writes, one record per line, split into segments. Each segment counts the
+ * records that are not in the database yet; {@link #rotate()} seals the current one and a sealed segment is
+ * deleted once its last record is {@linkplain #release(Segment) released}. Whatever is left on disk at startup
+ * was acknowledged but never flushed, and is handed back by {@link #open(BiPredicate)}. Records that can never be
+ * written go to {@value #DEAD_LETTER}, next to the segments, through {@link #deadLetter(String)}.
+ * <p>
+ * With {@code fsync}, appends use group commit: records are written under the log's lock, and then one appender
+ * forces the segment to disk for everyone waiting, after pausing up to {@code groupCommitWait} so concurrent
+ * appenders can join the same sync. An append returns once its record is durable.
+ * All methods do blocking file I/O.
+ */
+public class WriteAheadLog implements Closeable {
+
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".wal";
+    static final String DEAD_LETTER = "dead-letter.jsonl";
+
+    private final Path directory;
+    private final boolean fsync;
+    private final long groupCommitWaitNanos;
+    private final Object syncLock = new Object();
+    private final AtomicLong syncs = new AtomicLong();
+    private long nextSegment;
+    private Segment current;
+    // guarded by the log's lock
+    private long appended;
+    // guarded by syncLock
+    private long durable;
+    private boolean syncing;
+
+    public WriteAheadLog(final Path directory, final boolean fsync) {
+        this(directory, fsync, Duration.ZERO);
+    }
+
+    public WriteAheadLog(final Path directory, final boolean fsync, final Duration groupCommitWait) {
+        this.directory = directory;
+        this.fsync = fsync;
+        this.groupCommitWaitNanos = groupCommitWait.toNanos();
+    }
+
+    /**
+     * Replays the segments left by a previous run, oldest first, then starts a new one. {@code replay} returns
+     * whether it took the record; a record it refuses (e.g. a line torn by the crash) is dropped.
+     */
+    public synchronized void open(final BiPredicate<String, Segment> replay) throws IOException {
+        Files.createDirectories(directory);
+        final List<Path> leftovers;
+        try (Stream<Path> files = Files.list(directory)) {
+            leftovers = files.filter(WriteAheadLog::isSegment)
+                    .sorted((a, b) -> Long.compare(number(a), number(b)))
+                    .collect(Collectors.toList());
+        }
+
+        for (Path path : leftovers) {
+            final Segment segment = new Segment(path, null);
+            segment.sealed = true;
+            for (String line : Files.readAllLines(path, StandardCharsets.UTF_8)) {
+                if (!line.isEmpty() && replay.test(line, segment)) {
+                    segment.outstanding++;
+                }
+            }
+            if (segment.outstanding == 0) {
+                Files.deleteIfExists(path);
+            }
+            nextSegment = Math.max(nextSegment, number(path) + 1);
+        }
+        current = newSegment();
+    }
+
+    public Segment append(final String record) throws IOException {
+        final Segment segment;
+        final long sequence;
+        synchronized (this) {
+            write(current.channel, record);
+            current.outstanding++;
+            current.appended = true;
+            segment = current;
+            sequence = ++appended;
+        }
+        if (fsync) {
+            awaitDurable(sequence);
+        }
+        return segment;
+    }
+
+    /**
+     * Appends the record to the dead-letter file, with the same durability as {@link #append}; the caller still
+     * {@linkplain #release(Segment) releases} it from its segment.
+     */
+    public synchronized void deadLetter(final String record) throws IOException {
+        try (FileChannel channel = FileChannel.open(directory.resolve(DEAD_LETTER), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            write(channel, record);
+            if (fsync) {
+                channel.force(false);
+            }
+        }
+    }
+
+    /**
+     * Seals the current segment and starts a new one, unless nothing was appended to it yet.
+     */
+    public synchronized void rotate() throws IOException {
+        if (!current.appended) {
+            return;
+        }
+        seal(current);
+        current = newSegment();
+    }
+
+    public synchronized void release(final Segment segment) throws IOException {
+        segment.outstanding--;
+        if (segment.sealed && segment.outstanding == 0) {
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (current != null) {
+            seal(current);
+        }
+    }
+
+    /**
+     * Number of times appends forced a segment to disk.
+     */
+    long syncs() {
+        return syncs.get();
+    }
+
+    /**
+     * Waits until a sync covers {@code sequence}; the first waiter with no sync in progress becomes the one that
+     * syncs, everyone appended by then included.
+     */
+    private void awaitDurable(final long sequence) throws IOException {
+        synchronized (syncLock) {
+            while (durable < sequence) {
+                if (!syncing) {
+                    syncing = true;
+                    break;
+                }
+                try {
+                    syncLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while waiting for the log to be synced", e);
+                }
+            }
+            if (durable >= sequence) {
+                return;
+            }
+        }
+
+        long synced = 0;
+        try {
+            if (groupCommitWaitNanos > 0) {
+                LockSupport.parkNanos(groupCommitWaitNanos);
+            }
+            final FileChannel channel;
+            final long target;
+            synchronized (this) {
+                channel = current.channel;
+                target = appended;
+            }
+            try {
+                channel.force(false);
+            } catch (ClosedChannelException e) {
+                // sealed meanwhile, and seal forces before closing
+            }
+            syncs.incrementAndGet();
+            synced = target;
+        } finally {
+            synchronized (syncLock) {
+                durable = Math.max(durable, synced);
+                syncing = false;
+                syncLock.notifyAll();
+            }
+        }
+    }
+
+    private void write(final FileChannel channel, final String record) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap((record + '\n').getBytes(StandardCharsets.UTF_8));
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    private void seal(final Segment segment) throws IOException {
+        if (fsync && segment.appended) {
+            segment.channel.force(false);
+        }
+        segment.channel.close();
+        segment.sealed = true;
+        if (segment.outstanding == 0) {
+            Files.deleteIfExists(segment.path);
+        }
+    }
+
+    private Segment newSegment() throws IOException {
+        final Path path = directory.resolve(String.format("%s%020d%s", PREFIX, nextSegment++, SUFFIX));
+        return new Segment(path, FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND));
+    }
+
+    private static boolean isSegment(final Path path) {
+        final String name = path.getFileName().toString();
+        return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+    }
+
+    private static long number(final Path path) {
+        final String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /**
+     * Guarded by the log's lock.
+     */
+    public static final class Segment {
+        private final Path path;
+        private final FileChannel channel;
+        private int outstanding;
+        private boolean sealed;
+        private boolean appended;
+
+        private Segment(final Path path, final FileChannel channel) {
+            this.path = path;
+            this.channel = channel;
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.writebehind;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.write-behind")
+public class WriteBehindProperties {
+
+    /**
+     * When off, {@code POST /animes} with {@code Prefer: respond-async} is answered synchronously like any other save.
+     */
+    private boolean enabled;
+    /**
+     * Acknowledged writes not yet in the database; beyond this, submits are answered with 503.
+     */
+    private int capacity = 10_000;
+    private int batchSize = 500;
+    private Duration flushInterval = Duration.ofMillis(200);
+    /**
+     * Failed flushes of the same batch before it is split and its animes written one at a time. A batch that fails
+     * for anything but the database being unavailable is split right away.
+     */
+    private int maxAttempts = 5;
+    private String walDirectory = "data/write-behind";
+    /**
+     * Forces every log append to disk before acknowledging. Without it acknowledged writes still survive a JVM
+     * crash, but not a power loss.
+     */
+    private boolean fsync = true;
+    /**
+     * With {@code fsync}, how long the appender that syncs waits for concurrent appends to join the same sync
+     * (group commit); zero syncs right away, still covering whatever was appended meanwhile.
+     */
+    private Duration fsyncGroupWait = Duration.ofMillis(1);
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+}
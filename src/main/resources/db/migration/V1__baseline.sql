@@ -0,0 +1,46 @@
+-- schema as it was created by hand before migrations; every statement is a no-op on a database that already has it
+create table if not exists user_sec (
+id serial not null,
+name varchar(100) not null,
+username varchar(255) not null,
+password varchar(255) not null,
+authorities varchar(255) not null
+);
+
+insert into user_sec (id, name, username, password, authorities)
+select 1, 'Fabricio', 'fabricio', '{bcrypt}$2a$10$xOPqQwnMYSQTuAZhbwjGyeB3wonirlvMnSe33Fc2qF74qJcI1siqC', 'ROLE_ADMIN'
+where not exists (select 1 from user_sec where username = 'fabricio');
+insert into user_sec (id, name, username, password, authorities)
+select 2, 'Lucas', 'lucas', '{bcrypt}$2a$10$xOPqQwnMYSQTuAZhbwjGyeB3wonirlvMnSe33Fc2qF74qJcI1siqC', 'ROLE_USER'
+where not exists (select 1 from user_sec where username = 'lucas');
+
+-- sharding (app.sharding.enabled=true): migrate every shard; ids are assigned by the application
+create table if not exists anime (
+id serial primary key,
+name varchar(255) not null
+);
+
+create sequence if not exists anime_local_id_seq;
+
+-- transactional outbox (app.outbox): written with every anime change, drained by OutboxRelay
+create table if not exists anime_outbox (
+id bigserial primary key,
+aggregate_id integer not null,
+event_type varchar(32) not null,
+payload text not null,
+created_at timestamptz not null default now()
+);
+
+-- idempotency keys (app.idempotency): first 2xx response per user and Idempotency-Key, replayed on retries
+create table if not exists idempotency_key (
+principal varchar(255) not null,
+idempotency_key varchar(255) not null,
+request_hash varchar(64) not null,
+status integer,
+content_type varchar(255),
+body bytea,
+expires_at timestamptz not null,
+primary key (principal, idempotency_key)
+);
+
+create index if not exists idempotency_key_expires_at on idempotency_key (expires_at);
@@ -0,0 +1,18 @@
+-- primary keys for tables created without one; findById, findAll and findPageAfter (id > ? ORDER BY id LIMIT ?)
+-- walk anime_pkey instead of scanning and sorting the table
+do $$
+begin
+    if not exists (select 1 from pg_constraint where conrelid = 'user_sec'::regclass and contype = 'p') then
+        alter table user_sec add constraint user_sec_pkey primary key (id);
+    end if;
+    if not exists (select 1 from pg_constraint where conrelid = 'anime'::regclass and contype = 'p') then
+        alter table anime add constraint anime_pkey primary key (id);
+    end if;
+end
+$$;
+
+-- UserRepository.findByUsername runs on every authenticated request
+create unique index if not exists user_sec_username on user_sec (username);
+
+-- the seed users were inserted with explicit ids
+select setval(pg_get_serial_sequence('user_sec', 'id'), (select coalesce(max(id), 1) from user_sec));
@@ -0,0 +1,3 @@
+-- AnimeRepository.deleteByNamePrefix (name LIKE 'prefix%'): text_pattern_ops lets the prefix match use a
+-- btree range scan whatever the database collation is
+create index if not exists anime_name_pattern on anime (name text_pattern_ops);
@@ -0,0 +1,22 @@
+-- natural key for upserts without id (AnimeRepository.upsertByName); with sharding, unique per shard.
+-- Existing names that only differ in case or surrounding spaces are not renamed here: the migration stops and
+-- lists them, so they can be merged or renamed by hand before running it again
+do $$
+declare
+    duplicates text;
+begin
+    select string_agg(format('%L: ids %s', normalized, ids), E'\n')
+    into duplicates
+    from (select lower(btrim(name)) as normalized, string_agg(id::text, ', ' order by id) as ids
+          from anime
+          group by lower(btrim(name))
+          having count(*) > 1
+          order by lower(btrim(name))
+          limit 50) d;
+    if duplicates is not null then
+        raise exception 'anime has names that are equal once trimmed and lower-cased, resolve them before creating anime_normalized_name (first 50):%', E'\n' || duplicates;
+    end if;
+end
+$$;
+
+create unique index if not exists anime_normalized_name on anime (lower(btrim(name)));
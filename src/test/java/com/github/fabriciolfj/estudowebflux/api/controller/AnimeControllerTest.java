@@ -1,8 +1,13 @@
 package com.github.fabriciolfj.estudowebflux.api.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
 import com.github.fabriciolfj.estudowebflux.domain.service.AnimeService;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.AppSchedulers;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.SchedulerProperties;
+import com.github.fabriciolfj.estudowebflux.infrastructure.writebehind.AnimeWriteBehind;
 import com.github.fabriciolfj.estudowebflux.util.AnimeCreator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,7 +17,10 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.http.HttpStatus;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.server.ResponseStatusException;
 import reactor.blockhound.BlockHound;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
@@ -21,6 +29,8 @@ import reactor.test.StepVerifier;
 import java.time.Duration;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
 @ExtendWith(SpringExtension.class)
 class AnimeControllerTest {
 
@@ -30,6 +40,15 @@ class AnimeControllerTest {
     @Mock
     private AnimeService animeService;
 
+    @Spy
+    private AppSchedulers appSchedulers = new AppSchedulers(new SchedulerProperties(), new SimpleMeterRegistry());
+
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private AnimeWriteBehind animeWriteBehind;
+
     private final Anime anime = AnimeCreator.createValidAnime();
     private final List<Anime> animes = List.of(anime, anime);
 
@@ -60,6 +79,17 @@ class AnimeControllerTest {
         BDDMockito.when(animeService.save(AnimeCreator.createValidAnime())).thenReturn(Mono.just(anime));
         BDDMockito.when(animeService.update(1, AnimeCreator.createValidAnime())).thenReturn(Mono.empty());
         BDDMockito.when(animeService.saveBatch(animes)).thenReturn(Flux.just(anime, anime));
+        BDDMockito.when(animeService.exportChunks(ArgumentMatchers.anyInt())).thenReturn(Flux.just(animes));
+    }
+
+    @Test
+    @DisplayName("export streams a csv header and one line per anime")
+    public void export_ReturnsCsvLines_WhenFormatIsCsv() {
+        StepVerifier.create(animeController.export(0, "csv").getBody())
+                .expectSubscription()
+                .expectNext("id,name\n")
+                .expectNext(String.format("%d,\"%s\"\n%d,\"%s\"\n", anime.getId(), anime.getName(), anime.getId(), anime.getName()))
+                .verifyComplete();
     }
 
     @Test
@@ -135,4 +165,39 @@ class AnimeControllerTest {
                 .verifyComplete();
     }
 
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("deleteAll returns the deleted count, and an error when neither ids nor a prefix is given")
+    public void deleteAll_ReturnsAffectedCount_WhenIdsAreGiven() {
+        BDDMockito.when(animeService.deleteAll(List.of(1, 2))).thenReturn(Mono.just(2));
+
+        StepVerifier.create(animeController.deleteAll(new AnimeBulkDelete(List.of(1, 2), null)))
+                .expectNext(new AnimeBulkResult(2))
+                .verifyComplete();
+
+        StepVerifier.create(animeController.deleteAll(new AnimeBulkDelete(null, null)))
+                .expectError(ResponseStatusException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("saveAsync answers 202 once write-behind accepted the anime, and saves synchronously when it is disabled")
+    public void saveAsync_ReturnsAccepted_WhenWriteBehindIsEnabled() {
+        BDDMockito.when(animeWriteBehind.isEnabled()).thenReturn(true);
+        BDDMockito.when(animeWriteBehind.submit(anime)).thenReturn(Mono.just(anime));
+
+        StepVerifier.create(animeController.saveAsync(anime))
+                .assertNext(response -> {
+                    assertEquals(HttpStatus.ACCEPTED, response.getStatusCode());
+                    assertEquals("respond-async", response.getHeaders().getFirst("Preference-Applied"));
+                    assertEquals(anime, response.getBody());
+                })
+                .verifyComplete();
+
+        BDDMockito.when(animeWriteBehind.isEnabled()).thenReturn(false);
+
+        StepVerifier.create(animeController.saveAsync(anime))
+                .assertNext(response -> assertEquals(HttpStatus.CREATED, response.getStatusCode()))
+                .verifyComplete();
+    }
+}
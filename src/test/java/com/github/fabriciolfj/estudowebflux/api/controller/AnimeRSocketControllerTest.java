@@ -0,0 +1,70 @@
+package com.github.fabriciolfj.estudowebflux.api.controller;
+
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import com.github.fabriciolfj.estudowebflux.domain.service.AnimeService;
+import com.github.fabriciolfj.estudowebflux.util.AnimeCreator;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+@ExtendWith(SpringExtension.class)
+class AnimeRSocketControllerTest {
+
+    @InjectMocks
+    private AnimeRSocketController animeRSocketController;
+
+    @Mock
+    private AnimeService animeService;
+
+    private final Anime anime = AnimeCreator.createValidAnime();
+
+    @Test
+    @DisplayName("findById returns the anime from the service")
+    public void findById_ReturnsAnime_WhenSuccessful() {
+        BDDMockito.when(animeService.findById(1)).thenReturn(Mono.just(anime));
+
+        StepVerifier.create(animeRSocketController.findById(1))
+                .expectNext(anime)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("save writes the channel in chunks and echoes every saved anime")
+    public void save_SavesInChunks_WhenChannelIsLargerThanAChunk() {
+        BDDMockito.when(animeService.saveBatch(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<List<Anime>>getArgument(0)));
+        final int total = AnimeRSocketController.SAVE_CHUNK_SIZE + 1;
+
+        StepVerifier.create(animeRSocketController.save(Flux.range(0, total).map(i -> AnimeCreator.createAnimeToBeSaved())))
+                .expectNextCount(total)
+                .verifyComplete();
+
+        Mockito.verify(animeService, Mockito.times(2)).saveBatch(ArgumentMatchers.anyList());
+    }
+
+    @Test
+    @DisplayName("save writes a partial chunk after the chunk timeout while the channel stays open")
+    public void save_SavesPartialChunk_WhenChannelStaysOpen() {
+        BDDMockito.when(animeService.saveBatch(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<List<Anime>>getArgument(0)));
+
+        StepVerifier.create(animeRSocketController.save(Flux.just(AnimeCreator.createAnimeToBeSaved()).concatWith(Flux.never())))
+                .expectNextCount(1)
+                .thenCancel()
+                .verify(Duration.ofSeconds(5));
+
+        Mockito.verify(animeService).saveBatch(ArgumentMatchers.anyList());
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.fabriciolfj.estudowebflux.api.exception;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class ErrorResponseWriterTest {
+
+    private final ErrorResponseWriter writer = new ErrorResponseWriter();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("preallocated exception is written with the same fields as CustomAttributes")
+    public void write_ReturnsErrorBody_WhenStacklessException() throws IOException {
+        final StacklessResponseStatusException ex = new StacklessResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found");
+
+        final JsonNode body = objectMapper.readTree(writer.write("/animes/1", "a1b2", ex));
+
+        assertEquals(404, body.get("status").asInt());
+        assertEquals("Not Found", body.get("error").asText());
+        assertEquals("/animes/1", body.get("path").asText());
+        assertEquals("a1b2", body.get("requestId").asText());
+        assertEquals(ex.getMessage(), body.get("message").asText());
+        assertEquals(ErrorResponseWriter.DEVELOPER_MESSAGE, body.get("developerMessage").asText());
+        assertFalse(body.get("timestamp").asText().isEmpty());
+    }
+
+    @Test
+    @DisplayName("messages of regular exceptions are escaped")
+    public void write_EscapesMessage_WhenResponseStatusException() throws IOException {
+        final ResponseStatusException ex = new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fail save anime. Details: \"name\"\n\\");
+
+        final JsonNode body = objectMapper.readTree(writer.write("/animes", "id", ex));
+
+        assertEquals(400, body.get("status").asInt());
+        assertEquals(ex.getMessage(), body.get("message").asText());
+    }
+
+    @Test
+    @DisplayName("stackless exception does not capture a stack trace")
+    public void stacklessException_HasNoStackTrace() {
+        final StacklessResponseStatusException ex = new StacklessResponseStatusException(HttpStatus.NOT_FOUND, "Anime not found");
+
+        assertEquals(0, ex.getStackTrace().length);
+        assertSame(ex, ex.fillInStackTrace());
+    }
+
+    @Test
+    @DisplayName("a template raises a new exception per error, sharing the precomputed message")
+    public void template_ReturnsNewExceptionPerError() {
+        final StacklessResponseStatusException.Template template = StacklessResponseStatusException.template(HttpStatus.NOT_FOUND, "Anime not found");
+
+        final StacklessResponseStatusException first = template.get();
+        first.addSuppressed(new IllegalStateException("checkpoint"));
+        final StacklessResponseStatusException second = template.get();
+
+        assertNotSame(first, second);
+        assertEquals(0, second.getSuppressed().length);
+        assertSame(first.getMessageFragment(), second.getMessageFragment());
+        assertEquals(HttpStatus.NOT_FOUND, second.getStatus());
+    }
+}
@@ -0,0 +1,79 @@
+package com.github.fabriciolfj.estudowebflux.domain.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Applies db/migration and runs {@code EXPLAIN} on the queries every request or relay tick goes through, failing
+ * when one of them is not answered from its index. Sequential scans are disabled first, so a small table does not
+ * hide a missing index. Runs against the database in
+ * {@code -Dschema.jdbc.url=jdbc:postgresql://localhost:5432/postgres?user=root&password=root}.
+ */
+@EnabledIfSystemProperty(named = "schema.jdbc.url", matches = ".+")
+@Slf4j
+class HotQueryPlanTest {
+
+    private static final String SCHEMA = "anime";
+    private static final Map<String, String> HOT_QUERIES = new LinkedHashMap<>();
+
+    static {
+        HOT_QUERIES.put("SELECT user_sec.* FROM user_sec WHERE user_sec.username = 'fabricio'", "user_sec_username");
+        HOT_QUERIES.put("SELECT id, name FROM anime WHERE id = 1", "anime_pkey");
+        HOT_QUERIES.put("SELECT id, name FROM anime ORDER BY id", "anime_pkey");
+        HOT_QUERIES.put("SELECT id, name FROM anime WHERE id > 100 ORDER BY id LIMIT 20", "anime_pkey");
+        HOT_QUERIES.put("SELECT id, name FROM anime WHERE lower(btrim(name)) = lower(btrim('Tensei'))", "anime_normalized_name");
+        HOT_QUERIES.put("DELETE FROM anime WHERE name LIKE 'load-' || '%'", "anime_name_pattern");
+        HOT_QUERIES.put("SELECT id, aggregate_id, event_type, payload, created_at FROM anime_outbox ORDER BY id LIMIT 500 FOR UPDATE SKIP LOCKED", "anime_outbox_pkey");
+        HOT_QUERIES.put("SELECT request_hash, status, content_type, body FROM idempotency_key "
+                + "WHERE principal = 'fabricio' AND idempotency_key = 'key' AND status IS NOT NULL AND expires_at >= now()", "idempotency_key_pkey");
+        HOT_QUERIES.put("DELETE FROM idempotency_key WHERE expires_at < now()", "idempotency_key_expires_at");
+    }
+
+    @Test
+    @DisplayName("hot queries are answered from an index")
+    public void explain() throws SQLException {
+        final String url = System.getProperty("schema.jdbc.url");
+        Flyway.configure()
+                .dataSource(url, null, null)
+                .schemas(SCHEMA)
+                .baselineOnMigrate(true)
+                .baselineVersion("0")
+                .load()
+                .migrate();
+
+        try (Connection connection = DriverManager.getConnection(url); Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + SCHEMA);
+            statement.execute("SET enable_seqscan = off");
+            for (Map.Entry<String, String> query : HOT_QUERIES.entrySet()) {
+                final String plan = plan(statement, query.getKey());
+                log.info("{}\n{}", query.getKey(), plan);
+                assertFalse(plan.contains("Seq Scan"), query.getKey());
+                assertTrue(plan.contains(query.getValue()), query.getKey());
+            }
+        }
+    }
+
+    private static String plan(final Statement statement, final String query) throws SQLException {
+        final StringBuilder plan = new StringBuilder();
+        try (ResultSet rows = statement.executeQuery("EXPLAIN " + query)) {
+            while (rows.next()) {
+                plan.append("  ").append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+}
@@ -0,0 +1,140 @@
+package com.github.fabriciolfj.estudowebflux.domain.service;
+
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import com.github.fabriciolfj.estudowebflux.infrastructure.outbox.AnimeOutbox;
+import com.github.fabriciolfj.estudowebflux.infrastructure.resilience.RepositoryResilience;
+import com.github.fabriciolfj.estudowebflux.infrastructure.resilience.RepositoryResilienceProperties;
+import com.github.fabriciolfj.estudowebflux.util.AnimeCreator;
+import com.github.fabriciolfj.estudowebflux.util.FaultInjectingAnimeRepository;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AnimeServiceResilienceTest {
+
+    private FaultInjectingAnimeRepository animeRepository;
+    private RepositoryResilience repositoryResilience;
+    private SimpleMeterRegistry meterRegistry;
+    private AnimeService animeService;
+    private Anime anime;
+
+    @BeforeEach
+    public void setUp() {
+        final RepositoryResilienceProperties properties = new RepositoryResilienceProperties();
+        properties.setReadTimeout(Duration.ofMillis(100));
+        properties.setWriteTimeout(Duration.ofMillis(100));
+        properties.getRetry().setMinBackoff(Duration.ofMillis(5));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(20));
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(4);
+        properties.getCircuitBreaker().setSlidingWindowSize(4);
+
+        meterRegistry = new SimpleMeterRegistry();
+        animeRepository = new FaultInjectingAnimeRepository();
+        repositoryResilience = new RepositoryResilience(properties, meterRegistry);
+        final AnimeOutbox animeOutbox = Mockito.mock(AnimeOutbox.class);
+        Mockito.when(animeOutbox.append(ArgumentMatchers.any(), ArgumentMatchers.anyList())).thenReturn(Mono.empty());
+        animeService = new AnimeService(animeRepository, repositoryResilience, animeOutbox);
+        anime = animeRepository.save(AnimeCreator.createAnimeToBeSaved()).block();
+    }
+
+    @Test
+    @DisplayName("transient read failures are retried")
+    public void findById_RetriesTransientFailure_WhenSuccessful() {
+        animeRepository.failNext(2, () -> new R2dbcTransientResourceException("connection reset"));
+
+        StepVerifier.create(animeService.findById(anime.getId()))
+                .expectNext(anime)
+                .verifyComplete();
+
+        assertEquals(2, meterRegistry.counter("repository.calls", "operation", "findById", "outcome", "retry").count());
+    }
+
+    @Test
+    @DisplayName("slow reads time out with 503")
+    public void findAll_ReturnsServiceUnavailable_WhenRepositoryIsSlow() {
+        animeRepository.withLatency(Duration.ofMillis(500));
+
+        StepVerifier.create(animeService.findAll())
+                .expectErrorSatisfies(e -> assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseStatusException) e).getStatus()))
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    @DisplayName("writes are not retried")
+    public void save_DoesNotRetry_WhenTransientFailure() {
+        animeRepository.failNext(1, () -> new R2dbcTransientResourceException("connection reset"));
+        final int callsBefore = animeRepository.calls();
+
+        StepVerifier.create(animeService.save(AnimeCreator.createAnimeToBeSaved()))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        assertEquals(callsBefore + 1, animeRepository.calls());
+    }
+
+    @Test
+    @DisplayName("open circuit fails fast and serves the last known anime")
+    public void findById_ServesStaleValue_WhenCircuitIsOpen() {
+        StepVerifier.create(animeService.findById(anime.getId()))
+                .expectNext(anime)
+                .verifyComplete();
+
+        openCircuit();
+
+        final int callsBefore = animeRepository.calls();
+        StepVerifier.create(animeService.findById(anime.getId()))
+                .expectNext(anime)
+                .verifyComplete();
+        assertEquals(callsBefore, animeRepository.calls());
+    }
+
+    @Test
+    @DisplayName("the stale anime is a copy, changing what findById returned does not change it")
+    public void findById_ServesUnchangedStaleValue_WhenCallerModifiedTheAnime() {
+        final Anime found = animeService.findById(anime.getId()).block();
+        found.setName("changed by a failed update");
+
+        openCircuit();
+
+        StepVerifier.create(animeService.findById(anime.getId()))
+                .expectNextMatches(stale -> stale != found && AnimeCreator.createAnimeToBeSaved().getName().equals(stale.getName()))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("writes evict the stale anime")
+    public void findById_ReturnsServiceUnavailable_WhenStaleValueWasDeleted() {
+        StepVerifier.create(animeService.findById(anime.getId()).then(animeService.delete(anime.getId())))
+                .verifyComplete();
+
+        openCircuit();
+
+        StepVerifier.create(animeService.findById(anime.getId()))
+                .expectErrorSatisfies(e -> assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseStatusException) e).getStatus()))
+                .verify();
+    }
+
+    private void openCircuit() {
+        animeRepository.failNext(Integer.MAX_VALUE, () -> new R2dbcTransientResourceException("database down"));
+        // an anime never read, so there is no stale value to hide the failure
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(animeService.findById(anime.getId() + 1))
+                    .expectError(ResponseStatusException.class)
+                    .verify();
+        }
+        assertEquals(CircuitBreaker.State.OPEN, repositoryResilience.state());
+    }
+}
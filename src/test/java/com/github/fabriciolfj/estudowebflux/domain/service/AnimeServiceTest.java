@@ -2,7 +2,11 @@ package com.github.fabriciolfj.estudowebflux.domain.service;
 
 import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
 import com.github.fabriciolfj.estudowebflux.domain.repository.AnimeRepository;
+import com.github.fabriciolfj.estudowebflux.infrastructure.outbox.AnimeOutbox;
+import com.github.fabriciolfj.estudowebflux.infrastructure.resilience.RepositoryResilience;
+import com.github.fabriciolfj.estudowebflux.infrastructure.resilience.RepositoryResilienceProperties;
 import com.github.fabriciolfj.estudowebflux.util.AnimeCreator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -12,6 +16,9 @@ import org.mockito.ArgumentMatchers;
 import org.mockito.BDDMockito;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.Spy;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.web.server.ResponseStatusException;
 import reactor.blockhound.BlockHound;
@@ -20,6 +27,7 @@ import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 
 @ExtendWith(SpringExtension.class)
@@ -31,6 +39,12 @@ class AnimeServiceTest {
     @Mock
     private AnimeRepository animeRepository;
 
+    @Mock
+    private AnimeOutbox animeOutbox;
+
+    @Spy
+    private RepositoryResilience repositoryResilience = new RepositoryResilience(new RepositoryResilienceProperties(), new SimpleMeterRegistry());
+
     private final Anime anime = AnimeCreator.createValidAnime();
     private final List<Anime> animes = List.of(anime, anime);
 
@@ -55,11 +69,13 @@ class AnimeServiceTest {
     @BeforeEach
     public void setUp() {
         BDDMockito.when(animeRepository.findAll()).thenReturn(Flux.just(anime));
+        BDDMockito.when(animeRepository.findPageAfter(ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt())).thenReturn(Flux.just(anime));
         BDDMockito.when(animeRepository.findById(ArgumentMatchers.anyInt())).thenReturn(Mono.just(anime));
         BDDMockito.when(animeRepository.save(AnimeCreator.createAnimeToBeSaved())).thenReturn(Mono.just(anime));
         BDDMockito.when(animeRepository.delete(ArgumentMatchers.any(Anime.class))).thenReturn(Mono.empty());
         BDDMockito.when(animeRepository.save(AnimeCreator.createValidAnime())).thenReturn(Mono.just(anime));
         BDDMockito.when(animeRepository.saveAll(animes)).thenReturn(Flux.just(anime, anime));
+        BDDMockito.when(animeOutbox.append(ArgumentMatchers.any(), ArgumentMatchers.anyList())).thenReturn(Mono.empty());
     }
 
     @Test
@@ -71,6 +87,27 @@ class AnimeServiceTest {
                 .verifyComplete();
     }
 
+    @Test
+    @DisplayName("findPage caps the page size")
+    public void findPage_ReturnFluxOfAnime_WhenSizeAboveLimit() {
+        StepVerifier.create(animeService.findPage(0, 10_000))
+                .expectSubscription()
+                .expectNext(anime)
+                .verifyComplete();
+
+        BDDMockito.verify(animeRepository).findPageAfter(0, 100);
+    }
+
+    @Test
+    @DisplayName("exportChunks stops after a chunk smaller than the chunk size")
+    public void exportChunks_ReturnsSingleChunk_WhenCatalogueFitsOneChunk() {
+        StepVerifier.create(animeService.exportChunks(0))
+                .expectSubscription()
+                .expectNext(List.of(anime))
+                .verifyComplete();
+
+        BDDMockito.verify(animeRepository).findPageAfter(0, AnimeService.EXPORT_CHUNK_SIZE);
+    }
 
     @Test
     @DisplayName("findByid returns Mono with anime when it exists")
@@ -165,4 +202,133 @@ class AnimeServiceTest {
     }
 
 
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("deleteAll deletes distinct ids in chunks and sums the affected rows")
+    public void deleteAll_SumsAffectedRows_WhenIdsSpanSeveralChunks() {
+        BDDMockito.when(animeRepository.deleteByIds(ArgumentMatchers.any(Integer[].class)))
+                .thenAnswer(invocation -> Flux.fromArray(invocation.<Integer[]>getArgument(0)).map(id -> new Anime(id, "Anime " + id)));
+        final List<Integer> ids = new ArrayList<>();
+        for (int id = 1; id <= AnimeService.BULK_CHUNK_SIZE + 10; id++) {
+            ids.add(id);
+        }
+        ids.add(1);
+
+        StepVerifier.create(animeService.deleteAll(ids))
+                .expectNext(AnimeService.BULK_CHUNK_SIZE + 10)
+                .verifyComplete();
+
+        BDDMockito.verify(animeRepository, Mockito.times(2)).deleteByIds(ArgumentMatchers.any(Integer[].class));
+        BDDMockito.verify(animeOutbox).append(ArgumentMatchers.eq(AnimeOutbox.Type.ANIME_DELETED),
+                ArgumentMatchers.argThat(deleted -> deleted.size() == AnimeService.BULK_CHUNK_SIZE + 10));
+    }
+
+    @Test
+    @DisplayName("deleteByNamePrefix records an outbox event per deleted anime")
+    public void deleteByNamePrefix_AppendsOutboxEvents_WhenSuccessful() {
+        BDDMockito.when(animeRepository.deleteByNamePrefix("load-")).thenReturn(Flux.just(new Anime(1, "load-1"), new Anime(2, "load-2")));
+
+        StepVerifier.create(animeService.deleteByNamePrefix("load-"))
+                .expectNext(2)
+                .verifyComplete();
+
+        BDDMockito.verify(animeOutbox).append(AnimeOutbox.Type.ANIME_DELETED, List.of(new Anime(1, "load-1"), new Anime(2, "load-2")));
+    }
+
+    @Test
+    @DisplayName("updateAll counts the renamed rows and records an outbox event for each")
+    public void updateAll_AppendsOutboxEvents_ForRenamedRows() {
+        final Anime renamed = anime.withName("Renamed");
+        BDDMockito.when(animeRepository.renameAll(new Integer[]{anime.getId(), 99}, new String[]{"Renamed", "Missing"}))
+                .thenReturn(Flux.just(renamed));
+
+        StepVerifier.create(animeService.updateAll(List.of(renamed, new Anime(99, "Missing"))))
+                .expectNext(1)
+                .verifyComplete();
+
+        BDDMockito.verify(animeOutbox).append(AnimeOutbox.Type.ANIME_UPDATED, List.of(renamed));
+    }
+
+    @Test
+    @DisplayName("updateAll returns an error and touches nothing when a name is empty")
+    public void updateAll_ReturnMonoError_WhenNameIsEmpty() {
+        StepVerifier.create(animeService.updateAll(List.of(anime, AnimeCreator.createAnimeNotName())))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        BDDMockito.verify(animeRepository, Mockito.never()).renameAll(ArgumentMatchers.any(), ArgumentMatchers.any());
+    }
+
+    @Test
+    @DisplayName("delete records an outbox event for the deleted anime")
+    public void delete_AppendsOutboxEvent_WhenSuccessful() {
+        StepVerifier.create(animeService.delete(1))
+                .verifyComplete();
+
+        BDDMockito.verify(animeOutbox).append(AnimeOutbox.Type.ANIME_DELETED, List.of(anime));
+    }
+
+    @Test
+    @DisplayName("upsertAll renames by id with the last name per id, upserts animes without id by name and records them in the outbox")
+    public void upsertAll_UpsertsByIdAndByName_WhenSuccessful() {
+        final Anime animeToBeSaved = AnimeCreator.createAnimeToBeSaved();
+        final Anime renamed = anime.withName("Renamed");
+        BDDMockito.when(animeRepository.renameAll(new Integer[]{anime.getId()}, new String[]{"Renamed"})).thenReturn(Flux.just(renamed));
+        BDDMockito.when(animeRepository.upsertAllByName(new String[]{animeToBeSaved.getName()})).thenReturn(Flux.just(anime.withId(2)));
+
+        StepVerifier.create(animeService.upsertAll(List.of(anime, animeToBeSaved, renamed)))
+                .expectNext(2)
+                .verifyComplete();
+
+        BDDMockito.verify(animeOutbox).append(AnimeOutbox.Type.ANIME_SAVED, List.of(anime.withId(2), renamed));
+    }
+
+    @Test
+    @DisplayName("upsertAll returns 404 and writes nothing by name when one of the ids does not exist")
+    public void upsertAll_ReturnsNotFound_WhenIdDoesNotExist() {
+        BDDMockito.when(animeRepository.renameAll(ArgumentMatchers.any(Integer[].class), ArgumentMatchers.any(String[].class))).thenReturn(Flux.empty());
+
+        StepVerifier.create(animeService.upsertAll(List.of(anime, AnimeCreator.createAnimeToBeSaved())))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        BDDMockito.verify(animeRepository, Mockito.never()).upsertAllByName(ArgumentMatchers.any(String[].class));
+        BDDMockito.verifyNoInteractions(animeOutbox);
+    }
+
+    @Test
+    @DisplayName("save lets a taken name through as DataIntegrityViolationException so it is answered with 409")
+    public void save_KeepsDataIntegrityViolation_WhenNameIsTaken() {
+        BDDMockito.when(animeRepository.save(AnimeCreator.createAnimeToBeSaved()))
+                .thenReturn(Mono.error(new DataIntegrityViolationException("duplicate key value violates unique constraint \"anime_normalized_name\"")));
+
+        StepVerifier.create(animeService.save(AnimeCreator.createAnimeToBeSaved()))
+                .expectError(DataIntegrityViolationException.class)
+                .verify();
+    }
+
+    @Test
+    @DisplayName("upsert with an id only renames the existing anime and returns 404 when there is none")
+    public void upsert_ReturnsNotFound_WhenIdDoesNotExist() {
+        BDDMockito.when(animeRepository.renameAll(new Integer[]{42}, new String[]{"Tensei"})).thenReturn(Flux.empty());
+
+        StepVerifier.create(animeService.upsert(new Anime(42, "Tensei")))
+                .expectError(ResponseStatusException.class)
+                .verify();
+
+        BDDMockito.verifyNoInteractions(animeOutbox);
+    }
+
+    @Test
+    @DisplayName("upsert without id goes by name and never looks the anime up first")
+    public void upsert_UpsertsByName_WhenIdIsMissing() {
+        BDDMockito.when(animeRepository.upsertByName("Tensei")).thenReturn(Mono.just(anime));
+
+        StepVerifier.create(animeService.upsert(AnimeCreator.createAnimeToBeSaved()))
+                .expectNext(anime)
+                .verifyComplete();
+
+        BDDMockito.verify(animeRepository, Mockito.never()).findById(ArgumentMatchers.anyInt());
+        BDDMockito.verify(animeOutbox).append(AnimeOutbox.Type.ANIME_SAVED, List.of(anime));
+    }
+}
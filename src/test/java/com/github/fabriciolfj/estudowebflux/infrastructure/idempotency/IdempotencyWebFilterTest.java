@@ -0,0 +1,106 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.idempotency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.transaction.ReactiveTransaction;
+import org.springframework.transaction.reactive.TransactionCallback;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IdempotencyWebFilterTest {
+
+    private static final String BODY = "{\"name\":\"Tensei\"}";
+
+    private final IdempotencyStore store = Mockito.mock(IdempotencyStore.class);
+    private final TransactionalOperator transactionalOperator = Mockito.mock(TransactionalOperator.class);
+    private final AtomicInteger executions = new AtomicInteger();
+    private IdempotencyWebFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        BDDMockito.when(transactionalOperator.execute(ArgumentMatchers.any()))
+                .thenAnswer(invocation -> Flux.from(invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(Mockito.mock(ReactiveTransaction.class))));
+        BDDMockito.when(store.claim(ArgumentMatchers.any(), ArgumentMatchers.anyString())).thenReturn(Mono.just(true));
+        BDDMockito.when(store.complete(ArgumentMatchers.any(), ArgumentMatchers.any())).thenReturn(Mono.empty());
+        filter = new IdempotencyWebFilter(store, new IdempotencyProperties(), transactionalOperator, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("a retry with the same key replays the stored response without running the handler again")
+    public void filter_ReplaysResponse_WhenKeyWasAlreadyUsed() {
+        final MockServerWebExchange first = exchange("key-1", BODY);
+        StepVerifier.create(filter.filter(first, created(Duration.ZERO))).verifyComplete();
+
+        final MockServerWebExchange retry = exchange("key-1", BODY);
+        StepVerifier.create(filter.filter(retry, created(Duration.ZERO))).verifyComplete();
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, retry.getResponse().getStatusCode());
+        assertEquals("true", retry.getResponse().getHeaders().getFirst(IdempotencyWebFilter.REPLAYED_HEADER));
+        assertEquals("{\"id\":1}", retry.getResponse().getBodyAsString().block());
+        BDDMockito.verify(store).claim(ArgumentMatchers.any(), ArgumentMatchers.anyString());
+    }
+
+    @Test
+    @DisplayName("a duplicate that arrives while the first request runs waits for its response")
+    public void filter_WaitsForInFlightRequest_WhenDuplicateArrives() {
+        final MockServerWebExchange first = exchange("key-2", BODY);
+        final MockServerWebExchange duplicate = exchange("key-2", BODY);
+
+        StepVerifier.create(Mono.when(filter.filter(first, created(Duration.ofMillis(100))), filter.filter(duplicate, created(Duration.ZERO))))
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+        assertEquals(HttpStatus.CREATED, duplicate.getResponse().getStatusCode());
+        assertEquals("{\"id\":1}", duplicate.getResponse().getBodyAsString().block());
+    }
+
+    @Test
+    @DisplayName("reusing a key with a different body is rejected with 422")
+    public void filter_ReturnsError_WhenKeyIsReusedForAnotherRequest() {
+        StepVerifier.create(filter.filter(exchange("key-3", BODY), created(Duration.ZERO))).verifyComplete();
+
+        StepVerifier.create(filter.filter(exchange("key-3", "{\"name\":\"Other\"}"), created(Duration.ZERO)))
+                .expectErrorMatches(e -> e instanceof ResponseStatusException
+                        && ((ResponseStatusException) e).getStatus() == HttpStatus.UNPROCESSABLE_ENTITY)
+                .verify();
+        assertEquals(1, executions.get());
+    }
+
+    private static MockServerWebExchange exchange(final String key, final String body) {
+        return MockServerWebExchange.from(MockServerHttpRequest.post("/animes")
+                .header(IdempotencyWebFilter.IDEMPOTENCY_KEY_HEADER, key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body));
+    }
+
+    private WebFilterChain created(final Duration delay) {
+        return exchange -> Mono.delay(delay)
+                .then(Mono.defer(() -> {
+                    executions.incrementAndGet();
+                    exchange.getResponse().setStatusCode(HttpStatus.CREATED);
+                    exchange.getResponse().getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                            .wrap("{\"id\":1}".getBytes(StandardCharsets.UTF_8))));
+                }));
+    }
+}
@@ -0,0 +1,121 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.jdbc;
+
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import reactor.core.Disposable;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class JdbcAnimeRepositoryTest {
+
+    private final HikariDataSource dataSource = Mockito.mock(HikariDataSource.class);
+    private final Connection connection = Mockito.mock(Connection.class);
+    private final PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+    private final ResultSet resultSet = Mockito.mock(ResultSet.class);
+    private final AtomicInteger scheduled = new AtomicInteger();
+
+    @BeforeEach
+    public void setUp() throws SQLException {
+        BDDMockito.when(dataSource.getConnection()).thenReturn(connection);
+        BDDMockito.when(connection.prepareStatement(BDDMockito.anyString())).thenReturn(statement);
+        BDDMockito.when(connection.prepareStatement(BDDMockito.anyString(), BDDMockito.anyInt(), BDDMockito.anyInt())).thenReturn(statement);
+        BDDMockito.when(statement.executeQuery()).thenReturn(resultSet);
+        BDDMockito.when(resultSet.next()).thenReturn(true, true, false);
+        BDDMockito.when(resultSet.getInt("id")).thenReturn(1, 2);
+        BDDMockito.when(resultSet.getString("name")).thenReturn("Tensei", "Gintama");
+    }
+
+    @Test
+    @DisplayName("findAll streams the cursor with the configured fetch size and closes it on the scheduler")
+    public void findAll_StreamsCursor_AndReleasesConnection() throws SQLException {
+        final JdbcAnimeRepository repository = new JdbcAnimeRepository(dataSource, scheduler(false), 500);
+
+        StepVerifier.create(repository.findAll())
+                .expectNext(new Anime(1, "Tensei"), new Anime(2, "Gintama"))
+                .verifyComplete();
+
+        Mockito.verify(connection).setAutoCommit(false);
+        Mockito.verify(statement).setFetchSize(500);
+        Mockito.verify(connection).rollback();
+        Mockito.verify(connection).close();
+        assertEquals(1, scheduled.get());
+    }
+
+    @Test
+    @DisplayName("the cursor is closed inline when the scheduler rejects the release")
+    public void findAll_ClosesCursorInline_WhenSchedulerRejects() throws SQLException {
+        final JdbcAnimeRepository repository = new JdbcAnimeRepository(dataSource, scheduler(true), 500);
+
+        StepVerifier.create(repository.findAll().take(1))
+                .expectNext(new Anime(1, "Tensei"))
+                .verifyComplete();
+
+        Mockito.verify(resultSet).close();
+        Mockito.verify(statement).close();
+        Mockito.verify(connection).close();
+        assertEquals(1, scheduled.get());
+    }
+
+    @Test
+    @DisplayName("findById binds the id and returns empty when there is no row")
+    public void findById_ReturnsEmpty_WhenNoRow() throws SQLException {
+        BDDMockito.when(resultSet.next()).thenReturn(false);
+        final JdbcAnimeRepository repository = new JdbcAnimeRepository(dataSource, scheduler(false), 500);
+
+        StepVerifier.create(repository.findById(42))
+                .verifyComplete();
+
+        Mockito.verify(statement).setInt(1, 42);
+        Mockito.verify(connection).close();
+    }
+
+    @Test
+    @DisplayName("a failing query is propagated and the connection is released")
+    public void findAll_ReturnsError_WhenQueryFails() throws SQLException {
+        BDDMockito.when(statement.executeQuery()).thenThrow(new SQLException("boom"));
+        final JdbcAnimeRepository repository = new JdbcAnimeRepository(dataSource, scheduler(false), 500);
+
+        StepVerifier.create(repository.findAll())
+                .expectErrorMessage("boom")
+                .verify();
+
+        Mockito.verify(connection).close();
+    }
+
+    /**
+     * Runs subscriptions inline; direct {@code schedule} calls, the ones used to release cursors, run inline or
+     * are rejected.
+     */
+    private Scheduler scheduler(final boolean rejecting) {
+        return new Scheduler() {
+            @Override
+            public Disposable schedule(final Runnable task) {
+                scheduled.incrementAndGet();
+                if (rejecting) {
+                    throw new RejectedExecutionException("shut down");
+                }
+                return Schedulers.immediate().schedule(task);
+            }
+
+            @Override
+            public Worker createWorker() {
+                return Schedulers.immediate().createWorker();
+            }
+        };
+    }
+}
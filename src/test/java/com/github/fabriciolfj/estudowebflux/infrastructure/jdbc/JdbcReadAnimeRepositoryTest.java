@@ -0,0 +1,52 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.jdbc;
+
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import com.github.fabriciolfj.estudowebflux.domain.repository.AnimeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+class JdbcReadAnimeRepositoryTest {
+
+    private final JdbcAnimeRepository reads = Mockito.mock(JdbcAnimeRepository.class);
+    private final AnimeRepository writes = Mockito.mock(AnimeRepository.class);
+    private final JdbcReadAnimeRepository repository = new JdbcReadAnimeRepository(reads, writes);
+
+    @Test
+    @DisplayName("reads are served over JDBC")
+    public void reads_GoToJdbc() {
+        final Anime anime = new Anime(1, "Tensei");
+        BDDMockito.when(reads.findById(1)).thenReturn(Mono.just(anime));
+        BDDMockito.when(reads.findAll()).thenReturn(Flux.just(anime));
+        BDDMockito.when(reads.findPageAfter(0, 20)).thenReturn(Flux.just(anime));
+        BDDMockito.when(reads.count()).thenReturn(Mono.just(1L));
+
+        StepVerifier.create(repository.findById(1)).expectNext(anime).verifyComplete();
+        StepVerifier.create(repository.existsById(1)).expectNext(true).verifyComplete();
+        StepVerifier.create(repository.findAll()).expectNext(anime).verifyComplete();
+        StepVerifier.create(repository.findPageAfter(0, 20)).expectNext(anime).verifyComplete();
+        StepVerifier.create(repository.count()).expectNext(1L).verifyComplete();
+
+        Mockito.verifyNoInteractions(writes);
+    }
+
+    @Test
+    @DisplayName("writes stay on the R2DBC repository")
+    public void writes_GoToR2dbc() {
+        final Anime anime = new Anime(null, "Tensei");
+        final Integer[] ids = {1};
+        BDDMockito.when(writes.save(anime)).thenReturn(Mono.just(anime.withId(1)));
+        BDDMockito.when(writes.deleteByIds(ids)).thenReturn(Flux.just(new Anime(1, "Tensei")));
+        BDDMockito.when(writes.upsertByName("Tensei")).thenReturn(Mono.just(new Anime(1, "Tensei")));
+
+        StepVerifier.create(repository.save(anime)).expectNext(new Anime(1, "Tensei")).verifyComplete();
+        StepVerifier.create(repository.deleteByIds(ids)).expectNext(new Anime(1, "Tensei")).verifyComplete();
+        StepVerifier.create(repository.upsertByName("Tensei")).expectNext(new Anime(1, "Tensei")).verifyComplete();
+
+        Mockito.verifyNoInteractions(reads);
+    }
+}
@@ -0,0 +1,81 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.latency;
+
+import org.HdrHistogram.Histogram;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyWebFilterTest {
+
+    private RouteLatencyRecorder recorder;
+    private LatencyWebFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        recorder = new RouteLatencyRecorder(new LatencyProperties());
+        filter = new LatencyWebFilter(recorder);
+    }
+
+    @Test
+    @DisplayName("latency is recorded under the matched route once the streamed body completes")
+    public void filter_RecordsUntilLastElement_WhenBodyIsStreamed() throws InterruptedException {
+        final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes/1"));
+
+        StepVerifier.create(filter.filter(exchange, e -> {
+            e.getAttributes().put(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, PathPatternParser.defaultInstance.parse("/animes/{id}"));
+            return Flux.interval(Duration.ofMillis(20)).take(3).then();
+        })).verifyComplete();
+
+        final Histogram histogram = recorded("GET /animes/{id}");
+        assertEquals(1, histogram.getTotalCount());
+        assertTrue(histogram.getMaxValue() >= Duration.ofMillis(60).toNanos());
+    }
+
+    @Test
+    @DisplayName("requests that never reach a handler are grouped together")
+    public void filter_RecordsUnmatched_WhenNoHandler() {
+        final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/nowhere"));
+
+        StepVerifier.create(filter.filter(exchange, e -> Mono.empty())).verifyComplete();
+
+        assertEquals(1, recorder.snapshot().get(LatencyWebFilter.UNMATCHED).getTotalCount());
+    }
+
+    @Test
+    @DisplayName("reset clears totals but interval logging still sees every sample")
+    public void reset_ClearsTotals_KeepsPendingInterval() {
+        recorder.record("GET /animes", 1_000);
+        recorder.reset();
+        recorder.record("GET /animes", 2_000);
+
+        final Map<String, Histogram> totals = recorder.snapshot();
+        assertEquals(1, totals.get("GET /animes").getTotalCount());
+        assertEquals(2, recorder.intervals().get("GET /animes").getTotalCount());
+        assertEquals(0, recorder.intervals().get("GET /animes").getTotalCount());
+    }
+
+    /**
+     * The sample is recorded in {@code doFinally}, which runs after the verifier has seen completion and, when the
+     * body completes on a timer thread, on that thread.
+     */
+    private Histogram recorded(final String route) throws InterruptedException {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!recorder.snapshot().containsKey(route) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return recorder.snapshot().get(route);
+    }
+}
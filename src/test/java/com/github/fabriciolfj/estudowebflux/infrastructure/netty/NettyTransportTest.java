@@ -0,0 +1,65 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.netty;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.netty.Connection;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.tcp.TcpClient;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class NettyTransportTest {
+
+    private NettyTransport transport;
+
+    @AfterEach
+    public void tearDown() {
+        transport.destroy();
+    }
+
+    @Test
+    @DisplayName("binds allocator gauges and one pending-task gauge per event loop")
+    public void bindTo_RegistersAllocatorAndLoopGauges() {
+        final NettyProperties properties = new NettyProperties();
+        properties.setNativeTransport(false);
+        properties.setWorkerThreads(3);
+        properties.getAllocator().setDirectArenas(2);
+        transport = new NettyTransport(properties);
+
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        transport.bindTo(registry);
+
+        assertFalse(transport.isNativeTransport());
+        assertEquals(2, registry.get("netty.allocator.arenas").tag("type", "direct").gauge().value());
+        assertEquals(3, registry.get("netty.eventloop.tasks.pending").tag("group", "worker").gauges().size());
+        assertEquals(1, registry.get("netty.eventloop.tasks.pending").tag("group", "select").gauges().size());
+    }
+
+    @Test
+    @DisplayName("closes connections that stay idle for idle-timeout")
+    public void customize_ClosesIdleConnections() {
+        final NettyProperties properties = new NettyProperties();
+        properties.setNativeTransport(false);
+        properties.setIdleTimeout(Duration.ofMillis(200));
+        transport = new NettyTransport(properties);
+
+        final DisposableServer server = transport.customize(HttpServer.create().port(0))
+                .handle((request, response) -> response.sendString(Mono.just("ok")))
+                .bindNow();
+        try {
+            final Connection connection = TcpClient.create().port(server.port()).connectNow();
+            StepVerifier.create(connection.onDispose()).expectComplete().verify(Duration.ofSeconds(5));
+        } finally {
+            server.disposeNow();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.querybudget;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class QueryBudgetWebFilterTest {
+
+    private static final String INSERT = "INSERT INTO anime (name) VALUES ($1)";
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private QueryBudgetWebFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        final QueryBudgetProperties properties = new QueryBudgetProperties();
+        properties.setMaxStatements(3);
+        properties.setRepeatThreshold(3);
+        properties.setDebugHeaders(true);
+        filter = new QueryBudgetWebFilter(properties, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("per-row inserts are reported as over budget and as a repeated statement")
+    public void filter_ReportsFindings_WhenStatementsRepeat() {
+        final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/animes/batch"));
+
+        StepVerifier.create(filter.filter(exchange, e -> Mono.subscriberContext()
+                .doOnNext(context -> {
+                    e.getAttributes().put(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, PathPatternParser.defaultInstance.parse("/animes/batch"));
+                    final QueryBudget budget = QueryBudget.current(context);
+                    for (int i = 0; i < 4; i++) {
+                        budget.onStatement(INSERT);
+                        budget.onRows(1);
+                    }
+                })
+                .then(e.getResponse().setComplete())))
+                .verifyComplete();
+
+        assertEquals("4", exchange.getResponse().getHeaders().getFirst(QueryBudgetWebFilter.QUERY_COUNT_HEADER));
+        assertEquals("4", exchange.getResponse().getHeaders().getFirst(QueryBudgetWebFilter.QUERY_ROWS_HEADER));
+        assertEquals(1, findings("budget-exceeded"));
+        assertEquals(1, findings("repeated-statement"));
+    }
+
+    private double findings(final String finding) {
+        return meterRegistry.get("http.server.requests.query.findings")
+                .tag("uri", "POST /animes/batch")
+                .tag("finding", finding)
+                .counter()
+                .count();
+    }
+}
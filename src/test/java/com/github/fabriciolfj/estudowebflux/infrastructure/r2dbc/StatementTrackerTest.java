@@ -0,0 +1,68 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.Map;
+
+class StatementTrackerTest {
+
+    private static final String FIND_BY_ID = "SELECT anime.id, anime.name FROM anime WHERE anime.id = $1";
+    private static final String FIND_PAGE = "SELECT id, name FROM anime WHERE id > $1 ORDER BY id LIMIT $2";
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private StatementTracker tracker;
+
+    @BeforeEach
+    public void setUp() {
+        final StatementCacheProperties properties = new StatementCacheProperties();
+        properties.setMaxSize(1);
+        tracker = new StatementTracker(properties,
+                new StaticListableBeanFactory(Map.of("meterRegistry", registry)).getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    @DisplayName("the same statement on the same connection is prepared once and then reused")
+    public void onCreateStatement_CountsReuse_WhenSameConnection() {
+        final Connection connection = Mockito.mock(Connection.class);
+
+        tracker.onCreateStatement(connection, FIND_BY_ID);
+        tracker.onCreateStatement(connection, FIND_BY_ID);
+        tracker.onCreateStatement(Mockito.mock(Connection.class), FIND_BY_ID);
+
+        Assertions.assertEquals(2, count(FIND_BY_ID, "prepared"));
+        Assertions.assertEquals(1, count(FIND_BY_ID, "reused"));
+    }
+
+    @Test
+    @DisplayName("a full per-connection cache evicts the least recently used statement")
+    public void onCreateStatement_PreparesAgain_WhenEvicted() {
+        final Connection connection = Mockito.mock(Connection.class);
+
+        tracker.onCreateStatement(connection, FIND_BY_ID);
+        tracker.onCreateStatement(connection, FIND_PAGE);
+        tracker.onCreateStatement(connection, FIND_BY_ID);
+
+        Assertions.assertEquals(2, count(FIND_BY_ID, "prepared"));
+        Assertions.assertEquals(2, registry.get("r2dbc.statements").tag("outcome", "evicted").counter().count());
+    }
+
+    @Test
+    @DisplayName("statements without parameters are not tracked")
+    public void onCreateStatement_Ignores_WhenNotParameterised() {
+        tracker.onCreateStatement(Mockito.mock(Connection.class), "SELECT 1");
+
+        Assertions.assertTrue(registry.find("r2dbc.statements").counters().isEmpty());
+    }
+
+    private double count(final String statement, final String outcome) {
+        return registry.get("r2dbc.statements").tag("statement", statement).tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,78 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc;
+
+import com.github.fabriciolfj.estudowebflux.infrastructure.querybudget.QueryBudget;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Result;
+import io.r2dbc.spi.Statement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StatementTrackingConnectionFactoryTest {
+
+    private static final String SQL = "SELECT id, name FROM anime WHERE id > $1";
+
+    private StatementTrackingConnectionFactory connectionFactory;
+
+    @BeforeEach
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public void setUp() {
+        final Result result = Mockito.mock(Result.class);
+        BDDMockito.when(result.map(ArgumentMatchers.any())).thenReturn((Flux) Flux.just("first", "second"));
+
+        final Statement statement = Mockito.mock(Statement.class);
+        BDDMockito.when(statement.bind(ArgumentMatchers.anyInt(), ArgumentMatchers.any())).thenReturn(statement);
+        BDDMockito.when(statement.execute()).thenReturn((Flux) Flux.just(result));
+
+        final Connection connection = Mockito.mock(Connection.class);
+        BDDMockito.when(connection.createStatement(SQL)).thenReturn(statement);
+
+        final ConnectionFactory delegate = Mockito.mock(ConnectionFactory.class);
+        BDDMockito.when(delegate.create()).thenReturn((Mono) Mono.just(connection));
+
+        final MeterRegistry registry = new SimpleMeterRegistry();
+        connectionFactory = new StatementTrackingConnectionFactory(delegate, new StatementTracker(new StatementCacheProperties(),
+                new StaticListableBeanFactory(Map.of("meterRegistry", registry)).getBeanProvider(MeterRegistry.class)));
+    }
+
+    @Test
+    @DisplayName("statements and rows are counted against the budget in the subscriber context")
+    public void execute_CountsStatementAndRows_WhenBudgetInContext() {
+        final QueryBudget budget = new QueryBudget();
+
+        StepVerifier.create(query().subscriberContext(context -> context.put(QueryBudget.class, budget)))
+                .expectNext("first", "second")
+                .verifyComplete();
+
+        assertEquals(1, budget.statements());
+        assertEquals(2, budget.rows());
+    }
+
+    @Test
+    @DisplayName("work outside a request is not counted and still runs")
+    public void execute_RunsUnchanged_WhenNoBudget() {
+        StepVerifier.create(query())
+                .expectNext("first", "second")
+                .verifyComplete();
+    }
+
+    private Flux<Object> query() {
+        return Mono.from(connectionFactory.create())
+                .flatMapMany(connection -> connection.createStatement(SQL).bind(0, 1).execute())
+                .flatMap(result -> result.map((row, metadata) -> row));
+    }
+}
@@ -0,0 +1,72 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.r2dbc.spi.R2dbcTransientResourceException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.function.UnaryOperator;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RepositoryResilienceTest {
+
+    @Test
+    @DisplayName("the stale cache drops the least recently used entry, not an arbitrary one")
+    public void readCached_EvictsLeastRecentlyUsed_WhenCacheIsFull() {
+        final RepositoryResilienceProperties properties = properties();
+        properties.setStaleCacheSize(2);
+        final RepositoryResilience resilience = new RepositoryResilience(properties, new SimpleMeterRegistry());
+
+        read(resilience, 1, Mono.just("first"));
+        read(resilience, 2, Mono.just("second"));
+        read(resilience, 1, Mono.just("first"));
+        read(resilience, 3, Mono.just("third"));
+
+        final Mono<String> down = Mono.error(new R2dbcTransientResourceException("database down"));
+        StepVerifier.create(resilience.readCached("findById", 1, UnaryOperator.identity(), () -> down))
+                .expectNext("first")
+                .verifyComplete();
+        StepVerifier.create(resilience.readCached("findById", 2, UnaryOperator.identity(), () -> down))
+                .expectErrorSatisfies(e -> assertEquals(HttpStatus.SERVICE_UNAVAILABLE, ((ResponseStatusException) e).getStatus()))
+                .verify();
+    }
+
+    @Test
+    @DisplayName("long streaming reads do not count as slow calls for point reads")
+    public void readMany_DoesNotOpenCircuit_WhenStreamsAreLong() {
+        final RepositoryResilienceProperties properties = properties();
+        properties.getCircuitBreaker().setSlowCallDuration(Duration.ofMillis(20));
+        final RepositoryResilience resilience = new RepositoryResilience(properties, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 4; i++) {
+            StepVerifier.create(resilience.readMany("export", () -> Flux.just(1).concatWith(Mono.delay(Duration.ofMillis(50)).then(Mono.empty()))))
+                    .expectNext(1)
+                    .verifyComplete();
+        }
+
+        assertEquals(CircuitBreaker.State.CLOSED, resilience.state());
+    }
+
+    private static RepositoryResilienceProperties properties() {
+        final RepositoryResilienceProperties properties = new RepositoryResilienceProperties();
+        properties.getRetry().setMinBackoff(Duration.ofMillis(5));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(20));
+        properties.getCircuitBreaker().setMinimumNumberOfCalls(4);
+        properties.getCircuitBreaker().setSlidingWindowSize(4);
+        return properties;
+    }
+
+    private static void read(final RepositoryResilience resilience, final int key, final Mono<String> value) {
+        StepVerifier.create(resilience.readCached("findById", key, UnaryOperator.identity(), () -> value))
+                .expectNextCount(1)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,73 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.routing;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.ReactiveSecurityContextHolder;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+class ReadWriteRoutingConnectionFactoryTest {
+
+    private ReadWriteRoutingConnectionFactory routing;
+
+    @BeforeEach
+    public void setUp() {
+        final ReadWriteRoutingProperties properties = new ReadWriteRoutingProperties();
+        properties.setReadYourWritesWindow(Duration.ofMinutes(1));
+        routing = new ReadWriteRoutingConnectionFactory(Mockito.mock(ConnectionFactory.class),
+                List.of(Mockito.mock(ConnectionFactory.class), Mockito.mock(ConnectionFactory.class)), properties);
+    }
+
+    @Test
+    @DisplayName("work not marked read-only goes to the primary")
+    public void lookupKey_ReturnsPrimary_WhenNotReadOnly() {
+        StepVerifier.create(routing.determineCurrentLookupKey())
+                .expectNext(ReadWriteRoutingConnectionFactory.PRIMARY)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("read-only work is balanced across replicas")
+    public void lookupKey_RoundRobinsReplicas_WhenReadOnly() {
+        StepVerifier.create(ReadOnlyRouting.readOnly(routing.determineCurrentLookupKey())
+                        .concatWith(ReadOnlyRouting.readOnly(routing.determineCurrentLookupKey())))
+                .expectNext("replica-0", "replica-1")
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("unhealthy replicas are skipped and the primary is the last resort")
+    public void lookupKey_SkipsUnhealthyReplicas() {
+        routing.markHealthy("replica-0", false);
+        StepVerifier.create(ReadOnlyRouting.readOnly(routing.determineCurrentLookupKey()))
+                .expectNext("replica-1")
+                .verifyComplete();
+
+        routing.markHealthy("replica-1", false);
+        StepVerifier.create(ReadOnlyRouting.readOnly(routing.determineCurrentLookupKey()))
+                .expectNext(ReadWriteRoutingConnectionFactory.PRIMARY)
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("a client reads its own writes from the primary")
+    public void lookupKey_ReturnsPrimary_WhenClientWroteRecently() {
+        final Mono<Object> write = routing.determineCurrentLookupKey()
+                .subscriberContext(ReactiveSecurityContextHolder.withAuthentication(new UsernamePasswordAuthenticationToken("fabricio", "1234")));
+        final Mono<Object> ownRead = ReadOnlyRouting.readOnly(routing.determineCurrentLookupKey())
+                .subscriberContext(ReactiveSecurityContextHolder.withAuthentication(new UsernamePasswordAuthenticationToken("fabricio", "1234")));
+        final Mono<Object> otherRead = ReadOnlyRouting.readOnly(routing.determineCurrentLookupKey())
+                .subscriberContext(ReactiveSecurityContextHolder.withAuthentication(new UsernamePasswordAuthenticationToken("lucas", "1234")));
+
+        StepVerifier.create(write.concatWith(ownRead).concatWith(otherRead))
+                .expectNext(ReadWriteRoutingConnectionFactory.PRIMARY, ReadWriteRoutingConnectionFactory.PRIMARY, "replica-0")
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,60 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.scheduler;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AppSchedulersTest {
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private AppSchedulers appSchedulers;
+
+    @BeforeEach
+    public void setUp() {
+        final SchedulerProperties properties = new SchedulerProperties();
+        properties.getBlockingIo().setThreads(1);
+        properties.getBlockingIo().setQueueCapacity(1);
+        appSchedulers = new AppSchedulers(properties, meterRegistry);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        appSchedulers.destroy();
+    }
+
+    @Test
+    @DisplayName("work runs on the named workload threads")
+    public void blockingIo_RunsOnNamedThreads() {
+        StepVerifier.create(Mono.fromCallable(() -> Thread.currentThread().getName()).subscribeOn(appSchedulers.blockingIo()))
+                .expectNextMatches(name -> name.startsWith("blocking-io-"))
+                .verifyComplete();
+    }
+
+    @Test
+    @DisplayName("work beyond threads + queue capacity is rejected and counted")
+    public void blockingIo_RejectsWork_WhenSaturated() {
+        final MonoProcessor<Void> release = MonoProcessor.create();
+        final Mono<Void> blocked = Mono.fromRunnable(release::block).subscribeOn(appSchedulers.blockingIo()).then();
+        blocked.subscribe();
+        blocked.subscribe();
+
+        StepVerifier.create(Mono.fromCallable(() -> "too much").subscribeOn(appSchedulers.blockingIo()))
+                .expectErrorMatches(e -> e instanceof RejectedExecutionException)
+                .verify();
+
+        release.onComplete();
+        assertEquals(1, meterRegistry.get("app.scheduler.rejected").tag("name", "blocking-io").counter().count());
+        assertTrue(meterRegistry.find("executor.queued").tag("name", "blocking-io").gauge() != null);
+    }
+}
@@ -0,0 +1,54 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.sharding;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+class AnimeShardsTest {
+
+    private final AnimeShards animeShards = new AnimeShards(3);
+
+    @Test
+    @DisplayName("an id built for a shard routes back to that shard")
+    public void shardOf_ReturnsOwningShard_WhenIdBuiltForShard() {
+        for (int shard = 0; shard < 3; shard++) {
+            for (long localId = 1; localId <= 100; localId++) {
+                Assertions.assertEquals(shard, animeShards.shardOf(animeShards.idFor(localId, shard)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("equal local ids on different shards never collide")
+    public void idFor_ReturnsDistinctIds_WhenLocalIdsRepeatAcrossShards() {
+        final Set<Integer> ids = new HashSet<>();
+        for (int shard = 0; shard < 3; shard++) {
+            for (long localId = 1; localId <= 100; localId++) {
+                Assertions.assertTrue(ids.add(animeShards.idFor(localId, shard)));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("names are normalized like lower(btrim(name)): only spaces are trimmed, one character lowered at a time")
+    public void normalizedName_MatchesPostgresLowerBtrim() {
+        Assertions.assertEquals("tensei slime", AnimeShards.normalizedName("  Tensei SLIME "));
+        Assertions.assertEquals("\ttensei\u00a0", AnimeShards.normalizedName("\tTensei\u00a0"));
+        Assertions.assertEquals("istanbul", AnimeShards.normalizedName("\u0130stanbul"));
+    }
+
+    @Test
+    @DisplayName("names that only differ in case or surrounding spaces route to the same shard")
+    public void shardOfName_ReturnsSameShard_ForEquivalentNames() {
+        Assertions.assertEquals(animeShards.shardOfName("Tensei"), animeShards.shardOfName(" tENSEI  "));
+    }
+
+    @Test
+    @DisplayName("local ids that do not fit the integer id space are refused")
+    public void idFor_ThrowsIllegalStateException_WhenIdSpaceExhausted() {
+        Assertions.assertThrows(IllegalStateException.class, () -> animeShards.idFor(Integer.MAX_VALUE, 2));
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.sharding;
+
+import com.github.fabriciolfj.estudowebflux.infrastructure.idempotency.IdempotencyProperties;
+import com.github.fabriciolfj.estudowebflux.infrastructure.outbox.OutboxProperties;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class ShardingConfigTest {
+
+    private final ShardingConfig shardingConfig = new ShardingConfig();
+
+    @Test
+    @DisplayName("sharding refuses to start while the outbox is on")
+    public void shardedAnimeRepository_ThrowsIllegalStateException_WhenOutboxIsEnabled() {
+        final IdempotencyProperties idempotency = new IdempotencyProperties();
+        idempotency.setEnabled(false);
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> shardingConfig.shardedAnimeRepository(new ShardingProperties(), new OutboxProperties(), idempotency));
+    }
+
+    @Test
+    @DisplayName("sharding refuses to start while idempotency keys are on")
+    public void shardedAnimeRepository_ThrowsIllegalStateException_WhenIdempotencyIsEnabled() {
+        final OutboxProperties outbox = new OutboxProperties();
+        outbox.setEnabled(false);
+
+        Assertions.assertThrows(IllegalStateException.class,
+                () -> shardingConfig.shardedAnimeRepository(new ShardingProperties(), outbox, new IdempotencyProperties()));
+    }
+}
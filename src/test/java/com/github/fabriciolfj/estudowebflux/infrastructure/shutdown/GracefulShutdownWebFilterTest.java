@@ -0,0 +1,80 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.shutdown;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class GracefulShutdownWebFilterTest {
+
+    private InFlightRequests inFlightRequests;
+    private GracefulShutdownWebFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        inFlightRequests = new InFlightRequests();
+        filter = new GracefulShutdownWebFilter(inFlightRequests, new GracefulShutdownProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("request is tracked while its pipeline is running")
+    public void filter_TracksInFlightRequest_UntilPipelineTerminates() {
+        final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes"));
+        final MonoProcessor<Void> handler = MonoProcessor.create();
+
+        StepVerifier.create(filter.filter(exchange, e -> handler))
+                .expectSubscription()
+                .then(() -> assertEquals(1, inFlightRequests.count()))
+                .then(handler::onComplete)
+                .verifyComplete();
+
+        assertEquals(0, inFlightRequests.count());
+    }
+
+    @Test
+    @DisplayName("new requests get 503 once draining started")
+    public void filter_ReturnsServiceUnavailable_WhenDraining() {
+        final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes"));
+        inFlightRequests.startDraining();
+
+        StepVerifier.create(filter.filter(exchange, e -> Mono.error(new IllegalStateException("should not be called"))))
+                .verifyComplete();
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exchange.getResponse().getStatusCode());
+        assertEquals(0, inFlightRequests.count());
+    }
+
+    @Test
+    @DisplayName("health probes are still answered while draining")
+    public void filter_LetsHealthProbesThrough_WhenDraining() {
+        final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/actuator/health/liveness"));
+        inFlightRequests.startDraining();
+
+        StepVerifier.create(filter.filter(exchange, e -> Mono.empty()))
+                .verifyComplete();
+
+        assertNull(exchange.getResponse().getStatusCode());
+    }
+
+    @Test
+    @DisplayName("awaitDrained returns the requests still running after the timeout")
+    public void awaitDrained_ReturnsRemaining_WhenTimeoutElapses() throws InterruptedException {
+        inFlightRequests.tryEnter();
+        inFlightRequests.tryEnter();
+        inFlightRequests.startDraining();
+        inFlightRequests.exit();
+
+        assertEquals(1, inFlightRequests.awaitDrained(Duration.ofMillis(50)));
+    }
+}
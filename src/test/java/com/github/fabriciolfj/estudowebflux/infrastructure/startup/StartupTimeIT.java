@@ -0,0 +1,35 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.startup;
+
+import com.github.fabriciolfj.estudowebflux.EstudoWebfluxApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Slf4j
+public class StartupTimeIT {
+
+    private static final long MAX_BOOT_MILLIS = Long.getLong("startup.max-boot-millis", 10_000);
+
+    @Test
+    @DisplayName("startup profile boots under the configured budget and records the timeline")
+    public void startupProfile_BootsUnderBudget() {
+        final long start = System.nanoTime();
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(EstudoWebfluxApplication.class)
+                .profiles("startup")
+                .properties("server.port=0")
+                .run()) {
+            final long bootMillis = (System.nanoTime() - start) / 1_000_000;
+            final StartupTimeline timeline = context.getBean(StartupTimeline.class);
+
+            log.info("Boot took {} ms{}{}", bootMillis, System.lineSeparator(), timeline.report(10));
+
+            assertTrue(timeline.getPhases().containsKey("running"));
+            assertTrue(bootMillis < MAX_BOOT_MILLIS, "Boot took " + bootMillis + " ms, budget is " + MAX_BOOT_MILLIS + " ms");
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.token;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.Base64;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenServiceTest {
+
+    private static final Instant NOW = Instant.parse("2020-10-01T10:00:00Z");
+
+    private final TokenProperties properties = properties();
+    private final TokenDenyList denyList = new TokenDenyList();
+    private final TokenService tokenService = service(NOW);
+
+    @Test
+    @DisplayName("a token issued for a Basic login carries the user and its authorities")
+    public void verify_ReturnsUserAndAuthorities_WhenTokenIsValid() {
+        final String token = tokenService.issue(new UsernamePasswordAuthenticationToken("fabricio", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN", "ROLE_USER"))).getToken();
+
+        final TokenAuthentication authentication = tokenService.verify(token);
+
+        assertEquals("fabricio", authentication.getName());
+        assertEquals(Set.of("ROLE_ADMIN", "ROLE_USER"), authentication.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority).collect(Collectors.toSet()));
+    }
+
+    @Test
+    @DisplayName("tampered, expired and revoked tokens are rejected")
+    public void verify_ThrowsBadCredentials_WhenTokenIsNotAcceptable() {
+        final String token = tokenService.issue(new UsernamePasswordAuthenticationToken("lucas", null,
+                AuthorityUtils.createAuthorityList("ROLE_USER"))).getToken();
+        final String[] parts = token.split("\\.");
+        final String forgedClaims = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(new String(Base64.getUrlDecoder().decode(parts[1])).replace("ROLE_USER", "ROLE_ADMIN").getBytes());
+
+        assertThrows(BadCredentialsException.class, () -> tokenService.verify(parts[0] + "." + forgedClaims + "." + parts[2]));
+        assertThrows(BadCredentialsException.class, () -> service(NOW.plus(Duration.ofHours(1))).verify(token));
+
+        tokenService.revoke(tokenService.verify(token));
+        assertThrows(BadCredentialsException.class, () -> tokenService.verify(token));
+        assertEquals(1, denyList.size());
+    }
+
+    private TokenService service(final Instant now) {
+        return new TokenService(properties, new ObjectMapper(), denyList, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static TokenProperties properties() {
+        final TokenProperties properties = new TokenProperties();
+        properties.setSecret(Base64.getEncoder().encodeToString(new byte[32]));
+        return properties;
+    }
+}
@@ -0,0 +1,92 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.tracing;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TracingWebFilterTest {
+
+    private static final String TRACE_ID = "4bf92f3577b34da6a3ce929d0e0e4736";
+    private static final String PARENT_ID = "00f067aa0ba902b7";
+
+    private final InMemorySpanExporter exporter = new InMemorySpanExporter(100);
+    private Tracer tracer;
+    private TracingWebFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        final TracingProperties properties = new TracingProperties();
+        properties.setSampleRatio(1.0);
+        tracer = new Tracer(properties, exporter);
+        filter = new TracingWebFilter(tracer);
+    }
+
+    @Test
+    @DisplayName("continues the incoming traceparent and keeps children linked across a publishOn hop")
+    public void filter_LinksSpans_AcrossSchedulerHops() throws InterruptedException {
+        final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes/1")
+                .header(TracingWebFilter.TRACEPARENT_HEADER, "00-" + TRACE_ID + "-" + PARENT_ID + "-01"));
+
+        StepVerifier.create(filter.filter(exchange, e -> tracer.trace("AnimeController.findById",
+                tracer.trace("AnimeService.findById", Mono.just(1).publishOn(Schedulers.parallel())))
+                .doOnNext(id -> {
+                    e.getAttributes().put(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, PathPatternParser.defaultInstance.parse("/animes/{id}"));
+                    e.getResponse().setStatusCode(HttpStatus.OK);
+                })
+                .then(e.getResponse().setComplete())))
+                .verifyComplete();
+
+        final Map<String, Span> spans = finishedSpans(4).stream()
+                .collect(Collectors.toMap(Span::getName, Function.identity()));
+        final Span server = spans.get("GET /animes/{id}");
+        assertEquals(PARENT_ID, server.getParentSpanId());
+        assertEquals(server.getSpanId(), spans.get("security").getParentSpanId());
+        assertEquals(server.getSpanId(), spans.get("AnimeController.findById").getParentSpanId());
+        assertEquals(spans.get("AnimeController.findById").getSpanId(), spans.get("AnimeService.findById").getParentSpanId());
+        assertTrue(spans.values().stream().allMatch(span -> TRACE_ID.equals(span.getTraceId())));
+        assertEquals("200", server.getAttributes().get("http.status_code"));
+        assertEquals(TRACE_ID, exchange.getResponse().getHeaders().getFirst(TracingWebFilter.TRACE_ID_HEADER));
+    }
+
+    @Test
+    @DisplayName("an unsampled traceparent is honoured and nothing is exported")
+    public void filter_ExportsNothing_WhenCallerDidNotSample() {
+        final MockServerWebExchange exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/animes")
+                .header(TracingWebFilter.TRACEPARENT_HEADER, "00-" + TRACE_ID + "-" + PARENT_ID + "-00"));
+
+        StepVerifier.create(filter.filter(exchange, e -> tracer.trace("AnimeController.listAll", Mono.empty())
+                .then(e.getResponse().setComplete())))
+                .verifyComplete();
+
+        assertTrue(exporter.getFinishedSpans().isEmpty());
+    }
+
+    /**
+     * Spans end in {@code doFinally}, which runs after the verifier has seen completion and, past a
+     * {@code publishOn}, on another thread.
+     */
+    private List<Span> finishedSpans(final int expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (exporter.getFinishedSpans().size() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        return exporter.getFinishedSpans();
+    }
+}
@@ -0,0 +1,217 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.writebehind;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.fabriciolfj.estudowebflux.api.exception.StacklessResponseStatusException;
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import com.github.fabriciolfj.estudowebflux.domain.service.AnimeService;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.AppSchedulers;
+import com.github.fabriciolfj.estudowebflux.infrastructure.scheduler.SchedulerProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentMatchers;
+import org.mockito.BDDMockito;
+import org.mockito.Mockito;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnimeWriteBehindTest {
+
+    private static final long TIMEOUT_MILLIS = 5_000;
+
+    @TempDir
+    Path directory;
+
+    private final AnimeService animeService = Mockito.mock(AnimeService.class);
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final List<AnimeWriteBehind> started = new ArrayList<>();
+    private AppSchedulers appSchedulers;
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setUp() {
+        appSchedulers = new AppSchedulers(new SchedulerProperties(), new SimpleMeterRegistry());
+        BDDMockito.when(animeService.upsertAll(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> Mono.just(invocation.<List<Anime>>getArgument(0).size()));
+        BDDMockito.when(animeService.insertAllIfAbsent(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> Flux.fromIterable(invocation.<List<String>>getArgument(0)).map(name -> new Anime(100, name)));
+    }
+
+    @AfterEach
+    public void tearDown() throws IOException {
+        for (AnimeWriteBehind writeBehind : started) {
+            writeBehind.destroy();
+        }
+        appSchedulers.destroy();
+    }
+
+    @Test
+    @DisplayName("animes with an id are upserted and animes without one are only inserted when the name is free")
+    public void submit_FlushesByIdAndInsertsByName() {
+        final AnimeWriteBehind writeBehind = start(properties(Duration.ofMillis(20)));
+
+        writeBehind.submit(new Anime(1, "Tensei")).block();
+        writeBehind.submit(new Anime(null, "Gintama")).block();
+
+        Mockito.verify(animeService, Mockito.timeout(TIMEOUT_MILLIS)).insertAllIfAbsent(List.of("Gintama"));
+        Mockito.verify(animeService, Mockito.timeout(TIMEOUT_MILLIS)).upsertAll(List.of(new Anime(1, "Tensei")));
+        await(() -> counter("anime.write-behind.flushed") == 2);
+        assertEquals(0, meterRegistry.get("anime.write-behind.buffered").gauge().value());
+    }
+
+    @Test
+    @DisplayName("beyond capacity, submits are rejected with 503")
+    public void submit_ReturnsServiceUnavailable_WhenBufferIsFull() {
+        final WriteBehindProperties properties = properties(Duration.ofHours(1));
+        properties.setCapacity(2);
+        final AnimeWriteBehind writeBehind = start(properties);
+
+        writeBehind.submit(new Anime(1, "Tensei")).block();
+        writeBehind.submit(new Anime(2, "Gintama")).block();
+
+        StepVerifier.create(writeBehind.submit(new Anime(3, "Naruto")))
+                .expectErrorMatches(e -> e instanceof StacklessResponseStatusException
+                        && ((ResponseStatusException) e).getStatus() == HttpStatus.SERVICE_UNAVAILABLE)
+                .verify();
+        assertEquals(1, counter("anime.write-behind.rejected"));
+    }
+
+    @Test
+    @DisplayName("acknowledged animes that were never flushed are written after a restart")
+    public void afterPropertiesSet_ReplaysLog_AfterCrash() {
+        final AnimeWriteBehind crashed = start(properties(Duration.ofHours(1)));
+        crashed.submit(new Anime(1, "Tensei")).block();
+        crashed.submit(new Anime(2, "Gintama")).block();
+        // never destroyed: the process died before flushing
+        started.remove(crashed);
+
+        start(properties(Duration.ofMillis(20)));
+
+        Mockito.verify(animeService, Mockito.timeout(TIMEOUT_MILLIS)).upsertAll(List.of(new Anime(1, "Tensei"), new Anime(2, "Gintama")));
+        await(() -> counter("anime.write-behind.flushed") == 2);
+    }
+
+    @Test
+    @DisplayName("a batch rejected by the database is split and the anime at fault is dead-lettered")
+    public void flush_DeadLettersFailingAnime_WhenBatchCannotBeWritten() throws IOException {
+        final Anime broken = new Anime(2, "Broken");
+        BDDMockito.when(animeService.upsertAll(ArgumentMatchers.anyList())).thenAnswer(invocation -> {
+            final List<Anime> animes = invocation.getArgument(0);
+            return animes.contains(broken)
+                    ? Mono.error(new DataIntegrityViolationException("duplicate key"))
+                    : Mono.just(animes.size());
+        });
+        final WriteBehindProperties properties = properties(Duration.ofMillis(20));
+        properties.setBatchSize(2);
+        final AnimeWriteBehind writeBehind = start(properties);
+
+        writeBehind.submit(new Anime(1, "Tensei")).block();
+        writeBehind.submit(broken).block();
+
+        await(() -> counter("anime.write-behind.dead-lettered") == 1 && counter("anime.write-behind.flushed") == 1);
+        assertEquals(List.of(objectMapper.writeValueAsString(broken)),
+                Files.readAllLines(directory.resolve(WriteAheadLog.DEAD_LETTER), StandardCharsets.UTF_8));
+
+        writeBehind.submit(new Anime(3, "Naruto")).block();
+        writeBehind.submit(new Anime(4, "Bleach")).block();
+        await(() -> counter("anime.write-behind.flushed") == 3);
+        assertEquals(1, counter("anime.write-behind.dead-lettered"));
+    }
+
+    @Test
+    @DisplayName("while the database is unavailable the batch is split after max-attempts but nothing is dead-lettered")
+    public void flush_KeepsAnimesPending_WhileDatabaseIsUnavailable() {
+        BDDMockito.when(animeService.upsertAll(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> Mono.error(StacklessResponseStatusException.template(HttpStatus.SERVICE_UNAVAILABLE, "Database unavailable").get()));
+        final AnimeWriteBehind writeBehind = start(properties(Duration.ofMillis(20)));
+
+        writeBehind.submit(new Anime(1, "Tensei")).block();
+        writeBehind.submit(new Anime(2, "Gintama")).block();
+
+        Mockito.verify(animeService, Mockito.timeout(TIMEOUT_MILLIS).atLeastOnce()).upsertAll(List.of(new Anime(1, "Tensei")));
+        assertEquals(0, counter("anime.write-behind.dead-lettered"));
+        assertEquals(2, meterRegistry.get("anime.write-behind.buffered").gauge().value());
+        assertTrue(counter("anime.write-behind.failures") >= 2);
+    }
+
+    @Test
+    @DisplayName("shutdown waits for the flush in progress instead of writing the same batch again")
+    public void destroy_WaitsForRunningFlush_BeforeDraining() throws IOException {
+        BDDMockito.when(animeService.upsertAll(ArgumentMatchers.anyList()))
+                .thenAnswer(invocation -> Mono.just(invocation.<List<Anime>>getArgument(0).size()).delayElement(Duration.ofMillis(100)));
+        final WriteBehindProperties properties = properties(Duration.ofMillis(20));
+        properties.setShutdownTimeout(Duration.ofSeconds(2));
+        final AnimeWriteBehind writeBehind = start(properties);
+
+        writeBehind.submit(new Anime(1, "Tensei")).block();
+        Mockito.verify(animeService, Mockito.timeout(TIMEOUT_MILLIS)).upsertAll(List.of(new Anime(1, "Tensei")));
+        writeBehind.submit(new Anime(2, "Gintama")).block();
+        started.remove(writeBehind);
+        writeBehind.destroy();
+
+        Mockito.verify(animeService).upsertAll(List.of(new Anime(1, "Tensei")));
+        Mockito.verify(animeService).upsertAll(List.of(new Anime(2, "Gintama")));
+        assertEquals(2, counter("anime.write-behind.flushed"));
+        assertEquals(0, meterRegistry.get("anime.write-behind.buffered").gauge().value());
+    }
+
+    private WriteBehindProperties properties(final Duration flushInterval) {
+        final WriteBehindProperties properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setWalDirectory(directory.toString());
+        properties.setFsync(false);
+        properties.setFlushInterval(flushInterval);
+        properties.setMaxAttempts(2);
+        properties.setShutdownTimeout(Duration.ofMillis(200));
+        return properties;
+    }
+
+    private AnimeWriteBehind start(final WriteBehindProperties properties) {
+        meterRegistry = new SimpleMeterRegistry();
+        final AnimeWriteBehind writeBehind = new AnimeWriteBehind(animeService, properties, appSchedulers, objectMapper, meterRegistry);
+        try {
+            writeBehind.afterPropertiesSet();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        started.add(writeBehind);
+        return writeBehind;
+    }
+
+    private double counter(final String name) {
+        return meterRegistry.counter(name).count();
+    }
+
+    private static void await(final BooleanSupplier condition) {
+        final long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.currentTimeMillis() < deadline, "condition not met in time");
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
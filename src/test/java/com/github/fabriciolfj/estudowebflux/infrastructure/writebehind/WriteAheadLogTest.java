@@ -0,0 +1,148 @@
+package com.github.fabriciolfj.estudowebflux.infrastructure.writebehind;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    @DisplayName("records left by a crash are replayed in order and a torn record is dropped")
+    public void open_ReplaysLeftoverRecords_AfterCrash() throws IOException {
+        final WriteAheadLog crashed = new WriteAheadLog(directory, false);
+        crashed.open((record, segment) -> true);
+        crashed.append("first");
+        crashed.rotate();
+        crashed.append("second");
+        crashed.append("{\"torn");
+        // no close: the process died here
+
+        final List<String> replayed = new ArrayList<>();
+        final List<WriteAheadLog.Segment> segments = new ArrayList<>();
+        final WriteAheadLog restarted = new WriteAheadLog(directory, false);
+        restarted.open((record, segment) -> {
+            if (record.startsWith("{")) {
+                return false;
+            }
+            replayed.add(record);
+            segments.add(segment);
+            return true;
+        });
+
+        assertEquals(List.of("first", "second"), replayed);
+        for (WriteAheadLog.Segment segment : segments) {
+            restarted.release(segment);
+        }
+        restarted.close();
+        assertEquals(List.of(), segmentFiles());
+    }
+
+    @Test
+    @DisplayName("a segment is deleted once it is sealed and every record in it is released")
+    public void release_DeletesSegment_OnlyWhenSealedAndFullyReleased() throws IOException {
+        final WriteAheadLog wal = new WriteAheadLog(directory, true);
+        wal.open((record, segment) -> true);
+        final WriteAheadLog.Segment first = wal.append("first");
+        final WriteAheadLog.Segment second = wal.append("second");
+
+        wal.release(first);
+        wal.release(second);
+        assertEquals(1, segmentFiles().size(), "the current segment stays open");
+
+        final WriteAheadLog.Segment third = wal.append("third");
+        wal.rotate();
+        assertEquals(2, segmentFiles().size(), "the sealed segment still has an outstanding record");
+
+        final WriteAheadLog.Segment fourth = wal.append("fourth");
+        wal.rotate();
+        wal.release(third);
+        wal.release(fourth);
+        wal.close();
+        assertEquals(List.of(), segmentFiles());
+    }
+
+    @Test
+    @DisplayName("rotate keeps an empty segment instead of sealing it")
+    public void rotate_DoesNothing_WhenNothingWasAppended() throws IOException {
+        final WriteAheadLog wal = new WriteAheadLog(directory, false);
+        wal.open((record, segment) -> true);
+        wal.rotate();
+        wal.rotate();
+
+        assertEquals(1, segmentFiles().size());
+        wal.close();
+    }
+
+    @Test
+    @DisplayName("dead-lettered records are kept apart from the segments and never replayed")
+    public void deadLetter_AppendsToItsOwnFile() throws IOException {
+        final WriteAheadLog wal = new WriteAheadLog(directory, false);
+        wal.open((record, segment) -> true);
+        wal.release(wal.append("bad"));
+        wal.deadLetter("bad");
+        wal.close();
+
+        assertEquals(List.of("bad"), Files.readAllLines(directory.resolve(WriteAheadLog.DEAD_LETTER), StandardCharsets.UTF_8));
+        final List<String> replayed = new ArrayList<>();
+        final WriteAheadLog restarted = new WriteAheadLog(directory, false);
+        restarted.open((record, segment) -> replayed.add(record));
+        restarted.close();
+        assertTrue(replayed.isEmpty());
+    }
+
+    @Test
+    @DisplayName("concurrent appends share one fsync and all return once their record is on disk")
+    public void append_SharesOneSync_WhenAppendsAreConcurrent() throws Exception {
+        final int appenders = 8;
+        final WriteAheadLog wal = new WriteAheadLog(directory, true, Duration.ofMillis(200));
+        wal.open((record, segment) -> true);
+        final CyclicBarrier start = new CyclicBarrier(appenders);
+        final ExecutorService executor = Executors.newFixedThreadPool(appenders);
+        try {
+            final List<Future<WriteAheadLog.Segment>> appended = new ArrayList<>();
+            for (int i = 0; i < appenders; i++) {
+                final String record = "record-" + i;
+                appended.add(executor.submit(() -> {
+                    start.await();
+                    return wal.append(record);
+                }));
+            }
+            for (Future<WriteAheadLog.Segment> future : appended) {
+                future.get(5, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, wal.syncs());
+        assertEquals(appenders, Files.readAllLines(segmentFiles().get(0), StandardCharsets.UTF_8).size());
+        wal.close();
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".wal")).collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.github.fabriciolfj.estudowebflux.loadtest;
+
+import com.github.fabriciolfj.estudowebflux.EstudoWebfluxApplication;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.TrustManagerFactory;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyStore;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * {@code GET /animes/{id}} from {@code loadtest.concurrency} closed-loop workers over HTTP/1.1 keep-alive and over
+ * HTTP/2, in cleartext (h2c) and over TLS (h2 through ALPN, profile {@code tls} with a self-signed certificate).
+ * Uses the JDK client, which multiplexes every HTTP/2 request on one connection; Reactor Netty 0.9 has no HTTP/2
+ * client. Basic auth hashes the password on every request, so seed with a cheap cost to keep it from dominating:
+ * {@code docker-compose up -d} and
+ * {@code mvn test -Dtest=Http2Benchmark -Dloadtest.http2=true -Dloadtest.bcrypt-strength=4 -Dblockhound.enabled=false}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "loadtest.http2", matches = "true")
+class Http2Benchmark {
+
+    private static final String KEY_STORE = "/tls/localhost.p12";
+    private static final char[] KEY_STORE_PASSWORD = "changeit".toCharArray();
+
+    private final LoadTestSettings settings = new LoadTestSettings();
+
+    @Test
+    @DisplayName("anime reads over HTTP/1.1 and multiplexed HTTP/2, cleartext and TLS")
+    public void multiplexedVersusHttp11() throws Exception {
+        final LoadTestSeeder.SeededData seeded = new LoadTestSeeder(settings).seed();
+        final StringBuilder results = new StringBuilder();
+
+        for (boolean tls : List.of(false, true)) {
+            final ConfigurableApplicationContext context = new SpringApplicationBuilder(EstudoWebfluxApplication.class)
+                    .profiles(tls ? new String[]{"load-test", "tls"} : new String[]{"load-test"})
+                    .properties("server.port=0",
+                            "spring.r2dbc.url=" + settings.getR2dbcUrl(),
+                            "spring.r2dbc.username=" + settings.getR2dbcUsername(),
+                            "spring.r2dbc.password=" + settings.getR2dbcPassword())
+                    .run();
+            try {
+                final String baseUrl = (tls ? "https" : "http") + "://localhost:" + context.getEnvironment().getProperty("local.server.port");
+                for (HttpClient.Version version : List.of(HttpClient.Version.HTTP_1_1, HttpClient.Version.HTTP_2)) {
+                    final HttpClient client = client(version, tls);
+                    run(client, baseUrl, seeded, settings.getWarmup(), new LoadReport());
+                    final LoadReport report = run(client, baseUrl, seeded, settings.getDuration(), new LoadReport());
+                    results.append(System.lineSeparator())
+                            .append(version == HttpClient.Version.HTTP_2 ? (tls ? "h2" : "h2c") : (tls ? "HTTP/1.1 + TLS" : "HTTP/1.1"))
+                            .append(System.lineSeparator())
+                            .append(report.format());
+                }
+            } finally {
+                context.close();
+            }
+        }
+
+        log.info("GET /animes/{id}, {} workers{}", settings.getConcurrency(), results);
+    }
+
+    private LoadReport run(final HttpClient client, final String baseUrl, final LoadTestSeeder.SeededData seeded,
+                           final Duration duration, final LoadReport report) {
+        final long start = System.nanoTime();
+        final long deadline = start + duration.toNanos();
+
+        Flux.range(0, settings.getConcurrency())
+                .flatMap(worker -> {
+                    final SplittableRandom random = new SplittableRandom(settings.getSeed() + worker);
+                    return Mono.defer(() -> request(client, baseUrl, seeded, random, report))
+                            .repeat(() -> System.nanoTime() < deadline);
+                }, settings.getConcurrency())
+                .blockLast();
+
+        report.finish(Duration.ofNanos(System.nanoTime() - start));
+        return report;
+    }
+
+    private Mono<Void> request(final HttpClient client, final String baseUrl, final LoadTestSeeder.SeededData seeded,
+                               final SplittableRandom random, final LoadReport report) {
+        final int id = seeded.getMinAnimeId() + random.nextInt(seeded.getMaxAnimeId() - seeded.getMinAnimeId() + 1);
+        final String username = seeded.getReaders().get(random.nextInt(seeded.getReaders().size()));
+        final HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/animes/" + id))
+                .header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString((username + ":" + settings.getUserPassword()).getBytes(StandardCharsets.UTF_8)))
+                .GET()
+                .build();
+
+        final long start = System.nanoTime();
+        return Mono.fromFuture(() -> client.sendAsync(request, HttpResponse.BodyHandlers.discarding()))
+                .map(response -> response.statusCode() == 200)
+                .onErrorReturn(false)
+                .doOnNext(success -> report.record(TrafficMix.Operation.READ, System.nanoTime() - start, success))
+                .then();
+    }
+
+    private static HttpClient client(final HttpClient.Version version, final boolean tls) throws Exception {
+        final HttpClient.Builder builder = HttpClient.newBuilder().version(version);
+        if (tls) {
+            final KeyStore trustStore = KeyStore.getInstance("PKCS12");
+            try (InputStream in = Http2Benchmark.class.getResourceAsStream(KEY_STORE)) {
+                trustStore.load(in, KEY_STORE_PASSWORD);
+            }
+            final TrustManagerFactory trustManagers = TrustManagerFactory.getInstance(TrustManagerFactory.getDefaultAlgorithm());
+            trustManagers.init(trustStore);
+            final SSLContext sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, trustManagers.getTrustManagers(), null);
+            builder.sslContext(sslContext);
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.fabriciolfj.estudowebflux.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms (microseconds) and error counts per {@link TrafficMix.Operation}.
+ */
+public class LoadReport {
+
+    private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(1);
+
+    private final Map<TrafficMix.Operation, Histogram> latencies = new EnumMap<>(TrafficMix.Operation.class);
+    private final Map<TrafficMix.Operation, LongAdder> errors = new EnumMap<>(TrafficMix.Operation.class);
+    private final Histogram total = new ConcurrentHistogram(MAX_LATENCY_MICROS, 3);
+    private final LongAdder totalErrors = new LongAdder();
+    private volatile Duration elapsed = Duration.ZERO;
+
+    public LoadReport() {
+        for (TrafficMix.Operation operation : TrafficMix.Operation.values()) {
+            latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+            errors.put(operation, new LongAdder());
+        }
+    }
+
+    public void record(final TrafficMix.Operation operation, final long latencyNanos, final boolean success) {
+        final long micros = Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), MAX_LATENCY_MICROS);
+        latencies.get(operation).recordValue(micros);
+        total.recordValue(micros);
+        if (!success) {
+            errors.get(operation).increment();
+            totalErrors.increment();
+        }
+    }
+
+    public void finish(final Duration elapsed) {
+        this.elapsed = elapsed;
+    }
+
+    public double throughput() {
+        return elapsed.isZero() ? 0 : total.getTotalCount() * 1_000d / elapsed.toMillis();
+    }
+
+    public double errorRate() {
+        return total.getTotalCount() == 0 ? 0 : totalErrors.doubleValue() / total.getTotalCount();
+    }
+
+    public double p99Millis() {
+        return total.getValueAtPercentile(99) / 1_000d;
+    }
+
+    public List<String> violations(final LoadTestSettings settings) {
+        final List<String> violations = new ArrayList<>();
+        if (total.getTotalCount() == 0) {
+            violations.add("no requests completed");
+        }
+        if (p99Millis() > settings.getMaxP99Millis()) {
+            violations.add(String.format("p99 %.1f ms > %.1f ms", p99Millis(), settings.getMaxP99Millis()));
+        }
+        if (errorRate() > settings.getMaxErrorRate()) {
+            violations.add(String.format("error rate %.4f > %.4f", errorRate(), settings.getMaxErrorRate()));
+        }
+        if (throughput() < settings.getMinThroughput()) {
+            violations.add(String.format("throughput %.1f req/s < %.1f req/s", throughput(), settings.getMinThroughput()));
+        }
+        return violations;
+    }
+
+    public String format() {
+        final StringBuilder report = new StringBuilder()
+                .append(String.format("%d requests in %d ms, %.1f req/s, error rate %.4f%n",
+                        total.getTotalCount(), elapsed.toMillis(), throughput(), errorRate()))
+                .append(String.format("%-6s %9s %8s %10s %10s %10s %10s%n", "op", "count", "errors", "p50 ms", "p99 ms", "p999 ms", "max ms"));
+        latencies.forEach((operation, histogram) -> report.append(line(operation.name(), histogram, errors.get(operation).sum())));
+        return report.append(line("ALL", total, totalErrors.sum())).toString();
+    }
+
+    private static String line(final String name, final Histogram histogram, final long errors) {
+        return String.format("%-6s %9d %8d %10.2f %10.2f %10.2f %10.2f%n", name, histogram.getTotalCount(), errors,
+                histogram.getValueAtPercentile(50) / 1_000d, histogram.getValueAtPercentile(99) / 1_000d,
+                histogram.getValueAtPercentile(99.9) / 1_000d, histogram.getMaxValue() / 1_000d);
+    }
+}
@@ -0,0 +1,149 @@
+package com.github.fabriciolfj.estudowebflux.loadtest;
+
+import com.github.fabriciolfj.estudowebflux.EstudoWebfluxApplication;
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunctions;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Seeds the database, then drives {@code concurrency} closed-loop workers with the configured read/write/batch mix
+ * for a warmup and a measured window. Run with {@code mvn -P load-test verify}; the report also goes to
+ * {@code target/load-test/report.txt}.
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "loadtest.enabled", matches = "true")
+public class LoadTestIT {
+
+    private final LoadTestSettings settings = new LoadTestSettings();
+    private final Map<String, WebClient> clientsByUser = new ConcurrentHashMap<>();
+
+    @Test
+    @DisplayName("mixed workload stays within the latency, error rate and throughput thresholds")
+    public void mixedWorkload_StaysWithinThresholds() throws IOException {
+        final LoadTestSeeder.SeededData seeded = new LoadTestSeeder(settings).seed();
+
+        ConfigurableApplicationContext context = null;
+        String baseUrl = settings.getBaseUrl();
+        if (baseUrl.isEmpty()) {
+            context = new SpringApplicationBuilder(EstudoWebfluxApplication.class)
+                    .profiles("load-test")
+                    .properties("server.port=0",
+                            "spring.r2dbc.url=" + settings.getR2dbcUrl(),
+                            "spring.r2dbc.username=" + settings.getR2dbcUsername(),
+                            "spring.r2dbc.password=" + settings.getR2dbcPassword())
+                    .run();
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        }
+
+        final ConnectionProvider connections = ConnectionProvider.builder("load-test")
+                .maxConnections(settings.getConcurrency())
+                .pendingAcquireMaxCount(-1)
+                .build();
+        try {
+            final WebClient webClient = WebClient.builder()
+                    .baseUrl(baseUrl)
+                    .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections)))
+                    .build();
+
+            run(webClient, seeded, settings.getWarmup(), new LoadReport());
+            final LoadReport report = run(webClient, seeded, settings.getDuration(), new LoadReport());
+
+            final String formatted = report.format();
+            log.info("Load test ({} workers, mix {}, seed {}){}{}", settings.getConcurrency(), settings.getMix(),
+                    settings.getSeed(), System.lineSeparator(), formatted);
+            final Path reportFile = Path.of("target", "load-test", "report.txt");
+            Files.createDirectories(reportFile.getParent());
+            Files.writeString(reportFile, formatted);
+
+            final List<String> violations = report.violations(settings);
+            assertTrue(violations.isEmpty(), "Load test thresholds violated: " + violations);
+        } finally {
+            connections.dispose();
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private LoadReport run(final WebClient webClient, final LoadTestSeeder.SeededData seeded, final Duration duration,
+                           final LoadReport report) {
+        final TrafficMix mix = new TrafficMix(settings.getMix());
+        final long start = System.nanoTime();
+        final long deadline = start + duration.toNanos();
+
+        Flux.range(0, settings.getConcurrency())
+                .flatMap(worker -> {
+                    final SplittableRandom random = new SplittableRandom(settings.getSeed() + worker);
+                    return Mono.defer(() -> request(webClient, seeded, mix.next(random), random, report))
+                            .repeat(() -> System.nanoTime() < deadline);
+                }, settings.getConcurrency())
+                .blockLast();
+
+        report.finish(Duration.ofNanos(System.nanoTime() - start));
+        return report;
+    }
+
+    private Mono<Void> request(final WebClient webClient, final LoadTestSeeder.SeededData seeded,
+                               final TrafficMix.Operation operation, final SplittableRandom random, final LoadReport report) {
+        final WebClient.RequestHeadersSpec<?> spec;
+        switch (operation) {
+            case WRITE:
+                spec = as(webClient, pick(seeded.getAdmins(), random)).post().uri("/animes")
+                        .bodyValue(new Anime(null, "load-w-" + random.nextInt()));
+                break;
+            case BATCH:
+                final List<Anime> batch = new ArrayList<>(settings.getBatchSize());
+                for (int i = 0; i < settings.getBatchSize(); i++) {
+                    batch.add(new Anime(null, "load-b-" + random.nextInt()));
+                }
+                spec = as(webClient, pick(seeded.getAdmins(), random)).post().uri("/animes/batch").bodyValue(batch);
+                break;
+            default:
+                final int id = seeded.getMinAnimeId() + random.nextInt(seeded.getMaxAnimeId() - seeded.getMinAnimeId() + 1);
+                spec = random.nextInt(10) == 0
+                        ? as(webClient, pick(seeded.getReaders(), random)).get().uri("/animes/page?after={id}&size=20", id)
+                        : as(webClient, pick(seeded.getReaders(), random)).get().uri("/animes/{id}", id);
+                break;
+        }
+
+        final long start = System.nanoTime();
+        return spec.exchange()
+                .flatMap(response -> response.releaseBody().thenReturn(response.statusCode().is2xxSuccessful()))
+                .onErrorReturn(false)
+                .doOnNext(success -> report.record(operation, System.nanoTime() - start, success))
+                .then();
+    }
+
+    private WebClient as(final WebClient webClient, final String username) {
+        return clientsByUser.computeIfAbsent(username, user -> webClient.mutate()
+                .filter(ExchangeFilterFunctions.basicAuthentication(user, settings.getUserPassword()))
+                .build());
+    }
+
+    private static String pick(final List<String> usernames, final SplittableRandom random) {
+        return usernames.get(random.nextInt(usernames.size()));
+    }
+}
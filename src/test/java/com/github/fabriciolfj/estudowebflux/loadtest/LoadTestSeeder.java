@@ -0,0 +1,85 @@
+package com.github.fabriciolfj.estudowebflux.loadtest;
+
+import com.github.fabriciolfj.estudowebflux.infrastructure.r2dbc.R2dbcPools;
+import io.r2dbc.pool.ConnectionPool;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.r2dbc.core.DatabaseClient;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replaces the rows of previous runs ({@code load-*}) with {@code animes} animes and {@code users} accounts,
+ * half of them readers ({@code ROLE_USER}) and half admins ({@code ROLE_ADMIN,ROLE_USER}).
+ */
+@Slf4j
+public class LoadTestSeeder {
+
+    private final LoadTestSettings settings;
+
+    public LoadTestSeeder(final LoadTestSettings settings) {
+        this.settings = settings;
+    }
+
+    public SeededData seed() {
+        final ConnectionPool pool = R2dbcPools.pool(settings.getR2dbcUrl(), settings.getR2dbcUsername(),
+                settings.getR2dbcPassword(), new R2dbcPools.Settings());
+        try {
+            final DatabaseClient client = DatabaseClient.create(pool);
+            final String password = "{bcrypt}" + new BCryptPasswordEncoder(settings.getBcryptStrength()).encode(settings.getUserPassword());
+            final int admins = Math.max(1, settings.getUsers() / 2);
+            final int readers = Math.max(1, settings.getUsers() - admins);
+
+            client.execute("DELETE FROM anime WHERE name LIKE 'load-%'").fetch().rowsUpdated()
+                    .then(client.execute("DELETE FROM user_sec WHERE username LIKE 'load-%'").fetch().rowsUpdated())
+                    .then(client.execute("INSERT INTO anime (name) SELECT 'load-' || g FROM generate_series(1, :count) g")
+                            .bind("count", settings.getAnimes())
+                            .fetch().rowsUpdated())
+                    .then(insertUsers(client, "load-reader-", readers, password, "ROLE_USER"))
+                    .then(insertUsers(client, "load-admin-", admins, password, "ROLE_ADMIN,ROLE_USER"))
+                    .block();
+
+            final SeededData seeded = client.execute("SELECT min(id) AS min_id, max(id) AS max_id FROM anime WHERE name LIKE 'load-%'")
+                    .map(row -> new SeededData(row.get("min_id", Integer.class), row.get("max_id", Integer.class),
+                            usernames("load-reader-", readers), usernames("load-admin-", admins)))
+                    .one()
+                    .block();
+            log.info("Seeded {} animes (ids {}..{}), {} readers and {} admins", settings.getAnimes(),
+                    seeded.getMinAnimeId(), seeded.getMaxAnimeId(), readers, admins);
+            return seeded;
+        } finally {
+            pool.dispose();
+        }
+    }
+
+    private static Mono<Integer> insertUsers(final DatabaseClient client, final String prefix, final int count,
+                                            final String password, final String authorities) {
+        return client.execute("INSERT INTO user_sec (name, username, password, authorities) "
+                + "SELECT :prefix || g, :prefix || g, :password, :authorities FROM generate_series(1, :count) g")
+                .bind("prefix", prefix)
+                .bind("password", password)
+                .bind("authorities", authorities)
+                .bind("count", count)
+                .fetch()
+                .rowsUpdated();
+    }
+
+    private static List<String> usernames(final String prefix, final int count) {
+        final List<String> usernames = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            usernames.add(prefix + i);
+        }
+        return usernames;
+    }
+
+    @Value
+    public static class SeededData {
+        int minAnimeId;
+        int maxAnimeId;
+        List<String> readers;
+        List<String> admins;
+    }
+}
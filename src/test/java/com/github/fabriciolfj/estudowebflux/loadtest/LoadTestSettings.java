@@ -0,0 +1,39 @@
+package com.github.fabriciolfj.estudowebflux.loadtest;
+
+import lombok.Getter;
+
+import java.time.Duration;
+
+/**
+ * Everything the load test can be tuned with, read from {@code -Dloadtest.*} system properties.
+ */
+@Getter
+public class LoadTestSettings {
+
+    /**
+     * Service under test; empty boots the application in-process with the {@code load-test} profile.
+     */
+    private final String baseUrl = System.getProperty("loadtest.base-url", "");
+    private final String r2dbcUrl = System.getProperty("loadtest.r2dbc.url", "r2dbc:postgresql://localhost:5432/postgres?schema=anime");
+    private final String r2dbcUsername = System.getProperty("loadtest.r2dbc.username", "root");
+    private final String r2dbcPassword = System.getProperty("loadtest.r2dbc.password", "root");
+
+    private final int animes = Integer.getInteger("loadtest.animes", 10_000);
+    private final int users = Integer.getInteger("loadtest.users", 20);
+    private final String userPassword = System.getProperty("loadtest.user-password", "load-test");
+    private final int bcryptStrength = Integer.getInteger("loadtest.bcrypt-strength", 10);
+
+    private final Duration warmup = Duration.parse(System.getProperty("loadtest.warmup", "PT10S"));
+    private final Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+    private final long seed = Long.getLong("loadtest.seed", 42L);
+    /**
+     * Relative weights of read:write:batch requests.
+     */
+    private final String mix = System.getProperty("loadtest.mix", "80:15:5");
+    private final int batchSize = Integer.getInteger("loadtest.batch-size", 20);
+
+    private final double maxP99Millis = Double.parseDouble(System.getProperty("loadtest.max-p99-ms", "250"));
+    private final double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+    private final double minThroughput = Double.parseDouble(System.getProperty("loadtest.min-throughput", "0"));
+}
@@ -0,0 +1,43 @@
+package com.github.fabriciolfj.estudowebflux.loadtest;
+
+import java.util.SplittableRandom;
+
+/**
+ * Weighted choice of the next operation. Each worker owns a {@link SplittableRandom} derived from the run seed,
+ * so the same seed and concurrency replay the same sequence of operations.
+ */
+public class TrafficMix {
+
+    public enum Operation {
+        READ, WRITE, BATCH
+    }
+
+    private final int[] cumulativeWeights;
+
+    public TrafficMix(final String mix) {
+        final String[] weights = mix.split(":");
+        if (weights.length != Operation.values().length) {
+            throw new IllegalArgumentException("Expected read:write:batch weights, got " + mix);
+        }
+
+        cumulativeWeights = new int[weights.length];
+        int total = 0;
+        for (int i = 0; i < weights.length; i++) {
+            total += Integer.parseInt(weights[i].trim());
+            cumulativeWeights[i] = total;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one weight must be positive: " + mix);
+        }
+    }
+
+    public Operation next(final SplittableRandom random) {
+        final int roll = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        for (int i = 0; i < cumulativeWeights.length; i++) {
+            if (roll < cumulativeWeights[i]) {
+                return Operation.values()[i];
+            }
+        }
+        throw new IllegalStateException("unreachable");
+    }
+}
@@ -0,0 +1,91 @@
+package com.github.fabriciolfj.estudowebflux.nativeimage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.time.Duration;
+
+/**
+ * Runs the binary built by {@code mvn -Pnative package} against the Postgres from docker-compose.
+ * {@code mvn -Dtest=NativeImageSmokeIT -Dnative.binary=target/estudo-webflux test}
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "native.binary", matches = ".+")
+public class NativeImageSmokeIT {
+
+    private static final String R2DBC_URL = System.getProperty("native.r2dbc.url", "r2dbc:postgresql://localhost:5432/postgres?schema=anime");
+
+    private Process process;
+    private WebTestClient client;
+    private long startNanos;
+
+    @BeforeEach
+    public void setUp() throws IOException {
+        final int port = freePort();
+        startNanos = System.nanoTime();
+        process = new ProcessBuilder(System.getProperty("native.binary"),
+                "--server.port=" + port,
+                "--spring.r2dbc.url=" + R2DBC_URL)
+                .redirectErrorStream(true)
+                .redirectOutput(new File("target/native-smoke.log"))
+                .start();
+
+        client = WebTestClient.bindToServer()
+                .baseUrl("http://localhost:" + port)
+                .responseTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        process.destroy();
+    }
+
+    @Test
+    @DisplayName("native binary starts and serves authenticated anime reads")
+    public void nativeBinary_ServesAnimes() throws InterruptedException {
+        awaitLiveness();
+        log.info("Native binary answered liveness after {} ms", (System.nanoTime() - startNanos) / 1_000_000);
+
+        client.get()
+                .uri("/animes")
+                .headers(h -> h.setBasicAuth("lucas", "1234"))
+                .exchange()
+                .expectStatus().isOk();
+
+        client.get()
+                .uri("/animes/{id}", Integer.MAX_VALUE)
+                .headers(h -> h.setBasicAuth("lucas", "1234"))
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404);
+    }
+
+    private void awaitLiveness() throws InterruptedException {
+        final long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                client.get().uri("/actuator/health/liveness").exchange().expectStatus().isOk();
+                return;
+            } catch (Throwable notUpYet) {
+                Thread.sleep(20);
+            }
+        }
+        throw new IllegalStateException("Native binary did not start, see target/native-smoke.log");
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.github.fabriciolfj.estudowebflux.util;
+
+import com.github.fabriciolfj.estudowebflux.domain.entity.Anime;
+import com.github.fabriciolfj.estudowebflux.domain.repository.AnimeRepository;
+import com.github.fabriciolfj.estudowebflux.infrastructure.sharding.AnimeShards;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * In-memory {@link AnimeRepository} stand-in that can be made slow or failing, to exercise the resilience layer.
+ */
+public class FaultInjectingAnimeRepository implements AnimeRepository {
+
+    private final Map<Integer, Anime> animes = new ConcurrentSkipListMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    private final AtomicInteger calls = new AtomicInteger();
+    private final AtomicInteger failuresRemaining = new AtomicInteger();
+    private volatile Duration latency = Duration.ZERO;
+    private volatile Supplier<Throwable> failure = () -> new IllegalStateException("injected failure");
+
+    public FaultInjectingAnimeRepository withLatency(final Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    public FaultInjectingAnimeRepository failNext(final int times, final Supplier<Throwable> failure) {
+        this.failure = failure;
+        this.failuresRemaining.set(times);
+        return this;
+    }
+
+    public int calls() {
+        return calls.get();
+    }
+
+    private <T> Mono<T> faulty(final Supplier<Mono<T>> operation) {
+        return Mono.defer(() -> {
+            calls.incrementAndGet();
+            if (failuresRemaining.getAndUpdate(remaining -> Math.max(remaining - 1, 0)) > 0) {
+                return Mono.error(failure.get());
+            }
+            return latency.isZero() ? operation.get() : Mono.delay(latency).then(operation.get());
+        });
+    }
+
+    private <T> Flux<T> faultyMany(final Supplier<Flux<T>> operation) {
+        return faulty(() -> Mono.just(true)).flatMapMany(ignored -> operation.get());
+    }
+
+    @Override
+    public <S extends Anime> Mono<S> save(final S entity) {
+        return faulty(() -> {
+            if (entity.getId() == null) {
+                entity.setId(sequence.incrementAndGet());
+            }
+            animes.put(entity.getId(), entity);
+            return Mono.just(entity);
+        });
+    }
+
+    @Override
+    public <S extends Anime> Flux<S> saveAll(final Iterable<S> entities) {
+        return Flux.fromIterable(entities).concatMap(this::save);
+    }
+
+    @Override
+    public <S extends Anime> Flux<S> saveAll(final Publisher<S> entityStream) {
+        return Flux.from(entityStream).concatMap(this::save);
+    }
+
+    @Override
+    public Mono<Anime> findById(final Integer id) {
+        return faulty(() -> Mono.justOrEmpty(animes.get(id)));
+    }
+
+    @Override
+    public Mono<Anime> findById(final Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Boolean> existsById(final Integer id) {
+        return faulty(() -> Mono.just(animes.containsKey(id)));
+    }
+
+    @Override
+    public Mono<Boolean> existsById(final Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::existsById);
+    }
+
+    @Override
+    public Flux<Anime> findAll() {
+        return faultyMany(() -> Flux.fromIterable(animes.values()));
+    }
+
+    @Override
+    public Flux<Anime> findPageAfter(final Integer afterId, final int size) {
+        return faultyMany(() -> Flux.fromIterable(animes.values())
+                .filter(anime -> anime.getId() > afterId)
+                .take(size));
+    }
+
+    @Override
+    public Flux<Anime> findAllById(final Iterable<Integer> ids) {
+        return Flux.fromIterable(ids).concatMap(this::findById);
+    }
+
+    @Override
+    public Flux<Anime> findAllById(final Publisher<Integer> idStream) {
+        return Flux.from(idStream).concatMap(this::findById);
+    }
+
+    @Override
+    public Mono<Long> count() {
+        return faulty(() -> Mono.just((long) animes.size()));
+    }
+
+    @Override
+    public Mono<Void> deleteById(final Integer id) {
+        return faulty(() -> Mono.fromRunnable(() -> animes.remove(id)));
+    }
+
+    @Override
+    public Mono<Void> deleteById(final Publisher<Integer> id) {
+        return Mono.from(id).flatMap(this::deleteById);
+    }
+
+    @Override
+    public Mono<Void> delete(final Anime entity) {
+        return deleteById(entity.getId());
+    }
+
+    @Override
+    public Mono<Void> deleteAll(final Iterable<? extends Anime> entities) {
+        return Flux.fromIterable(entities).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll(final Publisher<? extends Anime> entityStream) {
+        return Flux.from(entityStream).concatMap(this::delete).then();
+    }
+
+    @Override
+    public Mono<Void> deleteAll() {
+        return faulty(() -> Mono.fromRunnable(animes::clear));
+    }
+
+    @Override
+    public Flux<Anime> deleteByIds(final Integer[] ids) {
+        return faultyMany(() -> Flux.fromArray(ids).distinct().flatMap(id -> Mono.justOrEmpty(animes.remove(id))));
+    }
+
+    @Override
+    public Flux<Anime> deleteByNamePrefix(final String prefix) {
+        return faultyMany(() -> Flux.fromIterable(List.copyOf(animes.values()))
+                .filter(anime -> anime.getName().startsWith(prefix))
+                .doOnNext(anime -> animes.remove(anime.getId())));
+    }
+
+    @Override
+    public Flux<Anime> renameAll(final Integer[] ids, final String[] names) {
+        return faultyMany(() -> Flux.defer(() -> {
+            final List<Anime> renamed = new ArrayList<>();
+            for (int i = 0; i < ids.length; i++) {
+                final Anime anime = animes.get(ids[i]);
+                if (anime != null) {
+                    anime.setName(names[i]);
+                    renamed.add(anime);
+                }
+            }
+            return Flux.fromIterable(renamed);
+        }));
+    }
+
+    @Override
+    public Mono<Anime> upsertByName(final String name) {
+        return faulty(() -> Mono.fromCallable(() -> upsertNamed(name)));
+    }
+
+    @Override
+    public Flux<Anime> upsertAllByName(final String[] names) {
+        return faultyMany(() -> Flux.fromArray(names).map(this::upsertNamed).distinct(Anime::getId));
+    }
+
+    @Override
+    public Flux<Anime> insertAllByNameIfAbsent(final String[] names) {
+        return faultyMany(() -> Flux.fromArray(names)
+                .filter(name -> animes.values().stream().noneMatch(existing -> normalized(existing.getName()).equals(normalized(name))))
+                .map(this::upsertNamed));
+    }
+
+    private static String normalized(final String name) {
+        return AnimeShards.normalizedName(name);
+    }
+
+    private Anime upsertNamed(final String name) {
+        final Anime anime = animes.values().stream()
+                .filter(existing -> normalized(existing.getName()).equals(normalized(name)))
+                .findFirst()
+                .orElseGet(() -> new Anime(sequence.incrementAndGet(), name));
+        anime.setName(name);
+        animes.put(anime.getId(), anime);
+        return anime;
+    }
+}